@@ -0,0 +1,44 @@
+package com.example.Library_Management.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Entry point of the shaded benchmarks jar. Accepts the usual JMH command line and,
+ * unless -rf/-rff are given, writes the results as JSON to
+ * results/jmh-&lt;timestamp&gt;.json so runs can be compared over time.
+ *
+ *   mvn -f ../Library_Management install -DskipTests
+ *   mvn package
+ *   java -jar target/benchmarks.jar                         # everything
+ *   java -jar target/benchmarks.jar BookSearch -p catalogSize=10000
+ */
+public final class BenchmarkRunner {
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        OptionsBuilder builder = new OptionsBuilder();
+        builder.parent(commandLine);
+        if (!commandLine.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!commandLine.getResult().hasValue()) {
+            File directory = new File("results");
+            directory.mkdirs();
+            String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+            builder.result(new File(directory, "jmh-" + timestamp + ".json").getPath());
+        }
+        Options options = builder.build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,111 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.dto.BookSummary;
+import com.example.Library_Management.entity.Book;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serializes a full catalog listing the three ways GET /books can answer: full Book
+ * entities (the old response), BookSummary views (the default) and BookSummary
+ * narrowed to ?fields=id,title,availableCopies. Summary timings include mapping from
+ * the entities, as the controller does. Descriptions are a few hundred words, like
+ * publisher blurbs. Payload sizes are printed once at setup.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BookListingBenchmark {
+
+    @Param({"10000"})
+    public int books;
+
+    private ObjectWriter writer;
+    private ObjectWriter fieldsWriter;
+    private List<Book> catalog;
+
+    @Setup
+    public void setUp() throws Exception {
+        ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        SimpleFilterProvider all = new SimpleFilterProvider()
+                .addFilter("fields", SimpleBeanPropertyFilter.serializeAll());
+        SimpleFilterProvider selected = new SimpleFilterProvider()
+                .addFilter("fields", SimpleBeanPropertyFilter.filterOutAllExcept(Set.of("id", "title", "availableCopies")));
+        writer = objectMapper.writer(all);
+        fieldsWriter = objectMapper.writer(selected);
+
+        Random random = new Random(SyntheticCatalog.SEED);
+        catalog = new ArrayList<>(books);
+        for (int i = 1; i <= books; i++) {
+            Book book = new Book(
+                    "The " + word(random) + " " + word(random),
+                    SyntheticCatalog.FIRST_NAMES[random.nextInt(SyntheticCatalog.FIRST_NAMES.length)] + " "
+                            + SyntheticCatalog.LAST_NAMES[random.nextInt(SyntheticCatalog.LAST_NAMES.length)],
+                    String.format("978%010d", i),
+                    SyntheticCatalog.CATEGORIES[random.nextInt(SyntheticCatalog.CATEGORIES.length)],
+                    1900 + random.nextInt(125),
+                    description(random, 150 + random.nextInt(250)),
+                    1 + random.nextInt(5));
+            book.setId((long) i);
+            book.setCoverImageUrl("https://covers.example.com/" + i + ".jpg");
+            book.setVersion(0L);
+            book.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+            book.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0));
+            catalog.add(book);
+        }
+
+        System.out.printf("%nPayload for %,d books: full %,d bytes, summary %,d bytes, fields %,d bytes%n",
+                books, fullView().length, summaryView().length, selectedFields().length);
+    }
+
+    private static String word(Random random) {
+        return SyntheticCatalog.WORDS[random.nextInt(SyntheticCatalog.WORDS.length)];
+    }
+
+    private static String description(Random random, int words) {
+        StringBuilder text = new StringBuilder();
+        for (int w = 0; w < words; w++) {
+            text.append(w == 0 ? "" : " ").append(word(random));
+        }
+        return text.append('.').toString();
+    }
+
+    @Benchmark
+    public byte[] fullView() throws Exception {
+        return writer.writeValueAsBytes(catalog);
+    }
+
+    @Benchmark
+    public byte[] summaryView() throws Exception {
+        return writer.writeValueAsBytes(catalog.stream().map(BookSummary::from).toList());
+    }
+
+    @Benchmark
+    public byte[] selectedFields() throws Exception {
+        return fieldsWriter.writeValueAsBytes(catalog.stream().map(BookSummary::from).toList());
+    }
+}
@@ -0,0 +1,87 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.service.BorrowingService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A full BorrowingService.borrowBook + returnBook round trip: user row lock, limit
+ * check, guarded stock update, insert, then the versioned return. Each benchmark
+ * thread owns its own user, so only book stock is contended.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx4g"})
+@Threads(4)
+public class BorrowingBenchmark {
+
+    private static final int USERS = 64;
+
+    @State(Scope.Benchmark)
+    public static class Catalog {
+
+        @Param({"10000", "1000000"})
+        public int catalogSize;
+
+        ConfigurableApplicationContext context;
+        BorrowingService borrowingService;
+        final AtomicLong nextUser = new AtomicLong();
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            context = SyntheticCatalog.start(catalogSize, USERS);
+            borrowingService = context.getBean(BorrowingService.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() {
+            context.close();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Reader {
+
+        long userId;
+        SplittableRandom random;
+
+        @Setup(Level.Trial)
+        public void setUp(Catalog catalog) {
+            userId = catalog.nextUser.incrementAndGet();
+            random = new SplittableRandom(SyntheticCatalog.SEED + userId);
+        }
+    }
+
+    @Benchmark
+    public void borrowAndReturn(Catalog catalog, Reader reader, Blackhole blackhole) {
+        long bookId = 1 + reader.random.nextInt(catalog.catalogSize);
+        try {
+            Borrowing borrowing = catalog.borrowingService.borrowBook(reader.userId, bookId);
+            blackhole.consume(catalog.borrowingService.returnBook(borrowing.getId()));
+        } catch (RuntimeException e) {
+            // Another thread holds the last copy; the failed attempt is still measured
+            blackhole.consume(e);
+        }
+    }
+}
@@ -0,0 +1,510 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.LibraryManagementApplication;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Replays a circulation workload against the REST API: logins, title searches,
+ * borrows, returns and listings, with book popularity following a Zipf distribution.
+ * Users and books are created first through /auth/register and POST /books (the latter
+ * as the admin given by --admin), so every layer of the running application is
+ * exercised. Without --target an application is started in-process on an empty
+ * in-memory H2 database. A --target server must run with library.ratelimit.enabled=false,
+ * since every worker would otherwise be throttled as the same client.
+ *
+ * Each worker owns a disjoint set of users and switches to the next one on every login.
+ * A borrow drawn for a user who already holds a book becomes a return and vice versa,
+ * because users may hold only one book at a time.
+ *
+ * Latencies are recorded per operation in HdrHistograms. A summary is printed, and the
+ * full percentile distributions plus a summary.json are written to results/loadtest-&lt;timestamp&gt;/.
+ *
+ *   java -cp target/benchmarks.jar com.example.Library_Management.benchmark.CirculationLoadTest \
+ *       [--target=http://localhost:8080] [--concurrency=32] [--duration=60s] [--warmup=10s] \
+ *       [--users=200] [--books=2000] [--zipf=1.0] [--seed=42] [--admin=Admin:1155] \
+ *       [--mix=login:10,search:40,borrow:15,return:15,listing:20]
+ */
+public final class CirculationLoadTest {
+
+    enum Operation { LOGIN, SEARCH, BORROW, RETURN, LISTING }
+
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+    private static final String PASSWORD = "load-test";
+
+    private final String target;
+    private final int concurrency;
+    private final int userCount;
+    private final int bookCount;
+    private final double zipfExponent;
+    private final long seed;
+    private final String adminCredentials;
+    private final int[] mix = new int[Operation.values().length];
+    private final int mixTotal;
+
+    private final ExecutorService clientExecutor;
+    private final HttpClient client;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final String runId = Long.toString(System.currentTimeMillis(), 36);
+
+    private long[] userIds;
+    private String[] usernames;
+    private long[] bookIds;
+    private String[][] titleWords;
+    private int[] popularity;
+    private ZipfDistribution zipf;
+    private List<Worker> workers;
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> succeeded = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> rejected = new EnumMap<>(Operation.class);
+    private final Map<Operation, LongAdder> failed = new EnumMap<>(Operation.class);
+
+    CirculationLoadTest(String target, Map<String, String> options) {
+        this.target = target;
+        this.concurrency = Integer.parseInt(options.getOrDefault("concurrency", "32"));
+        this.userCount = Math.max(concurrency, Integer.parseInt(options.getOrDefault("users", "200")));
+        this.bookCount = Integer.parseInt(options.getOrDefault("books", "2000"));
+        this.zipfExponent = Double.parseDouble(options.getOrDefault("zipf", "1.0"));
+        this.seed = Long.parseLong(options.getOrDefault("seed", Long.toString(SyntheticCatalog.SEED)));
+        this.adminCredentials = options.getOrDefault("admin", "Admin:1155");
+
+        int total = 0;
+        for (String entry : options.getOrDefault("mix", "login:10,search:40,borrow:15,return:15,listing:20").split(",")) {
+            String[] parts = entry.split(":");
+            int weight = Integer.parseInt(parts[1].trim());
+            mix[Operation.valueOf(parts[0].trim().toUpperCase()).ordinal()] = weight;
+            total += weight;
+        }
+        this.mixTotal = total;
+
+        this.clientExecutor = Executors.newFixedThreadPool(Math.max(4, concurrency / 4));
+        this.client = HttpClient.newBuilder()
+                .executor(clientExecutor)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            succeeded.put(operation, new LongAdder());
+            rejected.put(operation, new LongAdder());
+            failed.put(operation, new LongAdder());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        Duration warmup = parseDuration(options.getOrDefault("warmup", "10s"));
+        Duration duration = parseDuration(options.getOrDefault("duration", "60s"));
+
+        ConfigurableApplicationContext embedded = null;
+        String target = options.get("target");
+        if (target == null) {
+            embedded = new SpringApplicationBuilder(LibraryManagementApplication.class)
+                    .run("--server.port=0",
+                            "--spring.datasource.url=jdbc:h2:mem:loadtest;DB_CLOSE_DELAY=-1",
+                            "--spring.main.banner-mode=off",
+                            "--logging.level.root=WARN",
+                            "--library.ratelimit.enabled=false");
+            target = "http://localhost:" + ((WebServerApplicationContext) embedded).getWebServer().getPort();
+        }
+
+        CirculationLoadTest test = new CirculationLoadTest(target, options);
+        try {
+            test.seed();
+            test.drive(warmup);
+            test.resetRecorders();
+            long start = System.nanoTime();
+            test.drive(duration);
+            test.report((System.nanoTime() - start) / 1e9);
+        } finally {
+            test.clientExecutor.shutdownNow();
+            if (embedded != null) {
+                embedded.close();
+            }
+        }
+    }
+
+    // Seeding
+
+    private void seed() throws Exception {
+        long start = System.nanoTime();
+        userIds = new long[userCount];
+        usernames = new String[userCount];
+        bookIds = new long[bookCount];
+        titleWords = new String[bookCount][];
+
+        SplittableRandom random = new SplittableRandom(seed);
+        List<String> titles = new ArrayList<>(bookCount);
+        for (int i = 0; i < bookCount; i++) {
+            int words = 2 + random.nextInt(3);
+            String[] title = new String[words];
+            for (int w = 0; w < words; w++) {
+                title[w] = SyntheticCatalog.WORDS[random.nextInt(SyntheticCatalog.WORDS.length)];
+            }
+            titleWords[i] = title;
+            titles.add(String.join(" ", title));
+        }
+
+        parallel(userCount, i -> {
+            usernames[i] = "lt" + runId + "u" + i;
+            Map<String, Object> body = Map.of(
+                    "username", usernames[i], "password", PASSWORD,
+                    "email", usernames[i] + "@load.test", "firstName", "Load", "lastName", "User" + i);
+            userIds[i] = expectJson(post("/auth/register", body)).get("id").asLong();
+        });
+        // Catalog writes need a staff token
+        String[] admin = adminCredentials.split(":", 2);
+        String adminToken = expectJson(post("/auth/login", Map.of("username", admin[0], "password", admin[1])))
+                .get("token").asText();
+        parallel(bookCount, i -> {
+            int copies = 1 + (i % 5);
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("title", titles.get(i));
+            body.put("author", SyntheticCatalog.FIRST_NAMES[i % SyntheticCatalog.FIRST_NAMES.length] + " "
+                    + SyntheticCatalog.LAST_NAMES[(i / 7) % SyntheticCatalog.LAST_NAMES.length]);
+            body.put("isbn", "lt" + runId + "-" + i);
+            body.put("category", SyntheticCatalog.CATEGORIES[i % SyntheticCatalog.CATEGORIES.length]);
+            body.put("totalCopies", copies);
+            body.put("availableCopies", copies);
+            bookIds[i] = expectJson(post("/books", body, adminToken)).get("id").asLong();
+        });
+
+        // Popularity ranks are a seeded shuffle, so the hot titles are not just the first ids
+        popularity = new int[bookCount];
+        for (int i = 0; i < bookCount; i++) {
+            popularity[i] = i;
+        }
+        SplittableRandom shuffle = new SplittableRandom(seed + 1);
+        for (int i = bookCount - 1; i > 0; i--) {
+            int j = shuffle.nextInt(i + 1);
+            int swap = popularity[i];
+            popularity[i] = popularity[j];
+            popularity[j] = swap;
+        }
+        zipf = new ZipfDistribution(bookCount, zipfExponent);
+
+        System.out.printf("Seeded %,d users and %,d books through the API in %,d ms%n",
+                userCount, bookCount, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private interface Task {
+        void run(int index) throws Exception;
+    }
+
+    private void parallel(int count, Task task) throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                int index = i;
+                futures.add(pool.submit(() -> {
+                    task.run(index);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    // Workload
+
+    private final class Worker {
+
+        private final SplittableRandom random;
+        private final int[] users;
+        private final Long[] activeBorrowing;
+        private final String[] tokens;
+        private int current;
+
+        Worker(int index) {
+            random = new SplittableRandom(seed * 31 + index);
+            List<Integer> owned = new ArrayList<>();
+            for (int u = index; u < userCount; u += concurrency) {
+                owned.add(u);
+            }
+            users = owned.stream().mapToInt(Integer::intValue).toArray();
+            activeBorrowing = new Long[users.length];
+            tokens = new String[users.length];
+        }
+
+        void step() {
+            Operation operation = pick();
+            if (operation == Operation.BORROW && activeBorrowing[current] != null) {
+                operation = Operation.RETURN;
+            } else if (operation == Operation.RETURN && activeBorrowing[current] == null) {
+                operation = Operation.BORROW;
+            }
+
+            long start = System.nanoTime();
+            int status;
+            try {
+                status = execute(operation);
+            } catch (Exception e) {
+                status = -1;
+            }
+            recorders.get(operation).recordValue(Math.min((System.nanoTime() - start) / 1000, HIGHEST_TRACKABLE_MICROS));
+            if (status >= 200 && status < 300) {
+                succeeded.get(operation).increment();
+            } else if (status >= 400 && status < 500) {
+                rejected.get(operation).increment();
+            } else {
+                failed.get(operation).increment();
+            }
+        }
+
+        private Operation pick() {
+            int roll = random.nextInt(mixTotal);
+            for (Operation operation : Operation.values()) {
+                roll -= mix[operation.ordinal()];
+                if (roll < 0) {
+                    return operation;
+                }
+            }
+            return Operation.SEARCH;
+        }
+
+        private int execute(Operation operation) throws Exception {
+            int user = users[current];
+            switch (operation) {
+                case LOGIN -> {
+                    current = (current + 1) % users.length;
+                    user = users[current];
+                    HttpResponse<String> response = post("/auth/login",
+                            Map.of("username", usernames[user], "password", PASSWORD));
+                    if (response.statusCode() == 200) {
+                        JsonNode token = objectMapper.readTree(response.body()).get("token");
+                        tokens[current] = token == null ? null : token.asText();
+                    }
+                    return response.statusCode();
+                }
+                case SEARCH -> {
+                    String[] words = titleWords[popularBook()];
+                    String q = words[random.nextInt(words.length)];
+                    return get("/books/search?q=" + URLEncoder.encode(q, StandardCharsets.UTF_8)).statusCode();
+                }
+                case BORROW -> {
+                    HttpResponse<String> response = send(HttpRequest.newBuilder(uri(
+                            "/borrowings/borrow?userId=" + userIds[user] + "&bookId=" + bookIds[popularBook()]))
+                            .POST(HttpRequest.BodyPublishers.noBody()));
+                    if (response.statusCode() == 200) {
+                        activeBorrowing[current] = objectMapper.readTree(response.body()).get("id").asLong();
+                    }
+                    return response.statusCode();
+                }
+                case RETURN -> {
+                    HttpResponse<String> response = send(HttpRequest.newBuilder(uri(
+                            "/borrowings/return/" + activeBorrowing[current]))
+                            .POST(HttpRequest.BodyPublishers.noBody()));
+                    if (response.statusCode() == 200 || response.statusCode() == 400) {
+                        activeBorrowing[current] = null;
+                    }
+                    return response.statusCode();
+                }
+                default -> {
+                    if (random.nextBoolean()) {
+                        return get("/borrowings/user/" + userIds[user]).statusCode();
+                    }
+                    long after = bookIds[random.nextInt(bookCount)];
+                    return get("/books?limit=50&after=" + after).statusCode();
+                }
+            }
+        }
+
+        private int popularBook() {
+            return popularity[zipf.sample(random)];
+        }
+
+        private HttpResponse<String> get(String path) throws Exception {
+            return send(HttpRequest.newBuilder(uri(path)).GET());
+        }
+
+        private HttpResponse<String> send(HttpRequest.Builder request) throws Exception {
+            String token = tokens[current];
+            if (token != null) {
+                request.header("Authorization", "Bearer " + token);
+            }
+            return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+        }
+    }
+
+    // Workers keep their users' borrowing state from the warmup into the measured run
+    private void drive(Duration duration) throws Exception {
+        if (workers == null) {
+            workers = new ArrayList<>(concurrency);
+            for (int w = 0; w < concurrency; w++) {
+                workers.add(new Worker(w));
+            }
+        }
+        long deadline = System.nanoTime() + duration.toNanos();
+        ExecutorService pool = Executors.newFixedThreadPool(concurrency);
+        try {
+            List<Future<?>> futures = new ArrayList<>(concurrency);
+            for (Worker worker : workers) {
+                futures.add(pool.submit(() -> {
+                    while (System.nanoTime() < deadline) {
+                        worker.step();
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private void resetRecorders() {
+        for (Operation operation : Operation.values()) {
+            recorders.get(operation).reset();
+            succeeded.get(operation).reset();
+            rejected.get(operation).reset();
+            failed.get(operation).reset();
+        }
+    }
+
+    // Reporting
+
+    private void report(double seconds) throws Exception {
+        File directory = new File("results", "loadtest-"
+                + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")));
+        directory.mkdirs();
+
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        List<Map<String, Object>> summary = new ArrayList<>();
+        System.out.println();
+        System.out.printf("%-8s %9s %9s %8s %8s %10s %9s %9s %9s %9s %9s%n", "op", "requests", "ok",
+                "4xx", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        for (Operation operation : Operation.values()) {
+            Histogram histogram = recorders.get(operation).getIntervalHistogram();
+            total.add(histogram);
+            summary.add(row(operation.name().toLowerCase(), histogram, seconds, succeeded.get(operation).sum(),
+                    rejected.get(operation).sum(), failed.get(operation).sum()));
+            try (PrintStream out = new PrintStream(new FileOutputStream(
+                    new File(directory, operation.name().toLowerCase() + ".hgrm")))) {
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        long ok = succeeded.values().stream().mapToLong(LongAdder::sum).sum();
+        long fourXx = rejected.values().stream().mapToLong(LongAdder::sum).sum();
+        long errors = failed.values().stream().mapToLong(LongAdder::sum).sum();
+        summary.add(row("total", total, seconds, ok, fourXx, errors));
+        try (PrintStream out = new PrintStream(new FileOutputStream(new File(directory, "total.hgrm")))) {
+            total.outputPercentileDistribution(out, 1000.0);
+        }
+
+        Map<String, Object> document = new LinkedHashMap<>();
+        document.put("target", target);
+        document.put("concurrency", concurrency);
+        document.put("users", userCount);
+        document.put("books", bookCount);
+        document.put("zipf", zipfExponent);
+        document.put("seed", seed);
+        document.put("seconds", seconds);
+        document.put("operations", summary);
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(new File(directory, "summary.json"), document);
+        System.out.printf("%nError rate %.3f%% (4xx %.3f%%); histograms written to %s%n",
+                100.0 * errors / Math.max(1, ok + fourXx + errors),
+                100.0 * fourXx / Math.max(1, ok + fourXx + errors), directory.getPath());
+    }
+
+    private static Map<String, Object> row(String name, Histogram histogram, double seconds,
+                                           long ok, long fourXx, long errors) {
+        long requests = histogram.getTotalCount();
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("operation", name);
+        row.put("requests", requests);
+        row.put("ok", ok);
+        row.put("rejected", fourXx);
+        row.put("errors", errors);
+        row.put("throughput", requests / seconds);
+        row.put("p50", histogram.getValueAtPercentile(50) / 1000.0);
+        row.put("p90", histogram.getValueAtPercentile(90) / 1000.0);
+        row.put("p99", histogram.getValueAtPercentile(99) / 1000.0);
+        row.put("p999", histogram.getValueAtPercentile(99.9) / 1000.0);
+        row.put("max", histogram.getMaxValue() / 1000.0);
+        System.out.printf("%-8s %,9d %,9d %,8d %,8d %,10.0f %9.2f %9.2f %9.2f %9.2f %9.2f%n", name, requests, ok,
+                fourXx, errors, requests / seconds, row.get("p50"), row.get("p90"), row.get("p99"),
+                row.get("p999"), row.get("max"));
+        return row;
+    }
+
+    // HTTP helpers
+
+    private URI uri(String path) {
+        return URI.create(target + path);
+    }
+
+    private HttpResponse<String> post(String path, Object body) throws Exception {
+        return post(path, body, null);
+    }
+
+    private HttpResponse<String> post(String path, Object body, String token) throws Exception {
+        HttpRequest.Builder request = HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(objectMapper.writeValueAsString(body)));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString());
+    }
+
+    private JsonNode expectJson(HttpResponse<String> response) throws Exception {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Seeding failed with " + response.statusCode() + ": " + response.body());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static Duration parseDuration(String value) {
+        String trimmed = value.trim().toLowerCase();
+        if (trimmed.endsWith("ms")) {
+            return Duration.ofMillis(Long.parseLong(trimmed.substring(0, trimmed.length() - 2)));
+        }
+        if (trimmed.endsWith("s")) {
+            return Duration.ofSeconds(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        if (trimmed.endsWith("m")) {
+            return Duration.ofMinutes(Long.parseLong(trimmed.substring(0, trimmed.length() - 1)));
+        }
+        return Duration.ofSeconds(Long.parseLong(trimmed));
+    }
+}
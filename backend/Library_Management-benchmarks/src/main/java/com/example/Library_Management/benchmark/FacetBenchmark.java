@@ -0,0 +1,77 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.dto.BookFacets;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.service.BookFacetIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Facet queries against BookFacetIndex on its own, without HTTP or a database:
+ * the unfiltered catalog, two combined filters, and a search result set of a
+ * tenth of the catalog. About two thirds of the books are available.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FacetBenchmark {
+
+    @Param({"10000", "100000"})
+    public int books;
+
+    private BookFacetIndex index;
+    private List<Long> searchResult;
+
+    @Setup
+    public void setUp() {
+        index = new BookFacetIndex();
+        Random random = new Random(SyntheticCatalog.SEED);
+        searchResult = new ArrayList<>(books / 10);
+        for (int i = 1; i <= books; i++) {
+            Book book = new Book();
+            book.setId((long) i);
+            book.setCategory(SyntheticCatalog.CATEGORIES[random.nextInt(SyntheticCatalog.CATEGORIES.length)]);
+            book.setAuthor(SyntheticCatalog.FIRST_NAMES[random.nextInt(SyntheticCatalog.FIRST_NAMES.length)] + " "
+                    + SyntheticCatalog.LAST_NAMES[random.nextInt(SyntheticCatalog.LAST_NAMES.length)]);
+            book.setPublishedYear(1900 + random.nextInt(125));
+            index.put(book);
+            index.setAvailable(book.getId(), random.nextInt(3) > 0);
+            if (random.nextInt(10) == 0) {
+                searchResult.add(book.getId());
+            }
+        }
+        index.markReady();
+    }
+
+    @Benchmark
+    public BookFacets wholeCatalog() {
+        return index.facets(null, null, null, null, null, 20);
+    }
+
+    @Benchmark
+    public BookFacets combinedFilters() {
+        return index.facets(null, List.of("Fiction", "Mystery"), null, List.of("1990s", "2000s"), true, 20);
+    }
+
+    @Benchmark
+    public BookFacets searchResultSet() {
+        return index.facets(searchResult, null, null, null, null, 20);
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.Library_Management.benchmark;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * POST /auth/login throughput over HTTP with application logging off, on through the
+ * async JSON pipeline, and on with synchronous appends. Every request is access-logged
+ * (sample rate 1.0) when logging is on, and stdout goes to a file under target/ so the
+ * log I/O is real but does not flood the JMH console.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 3)
+@Measurement(iterations = 5, time = 3)
+@Fork(1)
+@Threads(16)
+public class LoginLoggingBenchmark {
+
+    private static final int USERS = 1000;
+
+    @Param({"off", "async", "sync"})
+    public String logging;
+
+    private PrintStream originalOut;
+    private ConfigurableApplicationContext context;
+    private HttpClient client;
+    private URI login;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        originalOut = System.out;
+        new File("target").mkdirs();
+        System.setOut(new PrintStream(new BufferedOutputStream(
+                new FileOutputStream("target/login-logging-" + logging + ".log")), false));
+
+        String[] args = switch (logging) {
+            case "off" -> new String[]{"--library.logging.request-sample-rate=0"};
+            case "async" -> new String[]{"--logging.level.com.example=DEBUG", "--library.logging.request-sample-rate=1"};
+            default -> new String[]{"--logging.level.com.example=DEBUG", "--library.logging.request-sample-rate=1",
+                    "--spring.profiles.active=sync-logging"};
+        };
+        context = SyntheticCatalog.startServer(10, USERS, args);
+        int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+        login = URI.create("http://localhost:" + port + "/auth/login");
+        client = HttpClient.newHttpClient();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        System.out.flush();
+        System.setOut(originalOut);
+    }
+
+    @Benchmark
+    public int login() throws Exception {
+        int user = 1 + ThreadLocalRandom.current().nextInt(USERS);
+        HttpRequest request = HttpRequest.newBuilder(login)
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "{\"username\":\"reader" + user + "\",\"password\":\"secret\"}"))
+                .build();
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,115 @@
+package com.example.Library_Management.benchmark;
+
+import org.flywaydb.core.Flyway;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compares query plans and latencies of the hot repository predicates before and after
+ * the V2 index migration, on a file-backed H2 database with a large borrowings table.
+ *
+ *   java -cp target/benchmarks.jar com.example.Library_Management.benchmark.QueryPlanBenchmark [--rows=10000000]
+ */
+public final class QueryPlanBenchmark {
+
+    private static final String URL = "jdbc:h2:./target/benchmark/query-plans;DB_CLOSE_DELAY=-1";
+    private static final int USERS = 100_000;
+    private static final int BOOKS = 100_000;
+    private static final int RUNS = 5;
+
+    private static final Map<String, String> QUERIES = new LinkedHashMap<>();
+
+    static {
+        QUERIES.put("countActiveBorrowingsByUser",
+                "SELECT COUNT(*) FROM borrowings WHERE user_id = 4242 AND status = 'BORROWED'");
+        QUERIES.put("existsByUserAndBookAndStatus",
+                "SELECT 1 FROM borrowings WHERE user_id = 4242 AND book_id = 29694 AND status = 'BORROWED' LIMIT 1");
+        QUERIES.put("findOverdueBorrowings",
+                "SELECT COUNT(*) FROM borrowings WHERE status = 'BORROWED' AND due_date < CURRENT_TIMESTAMP");
+        QUERIES.put("findDTOsByUserId",
+                "SELECT id FROM borrowings WHERE user_id = 4242 ORDER BY borrow_date DESC");
+        QUERIES.put("findAvailableBooks",
+                "SELECT COUNT(*) FROM books WHERE is_active = TRUE AND available_copies > 0");
+    }
+
+    private QueryPlanBenchmark() {
+    }
+
+    public static void main(String[] args) throws SQLException {
+        long rows = 10_000_000L;
+        for (String arg : args) {
+            if (arg.startsWith("--rows=")) {
+                rows = Long.parseLong(arg.substring("--rows=".length()));
+            }
+        }
+
+        Flyway.configure().dataSource(URL, "sa", "").cleanDisabled(false).load().clean();
+        Flyway.configure().dataSource(URL, "sa", "").target("1").load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            seed(connection, rows);
+            report(connection, "Before V2 (no secondary indexes)");
+        }
+
+        Flyway.configure().dataSource(URL, "sa", "").load().migrate();
+
+        try (Connection connection = DriverManager.getConnection(URL, "sa", "")) {
+            report(connection, "After V2 (composite indexes)");
+        }
+    }
+
+    private static void seed(Connection connection, long rows) throws SQLException {
+        long start = System.nanoTime();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("INSERT INTO users (username, password, email, first_name, last_name, role, is_active) " +
+                    "SELECT 'user' || X, 'secret', 'user' || X || '@library.com', 'First', 'Last', 'STUDENT', TRUE " +
+                    "FROM SYSTEM_RANGE(1, " + USERS + ")");
+            statement.execute("INSERT INTO books (title, author, isbn, category, total_copies, available_copies, " +
+                    "rating, is_active, version) " +
+                    "SELECT 'Title ' || X, 'Author ' || MOD(X, 5000), 'isbn-' || X, 'Category ' || MOD(X, 40), " +
+                    "5, MOD(X, 6), 0.0, MOD(X, 50) <> 0, 0 FROM SYSTEM_RANGE(1, " + BOOKS + ")");
+            // 1 in 10 borrowings is active, spread over the last 60 days so some are overdue
+            statement.execute("INSERT INTO borrowings (user_id, book_id, borrow_date, due_date, status, version) " +
+                    "SELECT MOD(X, " + USERS + ") + 1, MOD(X * 7, " + BOOKS + ") + 1, " +
+                    "DATEADD('DAY', -MOD(X, 60), CURRENT_TIMESTAMP), " +
+                    "DATEADD('DAY', 14 - MOD(X, 60), CURRENT_TIMESTAMP), " +
+                    "CASE WHEN MOD(X, 10) = 0 THEN 'BORROWED' ELSE 'RETURNED' END, 0 " +
+                    "FROM SYSTEM_RANGE(1, " + rows + ")");
+            statement.execute("ANALYZE");
+        }
+        System.out.printf("Seeded %,d borrowings in %,d ms%n", rows, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static void report(Connection connection, String title) throws SQLException {
+        System.out.println();
+        System.out.println("=== " + title + " ===");
+        try (Statement statement = connection.createStatement()) {
+            for (Map.Entry<String, String> query : QUERIES.entrySet()) {
+                String plan;
+                try (ResultSet rs = statement.executeQuery("EXPLAIN " + query.getValue())) {
+                    rs.next();
+                    plan = rs.getString(1).replaceAll("\\s+", " ");
+                }
+
+                long best = Long.MAX_VALUE;
+                for (int i = 0; i < RUNS; i++) {
+                    long start = System.nanoTime();
+                    try (ResultSet rs = statement.executeQuery(query.getValue())) {
+                        while (rs.next()) {
+                            // drain
+                        }
+                    }
+                    best = Math.min(best, System.nanoTime() - start);
+                }
+                System.out.printf("%-30s best of %d: %10.3f ms%n    plan: %s%n",
+                        query.getKey(), RUNS, best / 1_000_000.0, plan);
+            }
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.dto.BorrowingDTO;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entity to DTO mapping as done by BorrowingController, and JSON serialization of
+ * Book and BorrowingDTO with an ObjectMapper configured the way Spring MVC builds it.
+ * Needs no database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private static final int PAGE = 100;
+
+    private ObjectMapper objectMapper;
+    private Book book;
+    private Borrowing borrowing;
+    private BorrowingDTO borrowingDTO;
+    private List<Book> bookPage;
+    private List<BorrowingDTO> borrowingPage;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+        User user = new User("reader1", "secret", "reader1@library.com", "Bench", "Reader", User.Role.STUDENT);
+        user.setId(1L);
+        book = new Book("The silent river of memory", "Ada Tolkien", "9780000000001", "Fiction", 1999,
+                "A synthetic book used to measure serialization.", 5);
+        book.setId(1L);
+        book.setCreatedAt(LocalDateTime.of(2024, 1, 1, 12, 0));
+        book.setUpdatedAt(LocalDateTime.of(2024, 1, 2, 12, 0));
+        borrowing = new Borrowing(user, book);
+        borrowing.setId(1L);
+        borrowingDTO = BorrowingDTO.from(borrowing);
+
+        bookPage = new ArrayList<>(PAGE);
+        borrowingPage = new ArrayList<>(PAGE);
+        for (int i = 0; i < PAGE; i++) {
+            bookPage.add(book);
+            borrowingPage.add(borrowingDTO);
+        }
+    }
+
+    @Benchmark
+    public BorrowingDTO mapBorrowingToDTO() {
+        return BorrowingDTO.from(borrowing);
+    }
+
+    @Benchmark
+    public byte[] serializeBook() throws Exception {
+        return objectMapper.writeValueAsBytes(book);
+    }
+
+    @Benchmark
+    public byte[] serializeBorrowingDTO() throws Exception {
+        return objectMapper.writeValueAsBytes(borrowingDTO);
+    }
+
+    @Benchmark
+    public byte[] serializeBookPage() throws Exception {
+        return objectMapper.writeValueAsBytes(bookPage);
+    }
+
+    @Benchmark
+    public byte[] serializeBorrowingDTOPage() throws Exception {
+        return objectMapper.writeValueAsBytes(borrowingPage);
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.dto.BookSuggestion;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.service.BookSuggestIndex;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BookSuggestIndex lookups on their own, without HTTP or a database, for keystroke-
+ * sized prefixes, a misspelled word and a two-word query. Titles mix the catalog
+ * vocabulary with numbered words so the trie has a realistic number of distinct
+ * keys, and borrow counts are skewed so a few titles dominate.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class SuggestBenchmark {
+
+    @Param({"1000000"})
+    public int books;
+
+    private BookSuggestIndex index;
+
+    @Setup
+    public void setUp() {
+        index = new BookSuggestIndex();
+        Random random = new Random(SyntheticCatalog.SEED);
+        for (int i = 1; i <= books; i++) {
+            Book book = new Book();
+            book.setId((long) i);
+            book.setTitle("The " + word(random) + " " + word(random) + " " + word(random) + random.nextInt(20_000));
+            book.setAuthor(SyntheticCatalog.FIRST_NAMES[random.nextInt(SyntheticCatalog.FIRST_NAMES.length)] + " "
+                    + SyntheticCatalog.LAST_NAMES[random.nextInt(SyntheticCatalog.LAST_NAMES.length)]);
+            index.put(book, (long) (1000 * Math.pow(random.nextDouble(), 8)));
+        }
+        index.markReady();
+    }
+
+    private static String word(Random random) {
+        return SyntheticCatalog.WORDS[random.nextInt(SyntheticCatalog.WORDS.length)];
+    }
+
+    @Benchmark
+    public List<BookSuggestion> shortPrefix() {
+        return index.suggest("ri", 8);
+    }
+
+    @Benchmark
+    public List<BookSuggestion> longerPrefix() {
+        return index.suggest("mounta", 8);
+    }
+
+    @Benchmark
+    public List<BookSuggestion> misspelled() {
+        return index.suggest("lantren", 8);
+    }
+
+    @Benchmark
+    public List<BookSuggestion> twoWords() {
+        return index.suggest("silent riv", 8);
+    }
+}
@@ -0,0 +1,154 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.LibraryManagementApplication;
+import org.flywaydb.core.Flyway;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds a reproducible catalog in a private in-memory H2 database and boots the
+ * application against it. Every value is drawn from a fixed-seed Random, so two runs
+ * with the same size benchmark exactly the same data. The data is seeded before the
+ * context starts, so the search and availability indexes load it as they would in production.
+ */
+final class SyntheticCatalog {
+
+    static final long SEED = 42L;
+
+    static final String[] WORDS = {
+            "shadow", "river", "empire", "garden", "silent", "winter", "machine", "ocean", "crown", "forest",
+            "secret", "light", "history", "journey", "storm", "glass", "city", "mountain", "letters", "fire",
+            "memory", "island", "stone", "dream", "war", "music", "star", "bridge", "lantern", "harvest",
+            "kingdom", "code", "network", "theory", "mind", "algorithm", "planet", "queen", "desert", "night"
+    };
+
+    static final String[] FIRST_NAMES = {
+            "Ada", "Alan", "Grace", "Leo", "Mira", "Ravi", "Sofia", "Tomas", "Yuki", "Zora",
+            "Hugo", "Ines", "Kofi", "Lena", "Omar", "Priya"
+    };
+
+    static final String[] LAST_NAMES = {
+            "Tolkien", "Austen", "Hopper", "Turing", "Achebe", "Murakami", "Orwell", "Lovelace", "Borges", "Rowling",
+            "Tagore", "Morrison", "Calvino", "Atwood", "Eco", "Le Guin"
+    };
+
+    static final String[] CATEGORIES = {
+            "Fiction", "Science", "History", "Technology", "Poetry", "Philosophy",
+            "Biography", "Travel", "Art", "Mathematics", "Children", "Mystery"
+    };
+
+    private static final int INSERT_BATCH_SIZE = 1000;
+
+    private SyntheticCatalog() {
+    }
+
+    static ConfigurableApplicationContext start(int books, int users) throws SQLException {
+        return new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .web(WebApplicationType.NONE)
+                .run(arguments(seed(books, users)));
+    }
+
+    /** Starts the full web application on a random port; extra arguments are passed to Spring. */
+    static ConfigurableApplicationContext startServer(int books, int users, String... extraArgs) throws SQLException {
+        List<String> args = new ArrayList<>(List.of(arguments(seed(books, users))));
+        args.add("--server.port=0");
+        // Every benchmark client shares one address, so per-client limits would throttle the run
+        args.add("--library.ratelimit.enabled=false");
+        args.addAll(List.of(extraArgs));
+        return new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .run(args.toArray(String[]::new));
+    }
+
+    private static String seed(int books, int users) throws SQLException {
+        String url = "jdbc:h2:mem:catalog-" + books + "-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1";
+        Flyway.configure().dataSource(url, "sa", "").load().migrate();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "")) {
+            connection.setAutoCommit(false);
+            seedBooks(connection, books);
+            seedUsers(connection, users);
+            connection.commit();
+        }
+        return url;
+    }
+
+    private static String[] arguments(String url) {
+        return new String[]{
+                "--spring.datasource.url=" + url,
+                "--spring.datasource.username=sa",
+                "--spring.datasource.password=",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN"};
+    }
+
+    /** Search terms drawn from the catalog vocabulary: words, authors, phrases and prefixes. */
+    static List<String> queries(int count) {
+        Random random = new Random(SEED + 1);
+        List<String> queries = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            String term = switch (i % 4) {
+                case 0 -> WORDS[random.nextInt(WORDS.length)];
+                case 1 -> LAST_NAMES[random.nextInt(LAST_NAMES.length)];
+                case 2 -> WORDS[random.nextInt(WORDS.length)] + " " + WORDS[random.nextInt(WORDS.length)];
+                default -> WORDS[random.nextInt(WORDS.length)].substring(0, 3);
+            };
+            queries.add(term);
+        }
+        return queries;
+    }
+
+    private static void seedBooks(Connection connection, int books) throws SQLException {
+        Random random = new Random(SEED);
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO books (title, author, isbn, category, published_year, total_copies, available_copies, " +
+                "rating, is_active, version, created_at, updated_at) " +
+                "VALUES (?, ?, ?, ?, ?, ?, ?, 0.0, TRUE, 0, CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")) {
+            for (int i = 1; i <= books; i++) {
+                StringBuilder title = new StringBuilder("The");
+                for (int w = 1 + random.nextInt(3); w >= 0; w--) {
+                    title.append(' ').append(WORDS[random.nextInt(WORDS.length)]);
+                }
+                int copies = 1 + random.nextInt(5);
+                ps.setString(1, title.toString());
+                ps.setString(2, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)] + " "
+                        + LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+                ps.setString(3, String.format("978%010d", i));
+                ps.setString(4, CATEGORIES[random.nextInt(CATEGORIES.length)]);
+                ps.setInt(5, 1900 + random.nextInt(125));
+                ps.setInt(6, copies);
+                ps.setInt(7, copies);
+                ps.addBatch();
+                if (i % INSERT_BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+
+    private static void seedUsers(Connection connection, int users) throws SQLException {
+        try (PreparedStatement ps = connection.prepareStatement(
+                "INSERT INTO users (username, password, email, first_name, last_name, role, is_active, " +
+                "created_at, updated_at) VALUES (?, 'secret', ?, 'Bench', ?, 'STUDENT', TRUE, " +
+                "CURRENT_TIMESTAMP, CURRENT_TIMESTAMP)")) {
+            for (int i = 1; i <= users; i++) {
+                ps.setString(1, "reader" + i);
+                ps.setString(2, "reader" + i + "@library.com");
+                ps.setString(3, "Reader" + i);
+                ps.addBatch();
+                if (i % INSERT_BATCH_SIZE == 0) {
+                    ps.executeBatch();
+                }
+            }
+            ps.executeBatch();
+        }
+    }
+}
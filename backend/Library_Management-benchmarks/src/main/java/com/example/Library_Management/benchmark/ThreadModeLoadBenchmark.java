@@ -0,0 +1,149 @@
+package com.example.Library_Management.benchmark;
+
+import com.example.Library_Management.LibraryManagementApplication;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Storms /auth/login and a per-user borrowing listing with more concurrent clients than
+ * Tomcat has platform threads, once with the default thread pool and once with
+ * virtual threads plus the DataSource limiter, and prints throughput and latency
+ * percentiles for each. The user caches are disabled so every login reaches the database.
+ *
+ *   java -cp target/benchmarks.jar com.example.Library_Management.benchmark.ThreadModeLoadBenchmark \
+ *       [--clients=800] [--requests=40000]
+ */
+public final class ThreadModeLoadBenchmark {
+
+    private static final String LOGIN_BODY = "{\"username\":\"Admin\",\"password\":\"1155\"}";
+
+    private ThreadModeLoadBenchmark() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new LinkedHashMap<>();
+        for (String arg : args) {
+            if (arg.startsWith("--") && arg.contains("=")) {
+                options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+            }
+        }
+        int clients = Integer.parseInt(options.getOrDefault("clients", "800"));
+        int requests = Integer.parseInt(options.getOrDefault("requests", "40000"));
+
+        run("Platform threads (Tomcat default pool)", clients, requests);
+        if (Runtime.version().feature() >= 21) {
+            run("Virtual threads + DataSource limiter", clients, requests,
+                    "--spring.threads.virtual.enabled=true");
+        } else {
+            System.out.println("Skipping virtual threads: running on Java " + Runtime.version().feature());
+        }
+    }
+
+    private static void run(String title, int clients, int requests, String... extraArgs) throws Exception {
+        List<String> args = new ArrayList<>(List.of("--server.port=0", "--library.cache.max-size=0",
+                "--library.ratelimit.enabled=false",
+                "--spring.datasource.url=jdbc:h2:mem:load-" + System.nanoTime()));
+        args.addAll(Arrays.asList(extraArgs));
+
+        try (ConfigurableApplicationContext context = new SpringApplicationBuilder(LibraryManagementApplication.class)
+                .run(args.toArray(String[]::new))) {
+            int port = ((WebServerApplicationContext) context).getWebServer().getPort();
+            // Shut down afterwards, or its threads keep the JVM alive once main returns
+            ExecutorService clientExecutor = Executors.newFixedThreadPool(16);
+            try {
+                HttpClient client = HttpClient.newBuilder()
+                        .executor(clientExecutor)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                HttpRequest login = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/auth/login"))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofString(LOGIN_BODY))
+                        .build();
+                HttpRequest listing = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/borrowings/user/1"))
+                        .GET()
+                        .build();
+
+                // Warm up the JIT and the connection pool before measuring
+                drive(client, login, listing, clients, Math.min(requests / 4, 5_000));
+                long[] latencies = new long[requests];
+                long start = System.nanoTime();
+                int errors = drive(client, login, listing, clients, requests, latencies);
+                long elapsed = System.nanoTime() - start;
+
+                Arrays.sort(latencies);
+                System.out.println();
+                System.out.println("=== " + title + " ===");
+                System.out.printf("%,d requests, %d clients, %,d errors in %,d ms%n",
+                        requests, clients, errors, elapsed / 1_000_000);
+                System.out.printf("throughput %,.0f req/s%n", requests / (elapsed / 1e9));
+                System.out.printf("p50 %.2f ms  p90 %.2f ms  p99 %.2f ms  max %.2f ms%n",
+                        percentile(latencies, 0.50), percentile(latencies, 0.90),
+                        percentile(latencies, 0.99), latencies[latencies.length - 1] / 1e6);
+            } finally {
+                clientExecutor.shutdownNow();
+            }
+        }
+    }
+
+    private static int drive(HttpClient client, HttpRequest login, HttpRequest listing,
+            int clients, int requests) throws Exception {
+        return drive(client, login, listing, clients, requests, new long[requests]);
+    }
+
+    // Each client issues requests back to back; every third one is a listing
+    private static int drive(HttpClient client, HttpRequest login, HttpRequest listing,
+            int clients, int requests, long[] latencies) throws Exception {
+        AtomicInteger next = new AtomicInteger();
+        AtomicInteger errors = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(clients);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int c = 0; c < clients; c++) {
+                futures.add(pool.submit(() -> {
+                    int i;
+                    while ((i = next.getAndIncrement()) < requests) {
+                        HttpRequest request = i % 3 == 2 ? listing : login;
+                        long start = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                errors.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            errors.incrementAndGet();
+                        }
+                        latencies[i] = System.nanoTime() - start;
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        return errors.get();
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(0, Math.min(index, sorted.length - 1))] / 1e6;
+    }
+}
@@ -0,0 +1,60 @@
+package com.example.Library_Management.config;
+
+import com.example.Library_Management.dto.ImportReport;
+import com.example.Library_Management.service.BookImportService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Imports a catalog file at startup when one is given, e.g.
+ * --library.import.file=books.csv [--library.import.format=ndjson] [--library.import.batch-size=5000]
+ */
+@Component
+public class BookImportRunner implements CommandLineRunner {
+
+        private static final Logger log = LoggerFactory.getLogger(BookImportRunner.class);
+
+        @Autowired
+        private BookImportService bookImportService;
+
+        @Value("${library.import.file:}")
+        private String file;
+
+        @Value("${library.import.format:}")
+        private String format;
+
+        @Value("${library.import.batch-size:" + BookImportService.DEFAULT_BATCH_SIZE + "}")
+        private int batchSize;
+
+        @Override
+        public void run(String... args) throws Exception {
+                if (file.isBlank()) {
+                        return;
+                }
+                Path path = Path.of(file);
+                BookImportService.Format importFormat = !format.isBlank()
+                                ? BookImportService.Format.parse(format)
+                                : file.toLowerCase().endsWith(".csv") ? BookImportService.Format.CSV
+                                : BookImportService.Format.NDJSON;
+
+                log.info("Importing books from {} ({}, batch size {})", path, importFormat, batchSize);
+                try (InputStream in = Files.newInputStream(path)) {
+                        ImportReport report = bookImportService.importBooks(in, importFormat, batchSize);
+                        log.info("Imported {} rows: {} inserted, {} updated, {} rejected in {} ms ({} rows/s)",
+                                        report.getRowsRead(), report.getInserted(), report.getUpdated(),
+                                        report.getRejected(), report.getElapsedMillis(),
+                                        Math.round(report.getRowsPerSecond()));
+                        for (String error : report.getErrors()) {
+                                log.warn("Import rejected {}", error);
+                        }
+                }
+        }
+}
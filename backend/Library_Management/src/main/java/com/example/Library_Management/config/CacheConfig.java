@@ -0,0 +1,45 @@
+package com.example.Library_Management.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Bounded Caffeine caches for the hot book and user lookups. The manager is wrapped
+ * in a TransactionAwareCacheManagerProxy, so evictions issued inside a transaction
+ * run only after it commits. Lookups load with sync=true, so an eviction waits for a
+ * load still in flight and then removes its result; a read that saw the pre-commit
+ * row can therefore not outlive the write. Hit/miss statistics are published
+ * through Actuator as cache.gets / cache.puts.
+ */
+@Configuration
+@EnableCaching
+public class CacheConfig {
+
+    public static final String BOOKS = "books";
+    public static final String USERS = "users";
+    public static final String USERS_BY_USERNAME = "usersByUsername";
+
+    @Value("${library.cache.max-size:10000}")
+    private long maxSize;
+
+    @Value("${library.cache.ttl:10m}")
+    private Duration ttl;
+
+    @Bean
+    public CacheManager cacheManager() {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager(BOOKS, USERS, USERS_BY_USERNAME);
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
@@ -2,6 +2,9 @@ package com.example.Library_Management.config;
 
 import com.example.Library_Management.entity.User;
 import com.example.Library_Management.repository.UserRepository;
+import com.example.Library_Management.service.PasswordService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
 import org.springframework.stereotype.Component;
@@ -9,25 +12,30 @@ import org.springframework.stereotype.Component;
 @Component
 public class DataInitializer implements CommandLineRunner {
 
+        private static final Logger log = LoggerFactory.getLogger(DataInitializer.class);
+
         @Autowired
         private UserRepository userRepository;
 
+        @Autowired
+        private PasswordService passwordService;
+
         @Override
         public void run(String... args) throws Exception {
                 // Create default admin user
                 if (!userRepository.existsByUsername("Admin")) {
-                        System.out.println("Creating admin user...");
+                        log.info("Creating admin user");
                         User admin = new User();
                         admin.setUsername("Admin");
-                        admin.setPassword("1155"); // Simple password without encoding
+                        admin.setPassword(passwordService.hash("1155"));
                         admin.setEmail("admin@library.com");
                         admin.setFirstName("Admin");
                         admin.setLastName("User");
                         admin.setRole(User.Role.ADMIN);
                         userRepository.save(admin);
-                        System.out.println("Admin user created successfully");
+                        log.info("Admin user created");
                 } else {
-                        System.out.println("Admin user already exists");
+                        log.debug("Admin user already exists");
                 }
 
                 // Create sample books
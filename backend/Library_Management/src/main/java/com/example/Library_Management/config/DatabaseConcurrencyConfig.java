@@ -0,0 +1,53 @@
+package com.example.Library_Management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Virtual-thread request handling is opted into with spring.threads.virtual.enabled=true
+ * (it takes effect on Java 21+). Tomcat's thread pool then no longer caps how many
+ * requests reach the database at once, so the DataSource is wrapped in a semaphore
+ * sized to the connection pool. Requests park cheaply on the semaphore and give up
+ * after library.db.acquire-timeout instead of waiting out Hikari's connection timeout.
+ * The limiter can also be turned on for platform threads with library.db.limit-concurrency.
+ */
+@Configuration
+public class DatabaseConcurrencyConfig {
+
+    private static final int DEFAULT_MAX_CONCURRENCY = 10;
+
+    @Bean
+    public static BeanPostProcessor databaseConcurrencyLimiter(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!(bean instanceof DataSource dataSource) || bean instanceof ConcurrencyLimitedDataSource
+                        || !enabled(environment)) {
+                    return bean;
+                }
+                int maxConcurrency = environment.getProperty("library.db.max-concurrency", Integer.class, 0);
+                if (maxConcurrency <= 0 && dataSource instanceof HikariDataSource hikari) {
+                    // Unset until the pool starts, in which case Hikari also falls back to 10
+                    maxConcurrency = hikari.getMaximumPoolSize();
+                }
+                if (maxConcurrency <= 0) {
+                    maxConcurrency = DEFAULT_MAX_CONCURRENCY;
+                }
+                Duration acquireTimeout = environment.getProperty("library.db.acquire-timeout", Duration.class,
+                        Duration.ofSeconds(5));
+                return new ConcurrencyLimitedDataSource(dataSource, maxConcurrency, acquireTimeout);
+            }
+        };
+    }
+
+    private static boolean enabled(Environment environment) {
+        return environment.getProperty("library.db.limit-concurrency", Boolean.class,
+                environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+    }
+}
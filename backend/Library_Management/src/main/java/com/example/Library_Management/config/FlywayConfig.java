@@ -0,0 +1,22 @@
+package com.example.Library_Management.config;
+
+import org.springframework.boot.autoconfigure.flyway.FlywayConfigurationCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Schema is managed by the migrations in db/migration instead of Hibernate ddl-auto
+ * (Boot turns ddl-auto off by default once Flyway is present). A database that was
+ * created by ddl-auto and has no history table yet is baselined at V1, so only the
+ * later migrations run against it.
+ */
+@Configuration
+public class FlywayConfig {
+
+    @Bean
+    public FlywayConfigurationCustomizer baselineExistingSchema() {
+        return configuration -> configuration
+                .baselineOnMigrate(true)
+                .baselineVersion("1");
+    }
+}
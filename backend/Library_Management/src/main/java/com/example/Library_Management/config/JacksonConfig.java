@@ -0,0 +1,16 @@
+package com.example.Library_Management.config;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class JacksonConfig {
+
+    // Summary DTOs declare a "fields" filter; anywhere no selection is supplied they serialize in full
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldFilterDefaults() {
+        return builder -> builder.filters(new SimpleFilterProvider().setFailOnUnknownId(false));
+    }
+}
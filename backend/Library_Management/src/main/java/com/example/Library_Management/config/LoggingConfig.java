@@ -0,0 +1,30 @@
+package com.example.Library_Management.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Logging itself is set up in logback-spring.xml: JSON lines written through a
+ * bounded async queue that drops rather than blocks request threads when full.
+ * This registers the request id / sampled access log filter ahead of every other filter.
+ */
+@Configuration
+public class LoggingConfig {
+
+    @Value("${library.logging.request-sample-rate:0.01}")
+    private double requestSampleRate;
+
+    @Value("${library.logging.slow-request-millis:500}")
+    private long slowRequestMillis;
+
+    @Bean
+    public FilterRegistrationBean<RequestLogFilter> requestLogFilter() {
+        FilterRegistrationBean<RequestLogFilter> registration =
+                new FilterRegistrationBean<>(new RequestLogFilter(requestSampleRate, slowRequestMillis));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
@@ -0,0 +1,90 @@
+package com.example.Library_Management.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.aop.CountedAspect;
+import io.micrometer.core.aop.TimedAspect;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+
+/**
+ * Service methods are timed through @Timed/@Counted, repository calls through Spring
+ * Data's spring.data.repository.invocations timer, Hikari and Hibernate through their
+ * Boot binders. On top of that this adds SQL statements per request, cache hit ratios
+ * and the state of the optional DataSource limiter. Endpoint exposure and histogram
+ * settings live in library-metrics.properties; application.properties overrides them.
+ */
+@Configuration
+@PropertySource("classpath:library-metrics.properties")
+public class MetricsConfig {
+
+    private final SqlStatementCounter sqlStatementCounter = new SqlStatementCounter();
+
+    @Bean
+    public TimedAspect timedAspect(MeterRegistry meterRegistry) {
+        return new TimedAspect(meterRegistry);
+    }
+
+    @Bean
+    public CountedAspect countedAspect(MeterRegistry meterRegistry) {
+        return new CountedAspect(meterRegistry);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementInspector() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, sqlStatementCounter);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilter(MeterRegistry meterRegistry) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(new SqlStatementMetricsFilter(meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder cacheHitRatios(CacheManager cacheManager) {
+        return registry -> {
+            for (String name : cacheManager.getCacheNames()) {
+                org.springframework.cache.Cache cache = cacheManager.getCache(name);
+                if (cache instanceof TransactionAwareCacheDecorator decorator) {
+                    cache = decorator.getTargetCache();
+                }
+                if (cache instanceof CaffeineCache caffeineCache) {
+                    Cache<Object, Object> nativeCache = caffeineCache.getNativeCache();
+                    Gauge.builder("library.cache.hit.ratio", nativeCache, c -> c.stats().hitRate())
+                            .description("Share of lookups served from the cache since startup")
+                            .tag("cache", name)
+                            .register(registry);
+                }
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder databaseLimiterMetrics(DataSource dataSource) {
+        return registry -> {
+            if (dataSource instanceof ConcurrencyLimitedDataSource limiter) {
+                Gauge.builder("library.db.limiter.available", limiter, ConcurrencyLimitedDataSource::getAvailablePermits)
+                        .description("Connection permits currently free")
+                        .register(registry);
+                Gauge.builder("library.db.limiter.queued", limiter, ConcurrencyLimitedDataSource::getQueueLength)
+                        .description("Callers waiting for a connection permit")
+                        .register(registry);
+            }
+        };
+    }
+}
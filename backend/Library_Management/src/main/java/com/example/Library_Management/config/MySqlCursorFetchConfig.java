@@ -0,0 +1,44 @@
+package com.example.Library_Management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+/**
+ * The streaming queries ask for 500 rows per round trip with a fetchSize hint, but
+ * Connector/J ignores a positive fetch size and buffers the whole result unless the
+ * connection has useCursorFetch=true. That flag is added to MySQL pools here, before
+ * they start, so it holds whatever datasource URL a deployment configures. A URL or
+ * spring.datasource.hikari.data-source-properties entry that sets the flag wins, and
+ * library.db.mysql-cursor-fetch=false leaves the driver default alone.
+ */
+@Configuration
+public class MySqlCursorFetchConfig {
+
+    static final String USE_CURSOR_FETCH = "useCursorFetch";
+
+    @Bean
+    public static BeanPostProcessor mySqlCursorFetch(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof HikariDataSource hikari
+                        && environment.getProperty("library.db.mysql-cursor-fetch", Boolean.class, true)) {
+                    enableCursorFetch(hikari);
+                }
+                return bean;
+            }
+        };
+    }
+
+    static void enableCursorFetch(HikariDataSource hikari) {
+        String url = hikari.getJdbcUrl();
+        if (url == null || !url.startsWith("jdbc:mysql:") || url.contains(USE_CURSOR_FETCH)
+                || hikari.getDataSourceProperties().containsKey(USE_CURSOR_FETCH)) {
+            return;
+        }
+        hikari.addDataSourceProperty(USE_CURSOR_FETCH, "true");
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.Library_Management.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Per-client budgets for the auth and circulation endpoints. The defaults allow a
+ * person at a kiosk plenty of room while stopping credential stuffing and retry
+ * loops; load tests against a running server should set library.ratelimit.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(name = "library.ratelimit.enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitConfig {
+
+    @Bean
+    public TokenBucketLimiter authRateLimiter(
+            @Value("${library.ratelimit.auth.capacity:10}") int capacity,
+            @Value("${library.ratelimit.auth.refill-period:1m}") Duration refillPeriod,
+            @Value("${library.ratelimit.max-clients:100000}") long maxClients) {
+        return new TokenBucketLimiter("auth", capacity, refillPeriod, maxClients);
+    }
+
+    @Bean
+    public TokenBucketLimiter circulationRateLimiter(
+            @Value("${library.ratelimit.circulation.capacity:30}") int capacity,
+            @Value("${library.ratelimit.circulation.refill-period:1m}") Duration refillPeriod,
+            @Value("${library.ratelimit.max-clients:100000}") long maxClients) {
+        return new TokenBucketLimiter("circulation", capacity, refillPeriod, maxClients);
+    }
+
+    // After token authentication, so circulation requests can be keyed by user
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(TokenBucketLimiter authRateLimiter,
+                                                                   TokenBucketLimiter circulationRateLimiter,
+                                                                   MeterRegistry meterRegistry) {
+        for (TokenBucketLimiter limiter : new TokenBucketLimiter[]{authRateLimiter, circulationRateLimiter}) {
+            Gauge.builder("library.ratelimit.clients", limiter, TokenBucketLimiter::getTrackedKeys)
+                    .description("Clients with a live token bucket")
+                    .tag("policy", limiter.getName())
+                    .register(meterRegistry);
+        }
+        FilterRegistrationBean<RateLimitFilter> registration = new FilterRegistrationBean<>(
+                new RateLimitFilter(authRateLimiter, circulationRateLimiter, meterRegistry));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 30);
+        return registration;
+    }
+}
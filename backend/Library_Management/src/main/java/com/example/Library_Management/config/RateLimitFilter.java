@@ -0,0 +1,120 @@
+package com.example.Library_Management.config;
+
+import com.example.Library_Management.dto.AuthenticatedUser;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+/**
+ * Applies the token buckets to the endpoints that do real work per call: login and
+ * registration (BCrypt) and the circulation writes under /borrowings (row locks).
+ * Auth requests are keyed by client address; circulation requests by the token's
+ * user when there is one, otherwise by address. Behind a proxy, set
+ * server.forward-headers-strategy so the address is the client's, not the proxy's.
+ * Throttled requests get 429 with Retry-After and never reach the controllers.
+ * A circulation request pays one token here; batch endpoints pay for their other
+ * items through {@link #chargeRemaining}, so a 100-item batch is not one request's worth.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(RateLimitFilter.class);
+
+    private static final String CHARGE_ATTRIBUTE = RateLimitFilter.class.getName() + ".charge";
+
+    private final TokenBucketLimiter authLimiter;
+    private final TokenBucketLimiter circulationLimiter;
+    private final Counter authRejections;
+    private final Counter circulationRejections;
+
+    public RateLimitFilter(TokenBucketLimiter authLimiter, TokenBucketLimiter circulationLimiter,
+                           MeterRegistry meterRegistry) {
+        this.authLimiter = authLimiter;
+        this.circulationLimiter = circulationLimiter;
+        this.authRejections = rejections(meterRegistry, authLimiter);
+        this.circulationRejections = rejections(meterRegistry, circulationLimiter);
+    }
+
+    private static Counter rejections(MeterRegistry meterRegistry, TokenBucketLimiter limiter) {
+        return Counter.builder("library.ratelimit.rejected")
+                .description("Requests turned away with 429 by the per-client rate limiter")
+                .tag("policy", limiter.getName())
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        if ("POST".equals(request.getMethod())) {
+            String path = request.getRequestURI().substring(request.getContextPath().length());
+            if (path.equals("/auth/login") || path.equals("/auth/register")) {
+                if (!admit(authLimiter, authRejections, "ip:" + request.getRemoteAddr(), response)) {
+                    return;
+                }
+            } else if (path.startsWith("/borrowings/")) {
+                AuthenticatedUser user = TokenAuthenticationFilter.currentUser(request);
+                String key = user != null ? "user:" + user.getUserId() : "ip:" + request.getRemoteAddr();
+                if (!admit(circulationLimiter, circulationRejections, key, response)) {
+                    return;
+                }
+                request.setAttribute(CHARGE_ATTRIBUTE, (IntToLongFunction) tokens -> {
+                    long waitNanos = circulationLimiter.tryAcquire(key,
+                            Math.min(tokens, circulationLimiter.getCapacity() - 1));
+                    if (waitNanos > 0) {
+                        circulationRejections.increment();
+                    }
+                    return waitNanos;
+                });
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Charges a batch request for its items beyond the first, capped so a full batch
+     * empties the bucket rather than being refused forever. Returns the Retry-After
+     * seconds when the client is out of tokens, or 0; always 0 when rate limiting is off.
+     */
+    public static long chargeRemaining(HttpServletRequest request, int items) {
+        Object charge = request.getAttribute(CHARGE_ATTRIBUTE);
+        if (!(charge instanceof IntToLongFunction function) || items <= 1) {
+            return 0;
+        }
+        long waitNanos = function.applyAsLong(items - 1);
+        return waitNanos == 0 ? 0 : retryAfterSeconds(waitNanos);
+    }
+
+    // Retry-After is in whole seconds, rounded up so a prompt retry is admitted
+    private static long retryAfterSeconds(long waitNanos) {
+        return Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+    }
+
+    private static boolean admit(TokenBucketLimiter limiter, Counter rejections, String key,
+                                 HttpServletResponse response) throws IOException {
+        long waitNanos = limiter.tryAcquire(key);
+        if (waitNanos == 0) {
+            return true;
+        }
+        rejections.increment();
+        log.debug("Rate limited {} on {}", key, limiter.getName());
+
+        long retryAfter = retryAfterSeconds(waitNanos);
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter));
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write("Too many requests, please retry in " + retryAfter + "s");
+        return false;
+    }
+}
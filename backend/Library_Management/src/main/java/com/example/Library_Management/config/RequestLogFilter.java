@@ -0,0 +1,62 @@
+package com.example.Library_Management.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+
+/**
+ * Tags every log line written while handling a request with a requestId (taken from
+ * X-Request-Id when the caller sends a sane one) and echoes it back in the response.
+ * One access line per request is logged for a sample of requests; server errors and
+ * slow requests are always logged.
+ */
+public class RequestLogFilter extends OncePerRequestFilter {
+
+    public static final String REQUEST_ID_HEADER = "X-Request-Id";
+    public static final String REQUEST_ID_KEY = "requestId";
+
+    private static final Logger log = LoggerFactory.getLogger(RequestLogFilter.class);
+    private static final Pattern VALID_REQUEST_ID = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+
+    private final double sampleRate;
+    private final long slowRequestNanos;
+
+    public RequestLogFilter(double sampleRate, long slowRequestMillis) {
+        this.sampleRate = sampleRate;
+        this.slowRequestNanos = slowRequestMillis * 1_000_000;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String requestId = request.getHeader(REQUEST_ID_HEADER);
+        if (requestId == null || !VALID_REQUEST_ID.matcher(requestId).matches()) {
+            requestId = Long.toHexString(ThreadLocalRandom.current().nextLong());
+        }
+        MDC.put(REQUEST_ID_KEY, requestId);
+        response.setHeader(REQUEST_ID_HEADER, requestId);
+
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            int status = response.getStatus();
+            if (status >= 500) {
+                log.warn("{} {} {} {}ms", request.getMethod(), request.getRequestURI(), status, elapsed / 1_000_000);
+            } else if (elapsed >= slowRequestNanos || ThreadLocalRandom.current().nextDouble() < sampleRate) {
+                log.info("{} {} {} {}ms", request.getMethod(), request.getRequestURI(), status, elapsed / 1_000_000);
+            }
+            MDC.remove(REQUEST_ID_KEY);
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package com.example.Library_Management.config;
+
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.service.TokenService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Verifies the bearer token, if any, and exposes its identity as the
+ * AUTHENTICATED_USER request attribute. Verification is a signature check and two
+ * in-memory lookups; the database is not consulted. Catalog writes need a staff
+ * token; /users needs a token, and only staff may list or delete users or act on
+ * someone else's record. Hold writes need a token; HoldController checks whose hold it is.
+ */
+public class TokenAuthenticationFilter extends OncePerRequestFilter {
+
+    public static final String AUTHENTICATED_USER = AuthenticatedUser.class.getName();
+
+    private static final String BEARER = "Bearer ";
+    private static final String ACCESS_TOKEN = "access_token";
+
+    private final TokenService tokenService;
+
+    public TokenAuthenticationFilter(TokenService tokenService) {
+        this.tokenService = tokenService;
+    }
+
+    public static AuthenticatedUser currentUser(HttpServletRequest request) {
+        return (AuthenticatedUser) request.getAttribute(AUTHENTICATED_USER);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        AuthenticatedUser user = null;
+        String token = bearerToken(request);
+        if (token != null) {
+            user = tokenService.verify(token).orElse(null);
+            if (user != null) {
+                request.setAttribute(AUTHENTICATED_USER, user);
+            }
+        }
+
+        String method = request.getMethod();
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!"OPTIONS".equals(method)) {
+            if (isCatalogWrite(method, path)) {
+                if (user == null) {
+                    reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+                    return;
+                }
+                if (!user.isStaff()) {
+                    reject(response, HttpServletResponse.SC_FORBIDDEN, "Only librarians and admins can change the catalog");
+                    return;
+                }
+            } else if (isHoldWrite(method, path) && user == null) {
+                reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+                return;
+            } else if (path.equals("/users") || path.startsWith("/users/")) {
+                if (user == null) {
+                    reject(response, HttpServletResponse.SC_UNAUTHORIZED, "Authentication required");
+                    return;
+                }
+                if (!user.isStaff() && !isOwnRecord(method, path, user)) {
+                    reject(response, HttpServletResponse.SC_FORBIDDEN, "Not allowed to access other users");
+                    return;
+                }
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    // EventSource cannot send headers, so event streams may carry the token as ?access_token=
+    private static String bearerToken(HttpServletRequest request) {
+        String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (header != null && header.startsWith(BEARER)) {
+            return header.substring(BEARER.length()).trim();
+        }
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if ("GET".equals(request.getMethod()) && accept != null && accept.contains(MediaType.TEXT_EVENT_STREAM_VALUE)) {
+            return request.getParameter(ACCESS_TOKEN);
+        }
+        return null;
+    }
+
+    private static boolean isCatalogWrite(String method, String path) {
+        return (path.equals("/books") || path.startsWith("/books/")) && !"GET".equals(method) && !"HEAD".equals(method);
+    }
+
+    private static boolean isHoldWrite(String method, String path) {
+        return (path.equals("/holds") || path.startsWith("/holds/")) && !"GET".equals(method) && !"HEAD".equals(method);
+    }
+
+    // A user may read and update their own /users/{id} and read their recommendations, nothing else
+    private static boolean isOwnRecord(String method, String path, AuthenticatedUser user) {
+        String own = "/users/" + user.getUserId();
+        if ("GET".equals(method)) {
+            return path.equals(own) || path.equals(own + "/recommendations");
+        }
+        return "PUT".equals(method) && path.equals(own);
+    }
+
+    // Errors written here bypass the controllers' @CrossOrigin, so the browser needs the header to read them
+    private static void reject(HttpServletResponse response, int status, String message) throws IOException {
+        response.setStatus(status);
+        response.setHeader(HttpHeaders.ACCESS_CONTROL_ALLOW_ORIGIN, "*");
+        response.setContentType("text/plain;charset=UTF-8");
+        response.getWriter().write(message);
+    }
+}
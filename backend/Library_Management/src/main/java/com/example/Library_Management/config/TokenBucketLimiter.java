@@ -0,0 +1,81 @@
+package com.example.Library_Management.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-key token buckets: each key may spend up to capacity requests at once, and
+ * the bucket refills at capacity per refill period. A bucket is a single AtomicLong
+ * holding the instant it will be full again, updated with a compare-and-set loop,
+ * so concurrent requests for the same key never take a lock. Buckets idle for a whole
+ * refill period are full anyway and are dropped; maxKeys bounds the memory a flood
+ * of distinct clients can claim.
+ */
+public class TokenBucketLimiter {
+
+    private final String name;
+    private final int capacity;
+    private final long nanosPerToken;
+    private final long burstNanos;
+    private final Cache<String, AtomicLong> buckets;
+
+    public TokenBucketLimiter(String name, int capacity, Duration refillPeriod, long maxKeys) {
+        if (capacity <= 0 || refillPeriod.isZero() || refillPeriod.isNegative()) {
+            throw new IllegalArgumentException("Rate limit " + name + " needs a positive capacity and refill period");
+        }
+        this.name = name;
+        this.capacity = capacity;
+        this.nanosPerToken = refillPeriod.toNanos() / capacity;
+        this.burstNanos = nanosPerToken * capacity;
+        this.buckets = Caffeine.newBuilder()
+                .expireAfterAccess(refillPeriod)
+                .maximumSize(maxKeys)
+                .build();
+    }
+
+    /**
+     * Takes a token for the key. Returns 0 if one was available, otherwise how many
+     * nanoseconds until the next token; a rejected request does not consume anything.
+     */
+    public long tryAcquire(String key) {
+        return tryAcquire(key, 1);
+    }
+
+    /**
+     * Takes several tokens for the key at once, or none. More than capacity can never
+     * be granted, so callers cap what they ask for.
+     */
+    public long tryAcquire(String key, int tokens) {
+        if (tokens <= 0) {
+            return 0;
+        }
+        AtomicLong fullAt = buckets.get(key, k -> new AtomicLong(System.nanoTime()));
+        while (true) {
+            long now = System.nanoTime();
+            long current = fullAt.get();
+            long next = (current - now > 0 ? current : now) + nanosPerToken * tokens;
+            long debt = next - now;
+            if (debt > burstNanos) {
+                return debt - burstNanos;
+            }
+            if (fullAt.compareAndSet(current, next)) {
+                return 0;
+            }
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public long getTrackedKeys() {
+        return buckets.estimatedSize();
+    }
+}
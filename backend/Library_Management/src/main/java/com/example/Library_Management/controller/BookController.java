@@ -1,11 +1,28 @@
 package com.example.Library_Management.controller;
 
+import com.example.Library_Management.dto.BookFacets;
+import com.example.Library_Management.dto.BookRecommendation;
+import com.example.Library_Management.dto.BookSuggestion;
+import com.example.Library_Management.dto.BookSummary;
+import com.example.Library_Management.dto.CategoryAvailability;
+import com.example.Library_Management.dto.ImportReport;
 import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.service.AvailabilityFeed;
+import com.example.Library_Management.service.BookImportService;
 import com.example.Library_Management.service.BookService;
+import com.example.Library_Management.service.RecommendationService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,34 +34,123 @@ public class BookController {
     @Autowired
     private BookService bookService;
     
+    @Autowired
+    private BookImportService bookImportService;
+    
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    @Autowired
+    private AvailabilityFeed availabilityFeed;
+    
+    // List endpoints return BookSummary views, optionally narrowed with ?fields=; /{id} has the full book
     @GetMapping
-    public ResponseEntity<List<Book>> getAllBooks() {
+    public ResponseEntity<MappingJacksonValue> getAllBooks(@RequestParam(required = false) String fields) {
         List<Book> books = bookService.getAllBooks();
-        return ResponseEntity.ok(books);
+        return summaries(books, fields);
+    }
+    
+    // Keyset page: GET /books?after=<last id>&limit=<n>
+    @GetMapping(params = "limit")
+    public ResponseEntity<MappingJacksonValue> getBooksPage(@RequestParam(defaultValue = "0") Long after,
+                                                            @RequestParam int limit,
+                                                            @RequestParam(required = false) String fields) {
+        List<Book> books = bookService.getBooksPage(after, NdjsonResponses.clampLimit(limit));
+        return summaries(books, fields);
+    }
+    
+    // Full rows; the stream is the export path
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamBooks() {
+        return NdjsonResponses.stream(objectMapper, bookService::streamBooks);
     }
     
     @GetMapping("/available")
-    public ResponseEntity<List<Book>> getAvailableBooks() {
+    public ResponseEntity<MappingJacksonValue> getAvailableBooks(@RequestParam(required = false) String fields) {
         List<Book> books = bookService.getAvailableBooks();
-        return ResponseEntity.ok(books);
+        return summaries(books, fields);
+    }
+    
+    @GetMapping(value = "/available", params = "limit")
+    public ResponseEntity<MappingJacksonValue> getAvailableBooksPage(@RequestParam(defaultValue = "0") Long after,
+                                                                     @RequestParam int limit,
+                                                                     @RequestParam(required = false) String fields) {
+        List<Book> books = bookService.getAvailableBooksPage(after, NdjsonResponses.clampLimit(limit));
+        return summaries(books, fields);
+    }
+    
+    @GetMapping("/available/counts")
+    public ResponseEntity<List<CategoryAvailability>> getAvailabilityByCategory() {
+        return ResponseEntity.ok(bookService.getAvailabilityByCategory());
+    }
+    
+    @GetMapping(value = "/available/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamAvailableBooks() {
+        return NdjsonResponses.stream(objectMapper, bookService::streamAvailableBooks);
+    }
+    
+    /**
+     * SUBSCRIBE to availability changes as server-sent events. Each "availability"
+     * event carries the changed books, latest state per book. Reconnecting clients
+     * resume from the Last-Event-ID header (sent by EventSource) or ?lastEventId=;
+     * a "reset" event means the gap is too old and the list should be reloaded.
+     */
+    @GetMapping(value = "/available/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter availabilityEvents(@RequestHeader(value = "Last-Event-ID", required = false) String lastEventId,
+                                         @RequestParam(name = "lastEventId", required = false) String resumeFrom) {
+        return availabilityFeed.subscribe(lastEventId != null ? lastEventId : resumeFrom);
     }
     
     @GetMapping("/search")
-    public ResponseEntity<List<Book>> searchBooks(@RequestParam String q) {
+    public ResponseEntity<MappingJacksonValue> searchBooks(@RequestParam String q,
+                                                           @RequestParam(required = false) String fields) {
         List<Book> books = bookService.searchBooks(q);
-        return ResponseEntity.ok(books);
+        return summaries(books, fields);
+    }
+    
+    // Autocomplete for the search box: GET /books/suggest?q=riv&limit=8
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam String q, @RequestParam(defaultValue = "8") int limit) {
+        try {
+            List<BookSuggestion> suggestions = bookService.suggest(q, limit);
+            return ResponseEntity.ok(suggestions);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
+    }
+    
+    // GET /books/facets?q=&category=Fiction&category=Poetry&decade=1990s&available=true
+    @GetMapping("/facets")
+    public ResponseEntity<?> getFacets(@RequestParam(required = false) String q,
+                                       @RequestParam(required = false) List<String> category,
+                                       @RequestParam(required = false) List<String> author,
+                                       @RequestParam(required = false) List<String> decade,
+                                       @RequestParam(required = false) Boolean available,
+                                       @RequestParam(defaultValue = "20") int authorLimit) {
+        try {
+            BookFacets facets = bookService.getFacets(q, category, author, decade, available,
+                    Math.max(1, authorLimit));
+            return ResponseEntity.ok(facets);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        }
     }
     
     @GetMapping("/category/{category}")
-    public ResponseEntity<List<Book>> getBooksByCategory(@PathVariable String category) {
+    public ResponseEntity<MappingJacksonValue> getBooksByCategory(@PathVariable String category,
+                                                                  @RequestParam(required = false) String fields) {
         List<Book> books = bookService.getBooksByCategory(category);
-        return ResponseEntity.ok(books);
+        return summaries(books, fields);
     }
     
     @GetMapping("/author/{author}")
-    public ResponseEntity<List<Book>> getBooksByAuthor(@PathVariable String author) {
+    public ResponseEntity<MappingJacksonValue> getBooksByAuthor(@PathVariable String author,
+                                                                @RequestParam(required = false) String fields) {
         List<Book> books = bookService.getBooksByAuthor(author);
-        return ResponseEntity.ok(books);
+        return summaries(books, fields);
     }
     
     @GetMapping("/{id}")
@@ -54,17 +160,44 @@ public class BookController {
                    .orElse(ResponseEntity.notFound().build());
     }
     
+    // Books most often borrowed by readers of this one
+    @GetMapping("/{id}/related")
+    public ResponseEntity<List<BookRecommendation>> getRelatedBooks(@PathVariable Long id,
+                                                                    @RequestParam(defaultValue = "10") int limit) {
+        List<BookRecommendation> related = recommendationService.getRelatedBooks(id, NdjsonResponses.clampLimit(limit));
+        return ResponseEntity.ok(related);
+    }
+    
     @PostMapping
     public ResponseEntity<Book> createBook(@RequestBody Book book) {
         Book createdBook = bookService.createBook(book);
         return ResponseEntity.ok(createdBook);
     }
     
+    // Bulk upsert by isbn from a CSV (with header row) or NDJSON request body
+    @PostMapping("/import")
+    public ResponseEntity<?> importBooks(InputStream body,
+                                         @RequestParam(defaultValue = "csv") String format,
+                                         @RequestParam(defaultValue = "" + BookImportService.DEFAULT_BATCH_SIZE) int batchSize) {
+        try {
+            ImportReport report = bookImportService.importBooks(body, BookImportService.Format.parse(format), batchSize);
+            return ResponseEntity.ok(report);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body("Import failed: " + e.getMessage());
+        }
+    }
+    
     @PutMapping("/{id}")
-    public ResponseEntity<Book> updateBook(@PathVariable Long id, @RequestBody Book book) {
-        book.setId(id);
-        Book updatedBook = bookService.updateBook(book);
-        return ResponseEntity.ok(updatedBook);
+    public ResponseEntity<?> updateBook(@PathVariable Long id, @RequestBody Book book) {
+        try {
+            book.setId(id);
+            Book updatedBook = bookService.updateBook(book);
+            return ResponseEntity.ok(updatedBook);
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(e.getMessage());
+        } catch (RuntimeException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
     }
     
     @DeleteMapping("/{id}")
@@ -72,4 +205,9 @@ public class BookController {
         bookService.deleteBook(id);
         return ResponseEntity.ok().build();
     }
+    
+    private static ResponseEntity<MappingJacksonValue> summaries(List<Book> books, String fields) {
+        List<BookSummary> summaries = books.stream().map(BookSummary::from).toList();
+        return ResponseEntity.ok(FieldSelection.apply(summaries, fields));
+    }
 }
@@ -1,15 +1,25 @@
 package com.example.Library_Management.controller;
 
+import com.example.Library_Management.config.RateLimitFilter;
+import com.example.Library_Management.dto.BatchItemResult;
+import com.example.Library_Management.dto.BorrowRequestItem;
 import com.example.Library_Management.dto.BorrowingDTO;
 import com.example.Library_Management.entity.Borrowing;
 import com.example.Library_Management.entity.User;
 import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.service.BorrowingBatchService;
 import com.example.Library_Management.service.BorrowingService;
 import com.example.Library_Management.service.UserService;
 import com.example.Library_Management.service.BookService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
@@ -31,39 +41,43 @@ public class BorrowingController {
     @Autowired
     private BookService bookService;
 
-    // Helper method: Convert Borrowing -> BorrowingDTO
-    private BorrowingDTO toDTO(Borrowing b) {
-        return new BorrowingDTO(
-                b.getId(),
-                b.getUser().getId(),
-                b.getUser().getUsername(),
-                b.getBook().getId(),
-                b.getBook().getTitle(),
-                b.getStatus().name(),
-                b.getBorrowDate(),
-                b.getDueDate(),
-                b.getReturnDate());
-    }
+    @Autowired
+    private BorrowingBatchService borrowingBatchService;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     // GET all borrowings
     @GetMapping
     public ResponseEntity<List<BorrowingDTO>> getAllBorrowings() {
-        List<BorrowingDTO> dtoList = borrowingService.getAllBorrowings()
+        List<BorrowingDTO> dtoList = borrowingService.getAllBorrowingDTOs();
+        return ResponseEntity.ok(dtoList);
+    }
+
+    // GET a keyset page of borrowings: /borrowings?after=<last id>&limit=<n>
+    @GetMapping(params = "limit")
+    public ResponseEntity<List<BorrowingDTO>> getBorrowingsPage(@RequestParam(defaultValue = "0") Long after,
+                                                                @RequestParam int limit) {
+        List<BorrowingDTO> dtoList = borrowingService.getBorrowingsPage(after, NdjsonResponses.clampLimit(limit))
                 .stream()
-                .map(this::toDTO)
+                .map(BorrowingDTO::from)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(dtoList);
     }
 
+    // STREAM all borrowings as NDJSON
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamBorrowings() {
+        return NdjsonResponses.<BorrowingDTO>stream(objectMapper,
+                sink -> borrowingService.streamBorrowings(b -> sink.accept(BorrowingDTO.from(b))));
+    }
+
     // GET borrowings by user ID
     @GetMapping("/user/{userId}")
     public ResponseEntity<List<BorrowingDTO>> getUserBorrowings(@PathVariable Long userId) {
-        Optional<User> user = userService.getUserById(userId);
-        if (user.isPresent()) {
-            List<BorrowingDTO> dtoList = borrowingService.getUserBorrowings(user.get())
-                    .stream()
-                    .map(this::toDTO)
-                    .collect(Collectors.toList());
+        List<BorrowingDTO> dtoList = borrowingService.getUserBorrowingDTOs(userId);
+        // Only an empty result needs the extra lookup to tell "no borrowings" from "no user"
+        if (!dtoList.isEmpty() || userService.existsById(userId)) {
             return ResponseEntity.ok(dtoList);
         }
         return ResponseEntity.notFound().build();
@@ -72,12 +86,8 @@ public class BorrowingController {
     // GET active borrowings by user ID
     @GetMapping("/user/{userId}/active")
     public ResponseEntity<List<BorrowingDTO>> getUserActiveBorrowings(@PathVariable Long userId) {
-        Optional<User> user = userService.getUserById(userId);
-        if (user.isPresent()) {
-            List<BorrowingDTO> dtoList = borrowingService.getUserActiveBorrowings(user.get())
-                    .stream()
-                    .map(this::toDTO)
-                    .collect(Collectors.toList());
+        List<BorrowingDTO> dtoList = borrowingService.getUserActiveBorrowingDTOs(userId);
+        if (!dtoList.isEmpty() || userService.existsById(userId)) {
             return ResponseEntity.ok(dtoList);
         }
         return ResponseEntity.notFound().build();
@@ -101,24 +111,59 @@ public class BorrowingController {
     @PostMapping("/borrow")
     public ResponseEntity<?> borrowBook(@RequestParam Long userId, @RequestParam Long bookId) {
         try {
-            Optional<User> user = userService.getUserById(userId);
-            Optional<Book> book = bookService.getBookById(bookId);
-            if (user.isPresent() && book.isPresent()) {
-                Borrowing borrowing = borrowingService.borrowBook(user.get(), book.get());
-                return ResponseEntity.ok(toDTO(borrowing));
-            }
-            return ResponseEntity.badRequest().body("User or book not found");
+            Borrowing borrowing = borrowingService.borrowBook(userId, bookId);
+            return ResponseEntity.ok(BorrowingDTO.from(borrowing));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Please try again: " + e.getMessage());
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // BORROW a stack of books (kiosk checkout); one result per item, in request order
+    @PostMapping("/borrow/batch")
+    public ResponseEntity<?> borrowBooks(@RequestBody List<BorrowRequestItem> items, HttpServletRequest request) {
+        long retryAfter = RateLimitFilter.chargeRemaining(request, items.size());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+        try {
+            List<BatchItemResult> results = borrowingBatchService.borrowBooks(items);
+            return ResponseEntity.ok(results);
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
     }
 
+    // RETURN several borrowings at once; one result per item, in request order
+    @PostMapping("/return/batch")
+    public ResponseEntity<?> returnBooks(@RequestBody List<Long> borrowingIds, HttpServletRequest request) {
+        long retryAfter = RateLimitFilter.chargeRemaining(request, borrowingIds.size());
+        if (retryAfter > 0) {
+            return tooManyRequests(retryAfter);
+        }
+        try {
+            List<BatchItemResult> results = borrowingBatchService.returnBooks(borrowingIds);
+            return ResponseEntity.ok(results);
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    private static ResponseEntity<String> tooManyRequests(long retryAfter) {
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfter))
+                .body("Too many requests, please retry in " + retryAfter + "s");
+    }
+
     // RETURN a book
     @PostMapping("/return/{borrowingId}")
     public ResponseEntity<?> returnBook(@PathVariable Long borrowingId) {
         try {
             Borrowing borrowing = borrowingService.returnBook(borrowingId);
-            return ResponseEntity.ok(toDTO(borrowing));
+            return ResponseEntity.ok(BorrowingDTO.from(borrowing));
+        } catch (ConcurrencyFailureException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body("Please try again: " + e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(e.getMessage());
         }
@@ -127,18 +172,34 @@ public class BorrowingController {
     // GET overdue borrowings
     @GetMapping("/overdue")
     public ResponseEntity<List<BorrowingDTO>> getOverdueBorrowings() {
-        List<BorrowingDTO> dtoList = borrowingService.getOverdueBorrowings()
+        List<BorrowingDTO> dtoList = borrowingService.getOverdueBorrowingDTOs();
+        return ResponseEntity.ok(dtoList);
+    }
+
+    // GET a keyset page of overdue borrowings
+    @GetMapping(value = "/overdue", params = "limit")
+    public ResponseEntity<List<BorrowingDTO>> getOverdueBorrowingsPage(@RequestParam(defaultValue = "0") Long after,
+                                                                       @RequestParam int limit) {
+        List<BorrowingDTO> dtoList = borrowingService
+                .getOverdueBorrowingsPage(after, NdjsonResponses.clampLimit(limit))
                 .stream()
-                .map(this::toDTO)
+                .map(BorrowingDTO::from)
                 .collect(Collectors.toList());
         return ResponseEntity.ok(dtoList);
     }
 
+    // STREAM overdue borrowings as NDJSON
+    @GetMapping(value = "/overdue/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamOverdueBorrowings() {
+        return NdjsonResponses.<BorrowingDTO>stream(objectMapper,
+                sink -> borrowingService.streamOverdueBorrowings(b -> sink.accept(BorrowingDTO.from(b))));
+    }
+
     // GET borrowing by ID
     @GetMapping("/{id}")
     public ResponseEntity<BorrowingDTO> getBorrowingById(@PathVariable Long id) {
-        Optional<Borrowing> borrowing = borrowingService.getBorrowingById(id);
-        return borrowing.map(b -> ResponseEntity.ok(toDTO(b)))
+        Optional<BorrowingDTO> borrowing = borrowingService.getBorrowingDTOById(id);
+        return borrowing.map(ResponseEntity::ok)
                 .orElse(ResponseEntity.notFound().build());
     }
 }
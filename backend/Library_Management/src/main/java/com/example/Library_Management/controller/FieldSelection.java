@@ -0,0 +1,37 @@
+package com.example.Library_Management.controller;
+
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// ?fields=id,title,availableCopies on the list endpoints; applies the "fields" filter declared on the summary DTOs
+final class FieldSelection {
+
+    static final String FILTER_ID = "fields";
+
+    private static final SimpleFilterProvider ALL_FIELDS =
+            new SimpleFilterProvider().addFilter(FILTER_ID, SimpleBeanPropertyFilter.serializeAll());
+
+    private FieldSelection() {}
+
+    // Unknown field names, including dotted paths, are ignored; with no selection every summary field is written
+    static MappingJacksonValue apply(Object body, String fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        Set<String> selected = fields == null ? Set.of() : Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(f -> !f.isEmpty())
+                .collect(Collectors.toSet());
+        if (selected.isEmpty()) {
+            // ?fields= or ?fields=, is no selection, not a request for empty objects
+            value.setFilters(ALL_FIELDS);
+        } else {
+            value.setFilters(new SimpleFilterProvider()
+                    .addFilter(FILTER_ID, SimpleBeanPropertyFilter.filterOutAllExcept(selected)));
+        }
+        return value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.example.Library_Management.controller;
+
+import com.example.Library_Management.config.TokenAuthenticationFilter;
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.dto.HoldDTO;
+import com.example.Library_Management.service.HoldService;
+import com.example.Library_Management.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.List;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/holds")
+@CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
+public class HoldController {
+
+    @Autowired
+    private HoldService holdService;
+
+    @Autowired
+    private UserService userService;
+
+    // PLACE a hold on a book with no copy on the shelf
+    @PostMapping
+    public ResponseEntity<?> placeHold(@RequestParam Long userId, @RequestParam Long bookId,
+                                       HttpServletRequest request) {
+        AuthenticatedUser caller = TokenAuthenticationFilter.currentUser(request);
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required");
+        }
+        if (!mayActFor(caller, userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to place holds for other users");
+        }
+        try {
+            return ResponseEntity.ok(holdService.placeHold(userId, bookId));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // GET a user's open holds with their place in each queue
+    @GetMapping("/user/{userId}")
+    public ResponseEntity<List<HoldDTO>> getUserHolds(@PathVariable Long userId) {
+        List<HoldDTO> holds = holdService.getUserHolds(userId);
+        if (!holds.isEmpty() || userService.existsById(userId)) {
+            return ResponseEntity.ok(holds);
+        }
+        return ResponseEntity.notFound().build();
+    }
+
+    // GET the hold queue of a book
+    @GetMapping("/book/{bookId}")
+    public ResponseEntity<List<HoldDTO>> getBookQueue(@PathVariable Long bookId) {
+        return ResponseEntity.ok(holdService.getBookQueue(bookId));
+    }
+
+    /**
+     * SUBSCRIBE to the caller's hold events: "hold-ready" when a copy is kept for
+     * them and "hold-expired" when the pickup window closes. EventSource cannot set
+     * headers, so the token may also be passed as ?access_token=.
+     */
+    @GetMapping(value = "/notifications", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<?> subscribe(HttpServletRequest request) {
+        AuthenticatedUser caller = TokenAuthenticationFilter.currentUser(request);
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required");
+        }
+        return ResponseEntity.ok(holdService.subscribe(caller.getUserId()));
+    }
+
+    // GET hold by ID
+    @GetMapping("/{id}")
+    public ResponseEntity<HoldDTO> getHoldById(@PathVariable Long id) {
+        Optional<HoldDTO> hold = holdService.getHoldDTOById(id);
+        return hold.map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // CANCEL a hold; a copy kept for it passes to the next holder
+    @DeleteMapping("/{id}")
+    public ResponseEntity<?> cancelHold(@PathVariable Long id, HttpServletRequest request) {
+        AuthenticatedUser caller = TokenAuthenticationFilter.currentUser(request);
+        if (caller == null) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("Authentication required");
+        }
+        Optional<HoldDTO> hold = holdService.getHoldDTOById(id);
+        if (hold.isEmpty()) {
+            return ResponseEntity.notFound().build();
+        }
+        if (!mayActFor(caller, hold.get().getUserId())) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Not allowed to cancel other users' holds");
+        }
+        try {
+            holdService.cancelHold(id);
+            return ResponseEntity.ok().build();
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        }
+    }
+
+    // Readers act only for themselves; staff may act for anyone
+    private static boolean mayActFor(AuthenticatedUser caller, Long userId) {
+        return caller.isStaff() || caller.getUserId().equals(userId);
+    }
+}
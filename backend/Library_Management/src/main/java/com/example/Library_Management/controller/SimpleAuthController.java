@@ -1,67 +1,100 @@
 package com.example.Library_Management.controller;
 
+import com.example.Library_Management.config.TokenAuthenticationFilter;
+import com.example.Library_Management.dto.AuthenticatedUser;
 import com.example.Library_Management.dto.LoginRequest;
 import com.example.Library_Management.dto.RegisterRequest;
+import com.example.Library_Management.dto.UserSummary;
 import com.example.Library_Management.entity.User;
+import com.example.Library_Management.service.PasswordService;
+import com.example.Library_Management.service.TokenService;
 import com.example.Library_Management.service.UserService;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.HashMap;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/auth")
 @CrossOrigin(origins = "*")
 public class SimpleAuthController {
 
+    private static final Logger log = LoggerFactory.getLogger(SimpleAuthController.class);
+
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private TokenService tokenService;
+
+    @Autowired
+    private PasswordService passwordService;
+
     @PostMapping("/login")
     public ResponseEntity<?> login(@RequestBody LoginRequest loginRequest) {
         try {
-            System.out.println("Login attempt for: " + loginRequest.getUsername());
+            log.debug("Login attempt for {}", loginRequest.getUsername());
 
             Optional<User> userOpt = userService.findByUsername(loginRequest.getUsername());
             if (userOpt.isEmpty()) {
-                System.out.println("User not found: " + loginRequest.getUsername());
+                log.info("Login failed for {}: unknown user", loginRequest.getUsername());
                 return ResponseEntity.badRequest().body("Invalid credentials");
             }
 
             User user = userOpt.get();
-            System.out.println("User found: " + user.getUsername());
-            System.out.println("Stored password: " + user.getPassword());
-            System.out.println("Input password: " + loginRequest.getPassword());
 
-            // Simple password check (no encoding for mini project)
-            if (!user.getPassword().equals(loginRequest.getPassword())) {
-                System.out.println("Password mismatch");
+            if (!passwordService.matches(loginRequest.getPassword(), user.getPassword())) {
+                log.info("Login failed for {}: wrong password", user.getUsername());
                 return ResponseEntity.badRequest().body("Invalid credentials");
             }
+            if (passwordService.needsRehash(user.getPassword())) {
+                userService.updatePassword(user, passwordService.hash(loginRequest.getPassword()));
+                log.info("Rehashed stored password for {}", user.getUsername());
+            }
 
-            System.out.println("Login successful for: " + user.getUsername());
+            log.debug("Login succeeded for {}", user.getUsername());
 
             // Create simple response
             Map<String, Object> response = new HashMap<>();
-            response.put("token", "simple-token-" + user.getId());
+            response.put("token", tokenService.issue(user));
+            response.put("expiresIn", tokenService.getTtl().getSeconds());
             response.put("user", user);
             response.put("role", user.getRole().name());
 
             return ResponseEntity.ok(response);
 
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
-            System.out.println("Login error: " + e.getMessage());
+            log.warn("Login error", e);
             return ResponseEntity.badRequest().body("Login failed: " + e.getMessage());
         }
     }
 
+    // Revokes the presented token; other sessions of the same user stay valid
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(HttpServletRequest request) {
+        AuthenticatedUser user = TokenAuthenticationFilter.currentUser(request);
+        if (user == null) {
+            return ResponseEntity.badRequest().body("Not logged in");
+        }
+        tokenService.revoke(user);
+        return ResponseEntity.ok().build();
+    }
+
     @PostMapping("/register")
-    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest) {
+    public ResponseEntity<?> register(@RequestBody RegisterRequest registerRequest, HttpServletRequest request) {
         try {
-            System.out.println("Registration attempt for: " + registerRequest.getUsername());
+            log.debug("Registration attempt for {}", registerRequest.getUsername());
 
             if (userService.existsByUsername(registerRequest.getUsername())) {
                 return ResponseEntity.badRequest().body("Username already exists");
@@ -71,22 +104,36 @@ public class SimpleAuthController {
                 return ResponseEntity.badRequest().body("Email already exists");
             }
 
+            // Self-registration always creates a student; only staff may create other roles
+            AuthenticatedUser caller = TokenAuthenticationFilter.currentUser(request);
+            User.Role role = caller != null && caller.isStaff() && registerRequest.getRole() != null
+                    ? registerRequest.getRole() : User.Role.STUDENT;
+
             User user = new User(
                     registerRequest.getUsername(),
-                    registerRequest.getPassword(), // Store password as-is for simplicity
+                    registerRequest.getPassword(), // Hashed by UserService.createUser
                     registerRequest.getEmail(),
                     registerRequest.getFirstName(),
                     registerRequest.getLastName(),
-                    registerRequest.getRole());
+                    role);
 
             User savedUser = userService.createUser(user);
-            System.out.println("User registered successfully: " + savedUser.getUsername());
+            log.info("Registered user {} with id {}", savedUser.getUsername(), savedUser.getId());
 
-            return ResponseEntity.ok(savedUser);
+            return ResponseEntity.ok(UserSummary.from(savedUser));
 
+        } catch (RejectedExecutionException e) {
+            return busy();
         } catch (Exception e) {
-            System.out.println("Registration error: " + e.getMessage());
+            log.warn("Registration error", e);
             return ResponseEntity.badRequest().body("Registration failed: " + e.getMessage());
         }
     }
+
+    // Password hashing is saturated; the client should back off briefly and retry
+    private static ResponseEntity<?> busy() {
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body("Server busy, please try again");
+    }
 }
@@ -1,6 +1,7 @@
 package com.example.Library_Management.controller;
 
 import com.example.Library_Management.entity.User;
+import com.example.Library_Management.service.PasswordService;
 import com.example.Library_Management.service.UserService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -13,6 +14,9 @@ public class TestController {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PasswordService passwordService;
+
     @GetMapping("/test")
     public String test() {
         return "Hello from Spring Boot!";
@@ -26,8 +30,10 @@ public class TestController {
                 return "User not found: " + username;
             }
 
-            boolean matches = password.equals(user.getPassword());
-            return "User: " + username + ", Password matches: " + matches + ", Stored password: " + user.getPassword();
+            // Never echo the stored value, only whether it matches and how it is stored
+            boolean matches = passwordService.matches(password, user.getPassword());
+            return "User: " + username + ", Password matches: " + matches
+                    + ", Hashed: " + passwordService.isHashed(user.getPassword());
         } catch (Exception e) {
             return "Error: " + e.getMessage();
         }
@@ -1,13 +1,25 @@
 package com.example.Library_Management.controller;
 
+import com.example.Library_Management.config.TokenAuthenticationFilter;
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.dto.BookRecommendation;
+import com.example.Library_Management.dto.UserSummary;
 import com.example.Library_Management.entity.User;
+import com.example.Library_Management.service.RecommendationService;
 import com.example.Library_Management.service.UserService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.MappingJacksonValue;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("/users")
@@ -17,10 +29,31 @@ public class UserController {
     @Autowired
     private UserService userService;
     
+    @Autowired
+    private RecommendationService recommendationService;
+    
+    @Autowired
+    private ObjectMapper objectMapper;
+    
+    // List endpoints return UserSummary views, optionally narrowed with ?fields=
     @GetMapping
-    public ResponseEntity<List<User>> getAllUsers() {
+    public ResponseEntity<MappingJacksonValue> getAllUsers(@RequestParam(required = false) String fields) {
         List<User> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+        return summaries(users, fields);
+    }
+    
+    // Keyset page: GET /users?after=<last id>&limit=<n>
+    @GetMapping(params = "limit")
+    public ResponseEntity<MappingJacksonValue> getUsersPage(@RequestParam(defaultValue = "0") Long after,
+                                                            @RequestParam int limit,
+                                                            @RequestParam(required = false) String fields) {
+        List<User> users = userService.getUsersPage(after, NdjsonResponses.clampLimit(limit));
+        return summaries(users, fields);
+    }
+    
+    @GetMapping(value = "/stream", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> streamUsers() {
+        return NdjsonResponses.stream(objectMapper, userService::streamUsers);
     }
     
     @GetMapping("/{id}")
@@ -30,11 +63,33 @@ public class UserController {
                    .orElse(ResponseEntity.notFound().build());
     }
     
+    // Books borrowed by readers with similar histories, excluding ones this user has had
+    @GetMapping("/{id}/recommendations")
+    public ResponseEntity<List<BookRecommendation>> getRecommendations(@PathVariable Long id,
+                                                                       @RequestParam(defaultValue = "10") int limit) {
+        List<BookRecommendation> recommendations =
+                recommendationService.getRecommendationsForUser(id, NdjsonResponses.clampLimit(limit));
+        return ResponseEntity.ok(recommendations);
+    }
+    
     @PutMapping("/{id}")
-    public ResponseEntity<User> updateUser(@PathVariable Long id, @RequestBody User user) {
+    public ResponseEntity<?> updateUser(@PathVariable Long id, @RequestBody User user,
+                                        HttpServletRequest request) {
         user.setId(id);
-        User updatedUser = userService.updateUser(user);
-        return ResponseEntity.ok(updatedUser);
+        // Only staff may change roles; anyone else keeps the one they have
+        AuthenticatedUser caller = TokenAuthenticationFilter.currentUser(request);
+        if (caller == null || !caller.isStaff()) {
+            user.setRole(caller != null ? caller.getRole() : User.Role.STUDENT);
+        }
+        try {
+            User updatedUser = userService.updateUser(user);
+            return ResponseEntity.ok(updatedUser);
+        } catch (RejectedExecutionException e) {
+            // A new password is hashed on the shared pool; back off like a busy login
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, "1")
+                    .body("Server busy, please try again");
+        }
     }
     
     @DeleteMapping("/{id}")
@@ -42,4 +97,9 @@ public class UserController {
         userService.deleteUser(id);
         return ResponseEntity.ok().build();
     }
+    
+    private static ResponseEntity<MappingJacksonValue> summaries(List<User> users, String fields) {
+        List<UserSummary> summaries = users.stream().map(UserSummary::from).toList();
+        return ResponseEntity.ok(FieldSelection.apply(summaries, fields));
+    }
 }
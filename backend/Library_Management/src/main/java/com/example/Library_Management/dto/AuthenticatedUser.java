@@ -0,0 +1,39 @@
+package com.example.Library_Management.dto;
+
+import com.example.Library_Management.entity.User;
+
+// Identity carried by a verified access token; attached to the request by TokenAuthenticationFilter
+public class AuthenticatedUser {
+
+    private final Long userId;
+    private final String username;
+    private final User.Role role;
+    private final String tokenId;
+    private final long expiresAt;
+
+    // Constructors
+    public AuthenticatedUser(Long userId, String username, User.Role role, String tokenId, long expiresAt) {
+        this.userId = userId;
+        this.username = username;
+        this.role = role;
+        this.tokenId = tokenId;
+        this.expiresAt = expiresAt;
+    }
+
+    // Librarians and admins manage the catalog and the user list
+    public boolean isStaff() {
+        return role == User.Role.ADMIN || role == User.Role.LIBRARIAN;
+    }
+
+    // Getters
+    public Long getUserId() { return userId; }
+
+    public String getUsername() { return username; }
+
+    public User.Role getRole() { return role; }
+
+    public String getTokenId() { return tokenId; }
+
+    // Epoch seconds
+    public long getExpiresAt() { return expiresAt; }
+}
@@ -0,0 +1,50 @@
+package com.example.Library_Management.dto;
+
+import com.example.Library_Management.entity.Book;
+
+// Borrowable state of one book after a committed change; copies is 0 whenever available is false
+public class AvailabilityDelta {
+
+    private Long bookId;
+    private String title;
+    private int availableCopies;
+    private Integer totalCopies;
+    private boolean available;
+
+    // Constructors
+    public AvailabilityDelta() {}
+
+    public AvailabilityDelta(Long bookId, String title, int availableCopies, Integer totalCopies, boolean available) {
+        this.bookId = bookId;
+        this.title = title;
+        this.availableCopies = availableCopies;
+        this.totalCopies = totalCopies;
+        this.available = available;
+    }
+
+    public static AvailabilityDelta of(Book book) {
+        return new AvailabilityDelta(book.getId(), book.getTitle(), book.getAvailableCopies(),
+                book.getTotalCopies(), true);
+    }
+
+    // Out of stock, deleted or deactivated
+    public static AvailabilityDelta unavailable(Long bookId) {
+        return new AvailabilityDelta(bookId, null, 0, null, false);
+    }
+
+    // Getters and Setters
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public int getAvailableCopies() { return availableCopies; }
+    public void setAvailableCopies(int availableCopies) { this.availableCopies = availableCopies; }
+
+    public Integer getTotalCopies() { return totalCopies; }
+    public void setTotalCopies(Integer totalCopies) { this.totalCopies = totalCopies; }
+
+    public boolean isAvailable() { return available; }
+    public void setAvailable(boolean available) { this.available = available; }
+}
@@ -0,0 +1,41 @@
+package com.example.Library_Management.dto;
+
+// Outcome of one item in a batch borrow/return request, in request order
+public class BatchItemResult {
+
+    private int index;
+    private boolean success;
+    private String message;
+    private BorrowingDTO borrowing;
+
+    // Constructors
+    public BatchItemResult() {}
+
+    public BatchItemResult(int index, boolean success, String message, BorrowingDTO borrowing) {
+        this.index = index;
+        this.success = success;
+        this.message = message;
+        this.borrowing = borrowing;
+    }
+
+    public static BatchItemResult ok(int index, BorrowingDTO borrowing) {
+        return new BatchItemResult(index, true, null, borrowing);
+    }
+
+    public static BatchItemResult failed(int index, String message) {
+        return new BatchItemResult(index, false, message, null);
+    }
+
+    // Getters and Setters
+    public int getIndex() { return index; }
+    public void setIndex(int index) { this.index = index; }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public BorrowingDTO getBorrowing() { return borrowing; }
+    public void setBorrowing(BorrowingDTO borrowing) { this.borrowing = borrowing; }
+}
@@ -0,0 +1,45 @@
+package com.example.Library_Management.dto;
+
+import java.util.List;
+
+public class BookFacets {
+
+    private long total;
+    private List<FacetCount> categories;
+    private List<FacetCount> authors;
+    private List<FacetCount> decades;
+    private long available;
+    private long unavailable;
+
+    // Constructors
+    public BookFacets() {}
+
+    public BookFacets(long total, List<FacetCount> categories, List<FacetCount> authors, List<FacetCount> decades,
+                      long available, long unavailable) {
+        this.total = total;
+        this.categories = categories;
+        this.authors = authors;
+        this.decades = decades;
+        this.available = available;
+        this.unavailable = unavailable;
+    }
+
+    // Getters and Setters
+    public long getTotal() { return total; }
+    public void setTotal(long total) { this.total = total; }
+
+    public List<FacetCount> getCategories() { return categories; }
+    public void setCategories(List<FacetCount> categories) { this.categories = categories; }
+
+    public List<FacetCount> getAuthors() { return authors; }
+    public void setAuthors(List<FacetCount> authors) { this.authors = authors; }
+
+    public List<FacetCount> getDecades() { return decades; }
+    public void setDecades(List<FacetCount> decades) { this.decades = decades; }
+
+    public long getAvailable() { return available; }
+    public void setAvailable(long available) { this.available = available; }
+
+    public long getUnavailable() { return unavailable; }
+    public void setUnavailable(long unavailable) { this.unavailable = unavailable; }
+}
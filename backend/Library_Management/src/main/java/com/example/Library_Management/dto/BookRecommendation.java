@@ -0,0 +1,22 @@
+package com.example.Library_Management.dto;
+
+public class BookRecommendation {
+
+    private BookSummary book;
+    private double score;
+
+    // Constructors
+    public BookRecommendation() {}
+
+    public BookRecommendation(BookSummary book, double score) {
+        this.book = book;
+        this.score = score;
+    }
+
+    // Getters and Setters
+    public BookSummary getBook() { return book; }
+    public void setBook(BookSummary book) { this.book = book; }
+
+    public double getScore() { return score; }
+    public void setScore(double score) { this.score = score; }
+}
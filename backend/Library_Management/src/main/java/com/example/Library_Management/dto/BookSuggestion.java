@@ -0,0 +1,33 @@
+package com.example.Library_Management.dto;
+
+public class BookSuggestion {
+
+    private String text;
+    private String type;
+    private Long bookId;
+    private long borrows;
+
+    // Constructors
+    public BookSuggestion() {}
+
+    public BookSuggestion(String text, String type, Long bookId, long borrows) {
+        this.text = text;
+        this.type = type;
+        this.bookId = bookId;
+        this.borrows = borrows;
+    }
+
+    // Getters and Setters
+    public String getText() { return text; }
+    public void setText(String text) { this.text = text; }
+
+    public String getType() { return type; }
+    public void setType(String type) { this.type = type; }
+
+    // Null for author suggestions
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+
+    public long getBorrows() { return borrows; }
+    public void setBorrows(long borrows) { this.borrows = borrows; }
+}
@@ -0,0 +1,94 @@
+package com.example.Library_Management.dto;
+
+import com.example.Library_Management.entity.Book;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+// List view of a book: everything a catalog card shows, with the TEXT description cut to an excerpt
+@JsonFilter("fields")
+public class BookSummary {
+
+    static final int EXCERPT_LENGTH = 160;
+
+    private Long id;
+    private String title;
+    private String author;
+    private String isbn;
+    private String category;
+    private Integer publishedYear;
+    private String coverImageUrl;
+    private Integer totalCopies;
+    private Integer availableCopies;
+    private Double rating;
+    private String excerpt;
+
+    // Constructors
+    public BookSummary() {}
+
+    public BookSummary(Long id, String title, String author, String isbn, String category, Integer publishedYear,
+                       String coverImageUrl, Integer totalCopies, Integer availableCopies, Double rating,
+                       String excerpt) {
+        this.id = id;
+        this.title = title;
+        this.author = author;
+        this.isbn = isbn;
+        this.category = category;
+        this.publishedYear = publishedYear;
+        this.coverImageUrl = coverImageUrl;
+        this.totalCopies = totalCopies;
+        this.availableCopies = availableCopies;
+        this.rating = rating;
+        this.excerpt = excerpt;
+    }
+
+    public static BookSummary from(Book b) {
+        return new BookSummary(b.getId(), b.getTitle(), b.getAuthor(), b.getIsbn(), b.getCategory(),
+                b.getPublishedYear(), b.getCoverImageUrl(), b.getTotalCopies(), b.getAvailableCopies(),
+                b.getRating(), excerpt(b.getDescription()));
+    }
+
+    // Cuts at the last word break before the limit so the excerpt never ends mid-word
+    static String excerpt(String description) {
+        if (description == null || description.length() <= EXCERPT_LENGTH) {
+            return description;
+        }
+        int end = description.lastIndexOf(' ', EXCERPT_LENGTH);
+        if (end <= 0) {
+            end = EXCERPT_LENGTH;
+        }
+        return description.substring(0, end).stripTrailing() + "…";
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getTitle() { return title; }
+    public void setTitle(String title) { this.title = title; }
+
+    public String getAuthor() { return author; }
+    public void setAuthor(String author) { this.author = author; }
+
+    public String getIsbn() { return isbn; }
+    public void setIsbn(String isbn) { this.isbn = isbn; }
+
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public Integer getPublishedYear() { return publishedYear; }
+    public void setPublishedYear(Integer publishedYear) { this.publishedYear = publishedYear; }
+
+    public String getCoverImageUrl() { return coverImageUrl; }
+    public void setCoverImageUrl(String coverImageUrl) { this.coverImageUrl = coverImageUrl; }
+
+    public Integer getTotalCopies() { return totalCopies; }
+    public void setTotalCopies(Integer totalCopies) { this.totalCopies = totalCopies; }
+
+    public Integer getAvailableCopies() { return availableCopies; }
+    public void setAvailableCopies(Integer availableCopies) { this.availableCopies = availableCopies; }
+
+    public Double getRating() { return rating; }
+    public void setRating(Double rating) { this.rating = rating; }
+
+    public String getExcerpt() { return excerpt; }
+    public void setExcerpt(String excerpt) { this.excerpt = excerpt; }
+}
@@ -0,0 +1,27 @@
+package com.example.Library_Management.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public class BorrowRequestItem {
+
+    @NotNull(message = "User id is required")
+    private Long userId;
+
+    @NotNull(message = "Book id is required")
+    private Long bookId;
+
+    // Constructors
+    public BorrowRequestItem() {}
+
+    public BorrowRequestItem(Long userId, Long bookId) {
+        this.userId = userId;
+        this.bookId = bookId;
+    }
+
+    // Getters and Setters
+    public Long getUserId() { return userId; }
+    public void setUserId(Long userId) { this.userId = userId; }
+
+    public Long getBookId() { return bookId; }
+    public void setBookId(Long bookId) { this.bookId = bookId; }
+}
@@ -1,5 +1,8 @@
 package com.example.Library_Management.dto;
 
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+
 import java.time.LocalDateTime;
 
 public class BorrowingDTO {
@@ -28,6 +31,18 @@ public class BorrowingDTO {
         this.returnDate = returnDate;
     }
 
+    // Constructor used by the JPQL projection queries in BorrowingRepository
+    public BorrowingDTO(Long id, Long userId, String username, Long bookId, String bookTitle,
+            BorrowStatus status, LocalDateTime borrowDate, LocalDateTime dueDate, LocalDateTime returnDate) {
+        this(id, userId, username, bookId, bookTitle, status.name(), borrowDate, dueDate, returnDate);
+    }
+
+    // Loads the borrowing's user and book if they are still lazy proxies
+    public static BorrowingDTO from(Borrowing b) {
+        return new BorrowingDTO(b.getId(), b.getUser().getId(), b.getUser().getUsername(), b.getBook().getId(),
+                b.getBook().getTitle(), b.getStatus(), b.getBorrowDate(), b.getDueDate(), b.getReturnDate());
+    }
+
     // Getters
     public Long getId() {
         return id;
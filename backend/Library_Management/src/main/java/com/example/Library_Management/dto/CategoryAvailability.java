@@ -0,0 +1,27 @@
+package com.example.Library_Management.dto;
+
+public class CategoryAvailability {
+
+    private String category;
+    private long availableTitles;
+    private long availableCopies;
+
+    // Constructors
+    public CategoryAvailability() {}
+
+    public CategoryAvailability(String category, long availableTitles, long availableCopies) {
+        this.category = category;
+        this.availableTitles = availableTitles;
+        this.availableCopies = availableCopies;
+    }
+
+    // Getters and Setters
+    public String getCategory() { return category; }
+    public void setCategory(String category) { this.category = category; }
+
+    public long getAvailableTitles() { return availableTitles; }
+    public void setAvailableTitles(long availableTitles) { this.availableTitles = availableTitles; }
+
+    public long getAvailableCopies() { return availableCopies; }
+    public void setAvailableCopies(long availableCopies) { this.availableCopies = availableCopies; }
+}
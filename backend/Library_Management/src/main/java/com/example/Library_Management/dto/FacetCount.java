@@ -0,0 +1,22 @@
+package com.example.Library_Management.dto;
+
+public class FacetCount {
+
+    private String value;
+    private long count;
+
+    // Constructors
+    public FacetCount() {}
+
+    public FacetCount(String value, long count) {
+        this.value = value;
+        this.count = count;
+    }
+
+    // Getters and Setters
+    public String getValue() { return value; }
+    public void setValue(String value) { this.value = value; }
+
+    public long getCount() { return count; }
+    public void setCount(long count) { this.count = count; }
+}
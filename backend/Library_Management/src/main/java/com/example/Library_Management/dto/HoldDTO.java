@@ -0,0 +1,85 @@
+package com.example.Library_Management.dto;
+
+import com.example.Library_Management.entity.Hold.HoldStatus;
+
+import java.time.LocalDateTime;
+
+public class HoldDTO {
+
+    private Long id;
+    private Long userId;
+    private String username;
+    private Long bookId;
+    private String bookTitle;
+    private String status;
+    private int priority;
+    // 1-based place in the queue; only set for WAITING holds
+    private Long position;
+    private LocalDateTime createdAt;
+    private LocalDateTime readyAt;
+    private LocalDateTime expiresAt;
+
+    // Constructor used by the JPQL projection queries in HoldRepository
+    public HoldDTO(Long id, Long userId, String username, Long bookId, String bookTitle, HoldStatus status,
+            int priority, LocalDateTime createdAt, LocalDateTime readyAt, LocalDateTime expiresAt) {
+        this.id = id;
+        this.userId = userId;
+        this.username = username;
+        this.bookId = bookId;
+        this.bookTitle = bookTitle;
+        this.status = status.name();
+        this.priority = priority;
+        this.createdAt = createdAt;
+        this.readyAt = readyAt;
+        this.expiresAt = expiresAt;
+    }
+
+    // Getters
+    public Long getId() {
+        return id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    public String getBookTitle() {
+        return bookTitle;
+    }
+
+    public String getStatus() {
+        return status;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public Long getPosition() {
+        return position;
+    }
+
+    public void setPosition(Long position) {
+        this.position = position;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public LocalDateTime getReadyAt() {
+        return readyAt;
+    }
+
+    public LocalDateTime getExpiresAt() {
+        return expiresAt;
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.Library_Management.dto;
+
+import com.example.Library_Management.entity.User;
+import com.fasterxml.jackson.annotation.JsonFilter;
+
+import java.time.LocalDateTime;
+
+// List view of a user; never carries the password hash
+@JsonFilter("fields")
+public class UserSummary {
+
+    private Long id;
+    private String username;
+    private String email;
+    private String firstName;
+    private String lastName;
+    private User.Role role;
+    private boolean active;
+    private LocalDateTime updatedAt;
+
+    // Constructors
+    public UserSummary() {}
+
+    public UserSummary(Long id, String username, String email, String firstName, String lastName,
+                       User.Role role, boolean active, LocalDateTime updatedAt) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.role = role;
+        this.active = active;
+        this.updatedAt = updatedAt;
+    }
+
+    public static UserSummary from(User u) {
+        return new UserSummary(u.getId(), u.getUsername(), u.getEmail(), u.getFirstName(), u.getLastName(),
+                u.getRole(), u.isActive(), u.getUpdatedAt());
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public String getFirstName() { return firstName; }
+    public void setFirstName(String firstName) { this.firstName = firstName; }
+
+    public String getLastName() { return lastName; }
+    public void setLastName(String lastName) { this.lastName = lastName; }
+
+    public User.Role getRole() { return role; }
+    public void setRole(User.Role role) { this.role = role; }
+
+    public boolean isActive() { return active; }
+    public void setActive(boolean active) { this.active = active; }
+
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -1,5 +1,6 @@
 package com.example.Library_Management.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -50,6 +51,13 @@ public class Book {
     
     private boolean isActive = true;
     
+    @Version
+    private long version;
+    
+    // Set when an edit carries the version the client read; the stale check is skipped otherwise
+    @Transient
+    private boolean versionSent;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -124,6 +132,15 @@ public class Book {
     public boolean isActive() { return isActive; }
     public void setActive(boolean active) { isActive = active; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) {
+        this.version = version;
+        this.versionSent = true;
+    }
+    
+    @JsonIgnore
+    public boolean isVersionSent() { return versionSent; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -4,11 +4,17 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Entity
 @Table(name = "borrowings")
 public class Borrowing {
     
+    public static final int LOAN_PERIOD_DAYS = 14;
+    
+    // Statuses of a borrowing whose book has not been returned yet
+    public static final List<BorrowStatus> ACTIVE_STATUSES = List.of(BorrowStatus.BORROWED, BorrowStatus.OVERDUE);
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -35,6 +41,9 @@ public class Borrowing {
     @Enumerated(EnumType.STRING)
     private BorrowStatus status = BorrowStatus.BORROWED;
     
+    @Version
+    private long version;
+    
     @Column(name = "created_at")
     private LocalDateTime createdAt;
     
@@ -49,7 +58,7 @@ public class Borrowing {
             borrowDate = LocalDateTime.now();
         }
         if (dueDate == null) {
-            dueDate = LocalDateTime.now().plusDays(14); // 14 days default
+            dueDate = LocalDateTime.now().plusDays(LOAN_PERIOD_DAYS);
         }
     }
     
@@ -65,7 +74,7 @@ public class Borrowing {
         this.user = user;
         this.book = book;
         this.borrowDate = LocalDateTime.now();
-        this.dueDate = LocalDateTime.now().plusDays(14);
+        this.dueDate = LocalDateTime.now().plusDays(LOAN_PERIOD_DAYS);
         this.status = BorrowStatus.BORROWED;
     }
     
@@ -91,6 +100,9 @@ public class Borrowing {
     public BorrowStatus getStatus() { return status; }
     public void setStatus(BorrowStatus status) { this.status = status; }
     
+    public long getVersion() { return version; }
+    public void setVersion(long version) { this.version = version; }
+    
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
     
@@ -1,5 +1,6 @@
 package com.example.Library_Management.entity;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.Email;
 import jakarta.validation.constraints.NotBlank;
@@ -20,8 +21,10 @@ public class User {
     @Column(unique = true)
     private String username;
 
+    // Accepted on create and update, never written to a response
     @NotBlank
     @Size(min = 4)
+    @JsonProperty(access = JsonProperty.Access.WRITE_ONLY)
     private String password;
 
     @Email
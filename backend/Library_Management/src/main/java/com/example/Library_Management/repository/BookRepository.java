@@ -1,12 +1,17 @@
 package com.example.Library_Management.repository;
 
 import com.example.Library_Management.entity.Book;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import jakarta.persistence.QueryHint;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface BookRepository extends JpaRepository<Book, Long> {
@@ -14,6 +19,8 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     List<Book> findByAuthorContainingIgnoreCase(String author);
     List<Book> findByCategoryContainingIgnoreCase(String category);
     List<Book> findByIsActiveTrue();
+    List<Book> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+    List<Book> findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
     
     @Query("SELECT b FROM Book b WHERE " +
            "LOWER(b.title) LIKE LOWER(CONCAT('%', :searchTerm, '%')) OR " +
@@ -23,4 +30,30 @@ public interface BookRepository extends JpaRepository<Book, Long> {
     
     @Query("SELECT b FROM Book b WHERE b.availableCopies > 0 AND b.isActive = true")
     List<Book> findAvailableBooks();
+    
+    @Query("SELECT b FROM Book b WHERE b.availableCopies > 0 AND b.isActive = true AND b.id > :after ORDER BY b.id")
+    List<Book> findAvailableBooksAfter(@Param("after") Long after, Pageable pageable);
+    
+    // Guarded stock updates: a single statement that only succeeds while copies remain
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies - 1, b.version = b.version + 1, " +
+           "b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.id = :id AND b.availableCopies > 0")
+    int decrementAvailableCopies(@Param("id") Long id);
+    
+    @Modifying
+    @Query("UPDATE Book b SET b.availableCopies = b.availableCopies + 1, b.version = b.version + 1, " +
+           "b.updatedAt = LOCAL DATETIME " +
+           "WHERE b.id = :id AND b.availableCopies < b.totalCopies")
+    int incrementAvailableCopies(@Param("id") Long id);
+    
+    // Streaming variants; callers must consume them inside a transaction and close the stream
+    // (on MySQL the fetch size needs useCursorFetch, see MySqlCursorFetchConfig)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT b FROM Book b WHERE b.isActive = true ORDER BY b.id")
+    Stream<Book> streamActiveBooks();
+    
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT b FROM Book b WHERE b.availableCopies > 0 AND b.isActive = true ORDER BY b.id")
+    Stream<Book> streamAvailableBooks();
 }
@@ -1,16 +1,23 @@
 package com.example.Library_Management.repository;
 
+import com.example.Library_Management.dto.BorrowingDTO;
 import com.example.Library_Management.entity.Borrowing;
 import com.example.Library_Management.entity.User;
 import com.example.Library_Management.entity.Book;
 import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import jakarta.persistence.QueryHint;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
@@ -20,6 +27,8 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
 
     List<Borrowing> findByUserAndStatus(User user, BorrowStatus status);
 
+    List<Borrowing> findByUserAndStatusIn(User user, Collection<BorrowStatus> statuses);
+
     List<Borrowing> findByBook(Book book);
 
     List<Borrowing> findByStatus(BorrowStatus status);
@@ -28,11 +37,66 @@ public interface BorrowingRepository extends JpaRepository<Borrowing, Long> {
     @Query("SELECT b FROM Borrowing b WHERE b.user = :user ORDER BY b.borrowDate DESC")
     List<Borrowing> findByUserOrderByBorrowDateDesc(@Param("user") User user);
 
-    @Query("SELECT b FROM Borrowing b WHERE b.dueDate < :currentDate AND b.status = 'BORROWED'")
+    @Query("SELECT b FROM Borrowing b WHERE b.dueDate < :currentDate AND b.status IN ('BORROWED', 'OVERDUE')")
     List<Borrowing> findOverdueBorrowings(@Param("currentDate") LocalDateTime currentDate);
 
-    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.user = :user AND b.status = 'BORROWED'")
+    @Query("SELECT COUNT(b) FROM Borrowing b WHERE b.user = :user AND b.status IN ('BORROWED', 'OVERDUE')")
     Long countActiveBorrowingsByUser(@Param("user") User user);
 
-    boolean existsByUserAndBookAndStatus(User user, Book book, BorrowStatus status);
+    boolean existsByUserAndBookAndStatusIn(User user, Book book, Collection<BorrowStatus> statuses);
+
+    // DTO projections: one statement per listing, no lazy loads of user/book
+    String DTO_SELECT = "SELECT new com.example.Library_Management.dto.BorrowingDTO(" +
+            "b.id, u.id, u.username, bk.id, bk.title, b.status, b.borrowDate, b.dueDate, b.returnDate) " +
+            "FROM Borrowing b JOIN b.user u JOIN b.book bk ";
+
+    @Query(DTO_SELECT + "ORDER BY b.id")
+    List<BorrowingDTO> findAllDTOs();
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId ORDER BY b.borrowDate DESC")
+    List<BorrowingDTO> findDTOsByUserId(@Param("userId") Long userId);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND b.status IN :statuses")
+    List<BorrowingDTO> findDTOsByUserIdAndStatusIn(@Param("userId") Long userId,
+                                                   @Param("statuses") Collection<BorrowStatus> statuses);
+
+    @Query(DTO_SELECT + "WHERE b.dueDate < :currentDate AND b.status IN ('BORROWED', 'OVERDUE')")
+    List<BorrowingDTO> findOverdueDTOs(@Param("currentDate") LocalDateTime currentDate);
+
+    @Query(DTO_SELECT + "WHERE b.id = :id")
+    Optional<BorrowingDTO> findDTOById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "WHERE b.status IN ('BORROWED', 'OVERDUE') AND b.id > :after ORDER BY b.id")
+    List<BorrowingDTO> findActiveDTOsAfter(@Param("after") Long after, Pageable pageable);
+
+    // (bookId, borrow count) over the whole history, used to weight autocomplete suggestions
+    @Query("SELECT b.book.id, COUNT(b) FROM Borrowing b GROUP BY b.book.id")
+    List<Object[]> countBorrowsByBook();
+
+    // Batch support: active (userId, bookId) pairs for a set of users, and borrowings with their associations
+    @Query("SELECT b.user.id, b.book.id FROM Borrowing b WHERE b.user.id IN :userIds AND b.status IN ('BORROWED', 'OVERDUE')")
+    List<Object[]> findActiveUserBookPairs(@Param("userIds") Collection<Long> userIds);
+
+    @Query("SELECT b FROM Borrowing b JOIN FETCH b.user JOIN FETCH b.book WHERE b.id IN :ids")
+    List<Borrowing> findAllWithUserAndBookByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Keyset pagination
+    @Query("SELECT b FROM Borrowing b JOIN FETCH b.user JOIN FETCH b.book WHERE b.id > :after ORDER BY b.id")
+    List<Borrowing> findPageAfter(@Param("after") Long after, Pageable pageable);
+
+    @Query("SELECT b FROM Borrowing b JOIN FETCH b.user JOIN FETCH b.book " +
+           "WHERE b.dueDate < :currentDate AND b.status IN ('BORROWED', 'OVERDUE') AND b.id > :after ORDER BY b.id")
+    List<Borrowing> findOverdueBorrowingsAfter(@Param("currentDate") LocalDateTime currentDate,
+                                               @Param("after") Long after, Pageable pageable);
+
+    // Streaming variants; callers must consume them inside a transaction and close the stream
+    // (on MySQL the fetch size needs useCursorFetch, see MySqlCursorFetchConfig)
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT b FROM Borrowing b JOIN FETCH b.user JOIN FETCH b.book ORDER BY b.id")
+    Stream<Borrowing> streamAll();
+
+    @QueryHints(@QueryHint(name = "org.hibernate.fetchSize", value = "500"))
+    @Query("SELECT b FROM Borrowing b JOIN FETCH b.user JOIN FETCH b.book " +
+           "WHERE b.dueDate < :currentDate AND b.status IN ('BORROWED', 'OVERDUE') ORDER BY b.id")
+    Stream<Borrowing> streamOverdueBorrowings(@Param("currentDate") LocalDateTime currentDate);
 }
\ No newline at end of file
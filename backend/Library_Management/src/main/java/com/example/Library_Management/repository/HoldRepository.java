@@ -0,0 +1,82 @@
+package com.example.Library_Management.repository;
+
+import com.example.Library_Management.dto.HoldDTO;
+import com.example.Library_Management.entity.Hold;
+import com.example.Library_Management.entity.Hold.HoldStatus;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface HoldRepository extends JpaRepository<Hold, Long> {
+
+    boolean existsByUserIdAndBookIdAndStatusIn(Long userId, Long bookId, Collection<HoldStatus> statuses);
+
+    // DTO projections, as in BorrowingRepository
+    String DTO_SELECT = "SELECT new com.example.Library_Management.dto.HoldDTO(" +
+            "h.id, u.id, u.username, bk.id, bk.title, h.status, h.priority, h.createdAt, h.readyAt, h.expiresAt) " +
+            "FROM Hold h JOIN h.user u JOIN h.book bk ";
+
+    @Query(DTO_SELECT + "WHERE h.id = :id")
+    Optional<HoldDTO> findDTOById(@Param("id") Long id);
+
+    @Query(DTO_SELECT + "WHERE u.id = :userId AND h.status IN :statuses ORDER BY h.createdAt DESC")
+    List<HoldDTO> findDTOsByUserIdAndStatusIn(@Param("userId") Long userId,
+                                              @Param("statuses") Collection<HoldStatus> statuses);
+
+    // The queue for one book: copies being kept first, then waiting holds in serving order
+    @Query(DTO_SELECT + "WHERE bk.id = :bookId AND h.status IN ('WAITING', 'READY') " +
+           "ORDER BY CASE WHEN h.status = 'READY' THEN 0 ELSE 1 END, h.priority, h.createdAt, h.id")
+    List<HoldDTO> findQueueDTOs(@Param("bookId") Long bookId);
+
+    // Next in line for a book; covered by idx_holds_book_status_queue
+    @Query("SELECT h.id FROM Hold h WHERE h.book.id = :bookId AND h.status = 'WAITING' " +
+           "ORDER BY h.priority, h.createdAt, h.id")
+    List<Long> findWaitingIds(@Param("bookId") Long bookId, Pageable pageable);
+
+    // Which of these books someone is waiting for, so returns with no queue cost one lookup
+    @Query("SELECT DISTINCT h.book.id FROM Hold h WHERE h.book.id IN :bookIds AND h.status = 'WAITING'")
+    List<Long> findBookIdsWithWaitingHolds(@Param("bookIds") Collection<Long> bookIds);
+
+    // READY holds of these users as (userId, bookId), so batch borrows without one cost one lookup
+    @Query("SELECT h.user.id, h.book.id FROM Hold h WHERE h.user.id IN :userIds AND h.status = 'READY'")
+    List<Object[]> findReadyUserBookPairs(@Param("userIds") Collection<Long> userIds);
+
+    // Books with a copy on the shelf and a queue, e.g. after a hold expired with nobody left to take the copy
+    @Query("SELECT DISTINCT h.book.id FROM Hold h WHERE h.status = 'WAITING' " +
+           "AND h.book.availableCopies > 0 AND h.book.isActive = true")
+    List<Long> findBookIdsWithWaitingHoldsAndCopies();
+
+    // Waiting holds served before the given one
+    @Query("SELECT COUNT(h) FROM Hold h WHERE h.book.id = :bookId AND h.status = 'WAITING' AND (h.priority < :priority " +
+           "OR (h.priority = :priority AND (h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id))))")
+    long countAhead(@Param("bookId") Long bookId, @Param("priority") int priority,
+                    @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id);
+
+    @Query("SELECT h.id, h.book.id FROM Hold h WHERE h.status = 'READY' AND h.expiresAt < :now")
+    List<Object[]> findExpiredReadyHolds(@Param("now") LocalDateTime now);
+
+    // Guarded transitions: zero rows updated means another request moved the hold first
+    @Modifying
+    @Query("UPDATE Hold h SET h.status = 'READY', h.readyAt = :now, h.expiresAt = :expiresAt, " +
+           "h.version = h.version + 1, h.updatedAt = :now WHERE h.id = :id AND h.status = 'WAITING'")
+    int markReady(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Query("UPDATE Hold h SET h.status = :to, h.version = h.version + 1, h.updatedAt = LOCAL DATETIME " +
+           "WHERE h.id = :id AND h.status = :from")
+    int transition(@Param("id") Long id, @Param("from") HoldStatus from, @Param("to") HoldStatus to);
+
+    @Modifying
+    @Query("UPDATE Hold h SET h.status = 'FULFILLED', h.version = h.version + 1, h.updatedAt = LOCAL DATETIME " +
+           "WHERE h.user.id = :userId AND h.book.id = :bookId AND h.status = 'READY'")
+    int fulfillReadyHold(@Param("userId") Long userId, @Param("bookId") Long bookId);
+}
@@ -0,0 +1,265 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.AvailabilityDelta;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fan-out of committed availability changes to server-sent event subscribers.
+ * BookAvailabilityIndex publishes every change; changes are coalesced per book until
+ * the next flush, so a burst of borrows of one title costs a single delta. Each flush
+ * is serialized once and queued to every subscriber as one event. Subscribers are
+ * parked async responses, so idle clients hold no thread; a single scheduler thread
+ * does the flushing and the heartbeats but never writes to a socket itself. Each
+ * subscriber has a bounded SseOutbox drained by a small fixed writer pool, so one
+ * slow client cannot hold up the others and slow clients cannot add threads; a
+ * client that lets its outbox fill is disconnected and resumes from the replay
+ * buffer when it reconnects.
+ *
+ * Flushed deltas are kept in a ring buffer so a client reconnecting with Last-Event-ID
+ * gets what it missed, coalesced per book. Event ids are "epoch:sequence"; an id from
+ * before a restart or older than the buffer gets a "reset" event, after which the
+ * client reloads the catalog.
+ */
+@Component
+public class AvailabilityFeed implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityFeed.class);
+
+    public static final String AVAILABILITY = "availability";
+    public static final String RESET = "reset";
+
+    private record Entry(long sequence, AvailabilityDelta delta) {}
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${library.availability.feed.flush-interval:PT0.25S}")
+    private Duration flushInterval;
+
+    @Value("${library.availability.feed.heartbeat:PT25S}")
+    private Duration heartbeat;
+
+    @Value("${library.availability.feed.timeout:PT30M}")
+    private Duration timeout;
+
+    @Value("${library.availability.feed.replay-size:4096}")
+    private int replaySize;
+
+    // Events a subscriber may fall behind by before it is disconnected
+    @Value("${library.availability.feed.outbox-size:64}")
+    private int outboxSize;
+
+    @Value("${library.availability.feed.writer-threads:4}")
+    private int writerThreads;
+
+    // Identifies this run, so ids handed out before a restart are recognized as stale
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+
+    // Latest unflushed change per book
+    private final Map<Long, AvailabilityDelta> pending = new ConcurrentHashMap<>();
+
+    private final Set<SseOutbox> subscribers = ConcurrentHashMap.newKeySet();
+
+    // Guarded by this: the replay ring and the last sequence written to it
+    private Entry[] ring;
+    private long sequence;
+
+    private long lastSentNanos = System.nanoTime();
+
+    private Counter flushedDeltas;
+
+    private Counter droppedSubscribers;
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "availability-feed");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private ExecutorService writers;
+
+    @PostConstruct
+    void start() {
+        ring = new Entry[replaySize];
+        writers = SseOutbox.writerPool("availability-feed-writer", writerThreads);
+        long period = flushInterval.toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushSafely, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    void stop() {
+        scheduler.shutdownNow();
+        subscribers.forEach(SseOutbox::close);
+        writers.shutdownNow();
+    }
+
+    /** Records a committed change; only the latest state of each book reaches subscribers. */
+    public void publish(AvailabilityDelta delta) {
+        pending.put(delta.getBookId(), delta);
+    }
+
+    /**
+     * Opens a stream. With a lastEventId the client first gets every book that changed
+     * since, or a reset event if that id can no longer be served.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseOutbox subscriber = new SseOutbox(newEmitter(), outboxSize, writers, subscribers::remove);
+
+        // The replay is queued before the subscriber is visible to flushes, so it goes out first
+        synchronized (this) {
+            long current = sequence;
+            List<AvailabilityDelta> missed = lastEventId == null || lastEventId.isBlank() ? List.of() : since(lastEventId);
+            if (missed == null) {
+                subscriber.offer(SseEmitter.event().name(RESET).id(eventId(current)).data("{}", MediaType.APPLICATION_JSON).build());
+            } else if (!missed.isEmpty()) {
+                subscriber.offer(event(eventId(current), missed));
+            }
+            subscribers.add(subscriber);
+        }
+        return subscriber.emitter();
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.availability.feed.subscribers", this, AvailabilityFeed::getSubscriberCount)
+                .description("Open availability event streams")
+                .register(registry);
+        flushedDeltas = Counter.builder("library.availability.feed.deltas")
+                .description("Coalesced availability changes sent to subscribers")
+                .register(registry);
+        droppedSubscribers = Counter.builder("library.availability.feed.dropped")
+                .description("Subscribers disconnected for falling behind")
+                .register(registry);
+    }
+
+    // Overridden in tests to capture what is written
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void offer(SseOutbox subscriber, Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (!subscriber.offer(event)) {
+            if (droppedSubscribers != null) {
+                droppedSubscribers.increment();
+            }
+            log.debug("Dropped an availability subscriber that fell {} events behind", outboxSize);
+        }
+    }
+
+    private void flushSafely() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.warn("Availability feed flush failed", e);
+        }
+    }
+
+    void flush() {
+        if (pending.isEmpty()) {
+            if (System.nanoTime() - lastSentNanos >= heartbeat.toNanos()) {
+                Set<ResponseBodyEmitter.DataWithMediaType> keepalive = SseEmitter.event().comment("keepalive").build();
+                subscribers.forEach(subscriber -> offer(subscriber, keepalive));
+                lastSentNanos = System.nanoTime();
+            }
+            return;
+        }
+
+        List<AvailabilityDelta> batch = new ArrayList<>(pending.size());
+        for (Long bookId : pending.keySet()) {
+            AvailabilityDelta delta = pending.remove(bookId);
+            if (delta != null) {
+                batch.add(delta);
+            }
+        }
+        String id;
+        List<SseOutbox> recipients;
+        synchronized (this) {
+            for (AvailabilityDelta delta : batch) {
+                sequence++;
+                ring[(int) (sequence % ring.length)] = new Entry(sequence, delta);
+            }
+            id = eventId(sequence);
+            recipients = new ArrayList<>(subscribers);
+        }
+        if (flushedDeltas != null) {
+            flushedDeltas.increment(batch.size());
+        }
+        if (!recipients.isEmpty()) {
+            // Serialized once, queued as-is to every subscriber
+            Set<ResponseBodyEmitter.DataWithMediaType> event = event(id, batch);
+            recipients.forEach(subscriber -> offer(subscriber, event));
+        }
+        lastSentNanos = System.nanoTime();
+    }
+
+    // Changes after the given event id, latest per book; null when they are no longer in the ring
+    private List<AvailabilityDelta> since(String lastEventId) {
+        int colon = lastEventId.indexOf(':');
+        if (colon < 0 || !epoch.equals(lastEventId.substring(0, colon))) {
+            return null;
+        }
+        long last;
+        try {
+            last = Long.parseLong(lastEventId.substring(colon + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+        if (last > sequence || sequence - last > ring.length) {
+            return null;
+        }
+        Map<Long, AvailabilityDelta> latest = new LinkedHashMap<>();
+        for (long s = last + 1; s <= sequence; s++) {
+            AvailabilityDelta delta = ring[(int) (s % ring.length)].delta();
+            latest.remove(delta.getBookId());
+            latest.put(delta.getBookId(), delta);
+        }
+        return new ArrayList<>(latest.values());
+    }
+
+    private Set<ResponseBodyEmitter.DataWithMediaType> event(String id, List<AvailabilityDelta> deltas) {
+        try {
+            return SseEmitter.event()
+                    .name(AVAILABILITY)
+                    .id(id)
+                    .data(objectMapper.writeValueAsString(deltas), MediaType.APPLICATION_JSON)
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize availability deltas", e);
+        }
+    }
+
+    private String eventId(long sequence) {
+        return epoch + ":" + sequence;
+    }
+}
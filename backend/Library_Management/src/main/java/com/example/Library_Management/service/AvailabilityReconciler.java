@@ -0,0 +1,65 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// Loads BookAvailabilityIndex at startup and periodically verifies it against the books table
+@Component
+public class AvailabilityReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(AvailabilityReconciler.class);
+
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BookAvailabilityIndex availabilityIndex;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        reconcile();
+    }
+
+    @Scheduled(initialDelayString = "${library.availability.reconcile-interval:PT5M}",
+               fixedDelayString = "${library.availability.reconcile-interval:PT5M}")
+    public void scheduledReconcile() {
+        int corrected = reconcile();
+        if (corrected > 0) {
+            log.info("Availability reconciliation corrected {} books", corrected);
+        }
+    }
+
+    public int reconcile() {
+        availabilityIndex.startReconcile();
+        Map<Long, Book> scanned = new HashMap<>();
+        try {
+            long lastId = 0L;
+            List<Book> batch;
+            do {
+                batch = bookRepository.findAvailableBooksAfter(lastId, PageRequest.of(0, SCAN_BATCH_SIZE));
+                for (Book book : batch) {
+                    scanned.put(book.getId(), book);
+                    lastId = book.getId();
+                }
+            } while (batch.size() == SCAN_BATCH_SIZE);
+        } catch (RuntimeException e) {
+            availabilityIndex.abortReconcile();
+            throw e;
+        }
+        return availabilityIndex.finishReconcile(scanned);
+    }
+}
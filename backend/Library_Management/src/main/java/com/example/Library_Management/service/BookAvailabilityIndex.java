@@ -0,0 +1,215 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.AvailabilityDelta;
+import com.example.Library_Management.dto.CategoryAvailability;
+import com.example.Library_Management.entity.Book;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory view of the books that can currently be borrowed (active, at least one
+ * copy left), ordered by id, with per-category title and copy counts kept alongside.
+ * BookService updates it after each committed catalog write, borrow and return;
+ * AvailabilityReconciler rebuilds it from the books table on a schedule to repair drift.
+ * Entries are private copies and are replaced, never mutated, so readers need no locking.
+ * Every change is mirrored into the availability bitmap of BookFacetIndex and
+ * published to AvailabilityFeed.
+ */
+@Component
+public class BookAvailabilityIndex {
+
+    public static final String UNCATEGORIZED = "Uncategorized";
+
+    @Autowired
+    private BookFacetIndex facetIndex;
+
+    @Autowired
+    private AvailabilityFeed availabilityFeed;
+
+    private final ConcurrentSkipListMap<Long, Book> available = new ConcurrentSkipListMap<>();
+
+    // category -> {available titles, available copies}
+    private final Map<String, long[]> categoryCounts = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    // Ids written while a reconcile scan is running; their live value wins over the scan
+    private Set<Long> touchedDuringReconcile;
+
+    // Stock changes written but whose transaction has not completed, per book id
+    private final Map<Long, Integer> pendingAdjusts = new HashMap<>();
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Book> getAvailableBooks() {
+        return new ArrayList<>(available.values());
+    }
+
+    public List<Book> getAvailableBooksAfter(Long after, int limit) {
+        List<Book> page = new ArrayList<>(limit);
+        for (Book book : available.tailMap(after, false).values()) {
+            if (page.size() == limit) {
+                break;
+            }
+            page.add(book);
+        }
+        return page;
+    }
+
+    public synchronized List<CategoryAvailability> getCategoryCounts() {
+        List<CategoryAvailability> counts = new ArrayList<>(categoryCounts.size());
+        new TreeMap<>(categoryCounts).forEach((category, c) ->
+                counts.add(new CategoryAvailability(category, c[0], c[1])));
+        return counts;
+    }
+
+    /** Records the current state of a book after a committed catalog write. */
+    public synchronized void put(Book book) {
+        touch(book.getId());
+        replace(book.getId(), isAvailable(book) ? copyOf(book) : null);
+    }
+
+    /**
+     * Applies a committed change of availableCopies. Returns false when the book is
+     * not held and has become available, so the caller must load and put it.
+     */
+    public synchronized boolean adjust(Long bookId, int delta) {
+        touch(bookId);
+        Book current = available.get(bookId);
+        if (current == null) {
+            return delta <= 0;
+        }
+        Book updated = copyOf(current);
+        updated.setAvailableCopies(current.getAvailableCopies() + delta);
+        // Mirror the version bump done by the guarded UPDATE so reconciliation sees no drift
+        updated.setVersion(current.getVersion() + 1);
+        replace(bookId, isAvailable(updated) ? updated : null);
+        return true;
+    }
+
+    /**
+     * Registers a stock change that has been written but not yet committed. Until
+     * endAdjust, a reconcile keeps the live entry for the book: its scan may already
+     * include the change, and the adjust that follows the commit would apply it again.
+     */
+    public synchronized void beginAdjust(Long bookId) {
+        pendingAdjusts.merge(bookId, 1, Integer::sum);
+    }
+
+    /** Called once the transaction of a beginAdjust has committed or rolled back. */
+    public synchronized void endAdjust(Long bookId) {
+        pendingAdjusts.computeIfPresent(bookId, (id, count) -> count == 1 ? null : count - 1);
+    }
+
+    public synchronized void startReconcile() {
+        touchedDuringReconcile = new HashSet<>();
+    }
+
+    public synchronized void abortReconcile() {
+        touchedDuringReconcile = null;
+    }
+
+    /**
+     * Swaps in the state read from the database by a scan started with startReconcile,
+     * keeping the live entry for any book written since or with a stock change still
+     * in flight. Returns the number of entries corrected.
+     */
+    public synchronized int finishReconcile(Map<Long, Book> scanned) {
+        Set<Long> touched = touchedDuringReconcile == null ? Set.of() : touchedDuringReconcile;
+        touchedDuringReconcile = null;
+
+        int corrected = 0;
+        Set<Long> ids = new HashSet<>(available.keySet());
+        ids.addAll(scanned.keySet());
+        for (Long id : ids) {
+            if (touched.contains(id) || pendingAdjusts.containsKey(id)) {
+                continue;
+            }
+            Book fresh = scanned.get(id);
+            Book current = available.get(id);
+            if (!sameAvailability(current, fresh)) {
+                replace(id, fresh == null ? null : copyOf(fresh));
+                corrected++;
+            }
+        }
+        ready = true;
+        return corrected;
+    }
+
+    private void touch(Long bookId) {
+        if (touchedDuringReconcile != null) {
+            touchedDuringReconcile.add(bookId);
+        }
+    }
+
+    private void replace(Long id, Book next) {
+        Book previous = next == null ? available.remove(id) : available.put(id, next);
+        if (previous != null) {
+            count(previous, -1);
+        }
+        if (next != null) {
+            count(next, 1);
+        }
+        facetIndex.setAvailable(id, next != null);
+        if (previous != null || next != null) {
+            availabilityFeed.publish(next != null ? AvailabilityDelta.of(next) : AvailabilityDelta.unavailable(id));
+        }
+    }
+
+    private void count(Book book, int sign) {
+        long[] counts = categoryCounts.computeIfAbsent(categoryOf(book), k -> new long[2]);
+        counts[0] += sign;
+        counts[1] += sign * (long) book.getAvailableCopies();
+        if (counts[0] == 0) {
+            categoryCounts.remove(categoryOf(book));
+        }
+    }
+
+    private static boolean isAvailable(Book book) {
+        return book.isActive() && book.getAvailableCopies() != null && book.getAvailableCopies() > 0;
+    }
+
+    private static boolean sameAvailability(Book a, Book b) {
+        if (a == null || b == null) {
+            return a == b;
+        }
+        return a.getAvailableCopies().equals(b.getAvailableCopies())
+                && a.getVersion() == b.getVersion();
+    }
+
+    private static String categoryOf(Book book) {
+        return book.getCategory() == null || book.getCategory().isBlank() ? UNCATEGORIZED : book.getCategory();
+    }
+
+    private static Book copyOf(Book source) {
+        Book copy = new Book();
+        copy.setId(source.getId());
+        copy.setTitle(source.getTitle());
+        copy.setAuthor(source.getAuthor());
+        copy.setIsbn(source.getIsbn());
+        copy.setCategory(source.getCategory());
+        copy.setPublishedYear(source.getPublishedYear());
+        copy.setDescription(source.getDescription());
+        copy.setCoverImageUrl(source.getCoverImageUrl());
+        copy.setTotalCopies(source.getTotalCopies());
+        copy.setAvailableCopies(source.getAvailableCopies());
+        copy.setRating(source.getRating());
+        copy.setActive(source.isActive());
+        copy.setVersion(source.getVersion());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUpdatedAt(source.getUpdatedAt());
+        return copy;
+    }
+}
@@ -0,0 +1,212 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BookFacets;
+import com.example.Library_Management.dto.FacetCount;
+import com.example.Library_Management.entity.Book;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Roaring bitmaps of active book ids per category, author and publication decade,
+ * plus one of the books that can be borrowed right now. Filters are ANDed across
+ * facets and ORed within one. Each facet's counts ignore that facet's own filter,
+ * so a UI can offer the other values of a facet that is already selected. A query
+ * is a few bitmap intersections and cardinalities, with no database access.
+ *
+ * BookService keeps the catalog facets current on every committed write, and
+ * BookAvailabilityIndex keeps the availability bitmap current. A read/write lock
+ * lets queries run concurrently.
+ */
+@Component
+public class BookFacetIndex {
+
+    public static final String UNKNOWN_DECADE = "Unknown";
+
+    private final Map<String, RoaringBitmap> byCategory = new HashMap<>();
+    private final Map<String, RoaringBitmap> byAuthor = new HashMap<>();
+    private final Map<String, RoaringBitmap> byDecade = new HashMap<>();
+    private final RoaringBitmap active = new RoaringBitmap();
+    private final RoaringBitmap available = new RoaringBitmap();
+
+    // bookId -> {category, author, decade} currently indexed, used to unindex on update
+    private final Map<Integer, String[]> documents = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean contains(Long bookId) {
+        lock.readLock().lock();
+        try {
+            return documents.containsKey(key(bookId));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /** Records the catalog fields of a book after a committed write; inactive books drop out. */
+    public void put(Book book) {
+        int id = key(book.getId());
+        lock.writeLock().lock();
+        try {
+            String[] previous = documents.remove(id);
+            if (previous != null) {
+                unindex(byCategory, previous[0], id);
+                unindex(byAuthor, previous[1], id);
+                unindex(byDecade, previous[2], id);
+                active.remove(id);
+            }
+            if (book.isActive()) {
+                String[] values = {categoryOf(book), authorOf(book), decadeOf(book.getPublishedYear())};
+                byCategory.computeIfAbsent(values[0], k -> new RoaringBitmap()).add(id);
+                byAuthor.computeIfAbsent(values[1], k -> new RoaringBitmap()).add(id);
+                byDecade.computeIfAbsent(values[2], k -> new RoaringBitmap()).add(id);
+                active.add(id);
+                documents.put(id, values);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setAvailable(Long bookId, boolean isAvailable) {
+        int id = key(bookId);
+        lock.writeLock().lock();
+        try {
+            if (isAvailable) {
+                available.add(id);
+            } else {
+                available.remove(id);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Counts the books in scope (all active books when scope is null) that match the
+     * filters, with per-value counts for each facet. Empty filter collections and a
+     * null availability mean no filter on that facet.
+     */
+    public BookFacets facets(Collection<Long> scope, Collection<String> categories, Collection<String> authors,
+                             Collection<String> decades, Boolean availableOnly, int authorLimit) {
+        RoaringBitmap scopeIds = null;
+        if (scope != null) {
+            scopeIds = new RoaringBitmap();
+            for (Long id : scope) {
+                scopeIds.add(key(id));
+            }
+        }
+
+        lock.readLock().lock();
+        try {
+            RoaringBitmap base = scopeIds == null ? active.clone() : RoaringBitmap.and(scopeIds, active);
+            RoaringBitmap categoryMask = union(byCategory, categories);
+            RoaringBitmap authorMask = union(byAuthor, authors);
+            RoaringBitmap decadeMask = union(byDecade, decades);
+            RoaringBitmap availabilityMask = availableOnly == null ? null
+                    : availableOnly ? available : RoaringBitmap.andNot(active, available);
+
+            RoaringBitmap matching = intersect(base, categoryMask, authorMask, decadeMask, availabilityMask);
+            RoaringBitmap forAvailability = intersect(base, categoryMask, authorMask, decadeMask, null);
+            long availableCount = RoaringBitmap.andCardinality(forAvailability, available);
+
+            return new BookFacets(
+                    matching.getLongCardinality(),
+                    counts(byCategory, intersect(base, null, authorMask, decadeMask, availabilityMask),
+                            Integer.MAX_VALUE, Comparator.comparing(FacetCount::getValue)),
+                    counts(byAuthor, intersect(base, categoryMask, null, decadeMask, availabilityMask),
+                            authorLimit, Comparator.comparingLong(FacetCount::getCount).reversed()
+                                    .thenComparing(FacetCount::getValue)),
+                    counts(byDecade, intersect(base, categoryMask, authorMask, null, availabilityMask),
+                            Integer.MAX_VALUE, Comparator.comparing(FacetCount::getValue)),
+                    availableCount,
+                    forAvailability.getLongCardinality() - availableCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Null when there is no filter on the facet, so the caller can skip the intersection
+    private static RoaringBitmap union(Map<String, RoaringBitmap> facet, Collection<String> values) {
+        if (values == null || values.isEmpty()) {
+            return null;
+        }
+        RoaringBitmap union = new RoaringBitmap();
+        for (String value : values) {
+            RoaringBitmap ids = facet.get(value);
+            if (ids != null) {
+                union.or(ids);
+            }
+        }
+        return union;
+    }
+
+    private static RoaringBitmap intersect(RoaringBitmap base, RoaringBitmap... masks) {
+        RoaringBitmap result = base.clone();
+        for (RoaringBitmap mask : masks) {
+            if (mask != null) {
+                result.and(mask);
+            }
+        }
+        return result;
+    }
+
+    private static List<FacetCount> counts(Map<String, RoaringBitmap> facet, RoaringBitmap context, int limit,
+                                           Comparator<FacetCount> order) {
+        List<FacetCount> counts = new ArrayList<>();
+        for (Map.Entry<String, RoaringBitmap> entry : facet.entrySet()) {
+            long count = RoaringBitmap.andCardinality(entry.getValue(), context);
+            if (count > 0) {
+                counts.add(new FacetCount(entry.getKey(), count));
+            }
+        }
+        counts.sort(order);
+        return counts.size() > limit ? new ArrayList<>(counts.subList(0, limit)) : counts;
+    }
+
+    private static void unindex(Map<String, RoaringBitmap> facet, String value, int id) {
+        RoaringBitmap ids = facet.get(value);
+        if (ids != null) {
+            ids.remove(id);
+            if (ids.isEmpty()) {
+                facet.remove(value);
+            }
+        }
+    }
+
+    // Roaring bitmaps hold 32-bit values; a catalog outgrowing that needs the 64-bit variant
+    private static int key(Long bookId) {
+        return Math.toIntExact(bookId);
+    }
+
+    private static String categoryOf(Book book) {
+        return book.getCategory() == null || book.getCategory().isBlank()
+                ? BookAvailabilityIndex.UNCATEGORIZED : book.getCategory().trim();
+    }
+
+    private static String authorOf(Book book) {
+        return book.getAuthor() == null ? "" : book.getAuthor().trim();
+    }
+
+    static String decadeOf(Integer year) {
+        return year == null ? UNKNOWN_DECADE : (Math.floorDiv(year, 10) * 10) + "s";
+    }
+}
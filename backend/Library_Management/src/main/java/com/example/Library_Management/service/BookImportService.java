@@ -0,0 +1,313 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.ImportReport;
+import com.example.Library_Management.entity.Book;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Streams a CSV or NDJSON catalog file into the books table. Rows are parsed one at a
+ * time, validated against the Book constraints and upserted by isbn in batches, each
+ * batch in its own transaction using JDBC batch statements (Book ids are IDENTITY, so
+ * Hibernate cannot batch these inserts itself).
+ */
+@Service
+public class BookImportService {
+
+    public static final int DEFAULT_BATCH_SIZE = 1000;
+    public static final int MAX_BATCH_SIZE = 10000;
+
+    private static final String INSERT_BOOK =
+            "INSERT INTO books (title, author, isbn, category, published_year, description, cover_image_url, " +
+            "total_copies, available_copies, rating, is_active, version, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, 0.0, TRUE, 0, ?, ?)";
+
+    // available_copies is assigned before total_copies so both H2 and MySQL see the old total
+    private static final String UPDATE_BOOK =
+            "UPDATE books SET title = ?, author = ?, category = ?, published_year = ?, description = ?, " +
+            "cover_image_url = ?, available_copies = GREATEST(available_copies + (? - total_copies), 0), " +
+            "total_copies = ?, is_active = TRUE, version = version + 1, updated_at = ? WHERE id = ?";
+
+    public enum Format {
+        CSV, NDJSON;
+
+        public static Format parse(String value) {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        }
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private Validator validator;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    public ImportReport importBooks(InputStream in, Format format, int batchSize) throws IOException {
+        int size = batchSize <= 0 ? DEFAULT_BATCH_SIZE : Math.min(batchSize, MAX_BATCH_SIZE);
+        ImportReport report = new ImportReport();
+        long start = System.nanoTime();
+
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        List<Book> batch = new ArrayList<>(size);
+        if (format == Format.CSV) {
+            readCsv(reader, report, batch, size);
+        } else {
+            readNdjson(reader, report, batch, size);
+        }
+        flush(batch, report);
+
+        report.setElapsedMillis((System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    private void readCsv(BufferedReader reader, ImportReport report, List<Book> batch, int size) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> header = csv.next();
+        if (header == null) {
+            return;
+        }
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            columns.put(header.get(i).trim().toLowerCase(Locale.ROOT), i);
+        }
+
+        List<String> record;
+        while ((record = csv.next()) != null) {
+            if (record.size() == 1 && record.get(0).isBlank()) {
+                continue;
+            }
+            long row = report.getRowsRead() + 1;
+            report.setRowsRead(row);
+            try {
+                accept(toBook(record, columns), row, report, batch, size);
+            } catch (IllegalArgumentException e) {
+                report.reject(row, e.getMessage());
+            }
+        }
+    }
+
+    private void readNdjson(BufferedReader reader, ImportReport report, List<Book> batch, int size) throws IOException {
+        String line;
+        while ((line = reader.readLine()) != null) {
+            if (line.isBlank()) {
+                continue;
+            }
+            long row = report.getRowsRead() + 1;
+            report.setRowsRead(row);
+            Book book;
+            try {
+                book = objectMapper.readValue(line, Book.class);
+            } catch (JsonProcessingException e) {
+                report.reject(row, "Malformed JSON: " + e.getOriginalMessage());
+                continue;
+            }
+            accept(book, row, report, batch, size);
+        }
+    }
+
+    private void accept(Book book, long row, ImportReport report, List<Book> batch, int size) {
+        if (book.getTotalCopies() != null) {
+            book.setAvailableCopies(book.getTotalCopies());
+        }
+        Set<ConstraintViolation<Book>> violations = validator.validate(book);
+        if (!violations.isEmpty()) {
+            ConstraintViolation<Book> first = violations.iterator().next();
+            report.reject(row, first.getPropertyPath() + " " + first.getMessage());
+            return;
+        }
+        batch.add(book);
+        if (batch.size() >= size) {
+            flush(batch, report);
+        }
+    }
+
+    private static Book toBook(List<String> record, Map<String, Integer> columns) {
+        Book book = new Book();
+        book.setTitle(column(record, columns, "title"));
+        book.setAuthor(column(record, columns, "author"));
+        book.setIsbn(column(record, columns, "isbn"));
+        book.setCategory(column(record, columns, "category"));
+        book.setDescription(column(record, columns, "description"));
+        book.setCoverImageUrl(column(record, columns, "coverimageurl"));
+        book.setPublishedYear(intColumn(record, columns, "publishedyear"));
+        book.setTotalCopies(intColumn(record, columns, "totalcopies"));
+        return book;
+    }
+
+    private static String column(List<String> record, Map<String, Integer> columns, String name) {
+        Integer index = columns.get(name);
+        if (index == null || index >= record.size()) {
+            return null;
+        }
+        String value = record.get(index).trim();
+        return value.isEmpty() ? null : value;
+    }
+
+    private static Integer intColumn(List<String> record, Map<String, Integer> columns, String name) {
+        String value = column(record, columns, name);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(name + " is not a number: " + value);
+        }
+    }
+
+    private void flush(List<Book> batch, ImportReport report) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        List<Book> written = new TransactionTemplate(transactionManager).execute(status -> upsert(batch, report));
+        bookService.onBooksImported(written);
+        batch.clear();
+    }
+
+    private List<Book> upsert(List<Book> batch, ImportReport report) {
+        // Later rows win when the same isbn appears twice in one batch
+        Map<String, Book> byIsbn = new LinkedHashMap<>();
+        List<Book> withoutIsbn = new ArrayList<>();
+        for (Book book : batch) {
+            if (book.getIsbn() == null) {
+                withoutIsbn.add(book);
+            } else {
+                byIsbn.put(book.getIsbn(), book);
+            }
+        }
+
+        Map<String, Long> existingIds = new HashMap<>();
+        if (!byIsbn.isEmpty()) {
+            namedParameterJdbcTemplate.query("SELECT id, isbn FROM books WHERE isbn IN (:isbns)",
+                    Map.of("isbns", byIsbn.keySet()),
+                    (RowCallbackHandler) rs -> existingIds.put(rs.getString("isbn"), rs.getLong("id")));
+        }
+
+        List<Book> inserts = new ArrayList<>(withoutIsbn);
+        List<Book> updates = new ArrayList<>();
+        for (Book book : byIsbn.values()) {
+            Long id = existingIds.get(book.getIsbn());
+            if (id == null) {
+                inserts.add(book);
+            } else {
+                book.setId(id);
+                updates.add(book);
+            }
+        }
+
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        insertBooks(inserts, now);
+        updateBooks(updates, now);
+        report.setInserted(report.getInserted() + inserts.size());
+        report.setUpdated(report.getUpdated() + updates.size());
+
+        List<Book> written = new ArrayList<>(inserts);
+        written.addAll(updates);
+        return written;
+    }
+
+    private void insertBooks(List<Book> books, Timestamp now) {
+        if (books.isEmpty()) {
+            return;
+        }
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_BOOK, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Book book = books.get(i);
+                        ps.setString(1, book.getTitle());
+                        ps.setString(2, book.getAuthor());
+                        ps.setString(3, book.getIsbn());
+                        ps.setString(4, book.getCategory());
+                        setInteger(ps, 5, book.getPublishedYear());
+                        ps.setString(6, book.getDescription());
+                        ps.setString(7, book.getCoverImageUrl());
+                        ps.setInt(8, book.getTotalCopies());
+                        ps.setInt(9, book.getAvailableCopies());
+                        ps.setTimestamp(10, now);
+                        ps.setTimestamp(11, now);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return books.size();
+                    }
+                },
+                keyHolder);
+
+        List<Long> ids = GeneratedKeys.ids(keyHolder.getKeyList());
+        for (int i = 0; i < books.size() && i < ids.size(); i++) {
+            books.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void updateBooks(List<Book> books, Timestamp now) {
+        if (books.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.batchUpdate(UPDATE_BOOK, books, books.size(), (ps, book) -> {
+            ps.setString(1, book.getTitle());
+            ps.setString(2, book.getAuthor());
+            ps.setString(3, book.getCategory());
+            setInteger(ps, 4, book.getPublishedYear());
+            ps.setString(5, book.getDescription());
+            ps.setString(6, book.getCoverImageUrl());
+            ps.setInt(7, book.getTotalCopies());
+            ps.setInt(8, book.getTotalCopies());
+            ps.setTimestamp(9, now);
+            ps.setLong(10, book.getId());
+        });
+    }
+
+    private static void setInteger(PreparedStatement ps, int index, Integer value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.INTEGER);
+        } else {
+            ps.setInt(index, value);
+        }
+    }
+}
@@ -0,0 +1,197 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * In-memory inverted index over book title, author, category and isbn.
+ * Terms are case-folded and kept in a sorted map so a query token matches
+ * every indexed term it is a prefix of. Results are ranked by field weight.
+ */
+@Component
+public class BookSearchIndex {
+
+    private static final int TITLE_WEIGHT = 4;
+    private static final int AUTHOR_WEIGHT = 3;
+    private static final int ISBN_WEIGHT = 3;
+    private static final int CATEGORY_WEIGHT = 1;
+
+    // Bonus for a query token matching a whole term instead of just a prefix
+    private static final int EXACT_MATCH_BONUS = 2;
+
+    // term -> (bookId -> weight)
+    private final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+
+    // bookId -> terms currently indexed for that book, used to unindex on update/delete
+    private final Map<Long, Set<String>> documents = new ConcurrentHashMap<>();
+
+    // False until the startup load has finished; callers fall back to the database until then
+    private volatile boolean ready;
+
+    public synchronized void index(Book book) {
+        if (book == null || book.getId() == null) {
+            return;
+        }
+        remove(book.getId());
+
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, book.getTitle(), TITLE_WEIGHT);
+        addTerms(terms, book.getAuthor(), AUTHOR_WEIGHT);
+        addTerms(terms, book.getCategory(), CATEGORY_WEIGHT);
+        String isbn = normalizeIsbn(book.getIsbn());
+        if (isbn != null) {
+            terms.merge(isbn, ISBN_WEIGHT, Math::max);
+        }
+
+        for (Map.Entry<String, Integer> term : terms.entrySet()) {
+            postings.computeIfAbsent(term.getKey(), k -> new ConcurrentHashMap<>())
+                    .put(book.getId(), term.getValue());
+        }
+        documents.put(book.getId(), Collections.unmodifiableSet(new HashSet<>(terms.keySet())));
+    }
+
+    public synchronized void remove(Long bookId) {
+        Set<String> terms = documents.remove(bookId);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Map<Long, Integer> ids = postings.get(term);
+            if (ids != null) {
+                ids.remove(bookId);
+                if (ids.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    public synchronized void clear() {
+        postings.clear();
+        documents.clear();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public int size() {
+        return documents.size();
+    }
+
+    public boolean contains(Long bookId) {
+        return documents.containsKey(bookId);
+    }
+
+    /**
+     * Returns the ids of books matching every token of the query, best match first.
+     * Ties are broken by id so the ordering is stable between calls.
+     */
+    public List<Long> search(String query) {
+        List<String> tokens = looksLikeIsbn(query)
+                ? Collections.singletonList(normalizeIsbn(query))
+                : tokenize(query);
+        if (tokens.isEmpty()) {
+            return Collections.emptyList();
+        }
+
+        Map<Long, Integer> scores = null;
+        for (String token : tokens) {
+            Map<Long, Integer> tokenScores = matchToken(token);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                for (Map.Entry<Long, Integer> entry : scores.entrySet()) {
+                    entry.setValue(entry.getValue() + tokenScores.get(entry.getKey()));
+                }
+            }
+            if (scores.isEmpty()) {
+                return Collections.emptyList();
+            }
+        }
+
+        List<Map.Entry<Long, Integer>> ranked = new ArrayList<>(scores.entrySet());
+        ranked.sort((a, b) -> {
+            int byScore = Integer.compare(b.getValue(), a.getValue());
+            return byScore != 0 ? byScore : Long.compare(a.getKey(), b.getKey());
+        });
+
+        List<Long> ids = new ArrayList<>(ranked.size());
+        for (Map.Entry<Long, Integer> entry : ranked) {
+            ids.add(entry.getKey());
+        }
+        return ids;
+    }
+
+    // Best score per book over all indexed terms starting with the token
+    private Map<Long, Integer> matchToken(String token) {
+        Map<Long, Integer> scores = new HashMap<>();
+        NavigableMap<String, Map<Long, Integer>> matches =
+                postings.subMap(token, true, token + Character.MAX_VALUE, false);
+        for (Map.Entry<String, Map<Long, Integer>> term : matches.entrySet()) {
+            int bonus = term.getKey().length() == token.length() ? EXACT_MATCH_BONUS : 0;
+            for (Map.Entry<Long, Integer> posting : term.getValue().entrySet()) {
+                scores.merge(posting.getKey(), posting.getValue() + bonus, Math::max);
+            }
+        }
+        return scores;
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String token : tokenize(text)) {
+            terms.merge(token, weight, Math::max);
+        }
+    }
+
+    // ISBNs are typed with and without hyphens, so index the bare digits
+    private static String normalizeIsbn(String isbn) {
+        if (isbn == null) {
+            return null;
+        }
+        String digits = isbn.replaceAll("[^0-9Xx]", "").toLowerCase(Locale.ROOT);
+        return digits.isEmpty() ? null : digits;
+    }
+
+    private static boolean looksLikeIsbn(String query) {
+        return query != null && query.matches("[0-9Xx][0-9Xx\\- ]{3,}");
+    }
+
+    static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        if (text == null) {
+            return tokens;
+        }
+        StringBuilder current = new StringBuilder();
+        String folded = text.toLowerCase(Locale.ROOT);
+        for (int i = 0; i < folded.length(); i++) {
+            char c = folded.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                current.append(c);
+            } else if (current.length() > 0) {
+                tokens.add(current.toString());
+                current.setLength(0);
+            }
+        }
+        if (current.length() > 0) {
+            tokens.add(current.toString());
+        }
+        return tokens;
+    }
+}
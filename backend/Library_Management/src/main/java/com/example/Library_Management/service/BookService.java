@@ -1,29 +1,195 @@
 package com.example.Library_Management.service;
 
+import com.example.Library_Management.config.CacheConfig;
+import com.example.Library_Management.dto.BookFacets;
+import com.example.Library_Management.dto.BookSuggestion;
+import com.example.Library_Management.dto.CategoryAvailability;
 import com.example.Library_Management.entity.Book;
 import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.BorrowingRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.ConcurrencyFailureException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BookService {
     
     @Autowired
     private BookRepository bookRepository;
+
+    @Autowired
+    private BookSearchIndex searchIndex;
+
+    @Autowired
+    private BookAvailabilityIndex availabilityIndex;
+
+    @Autowired
+    private BookFacetIndex facetIndex;
+
+    @Autowired
+    private BookSuggestIndex suggestIndex;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int INDEX_LOAD_BATCH_SIZE = 1000;
     
     public List<Book> getAllBooks() {
         return bookRepository.findByIsActiveTrue();
     }
     
     public List<Book> getAvailableBooks() {
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.getAvailableBooks();
+        }
         return bookRepository.findAvailableBooks();
     }
     
+    public List<CategoryAvailability> getAvailabilityByCategory() {
+        return availabilityIndex.getCategoryCounts();
+    }
+    
+    public List<Book> getBooksPage(Long after, int limit) {
+        return bookRepository.findByIsActiveTrueAndIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+    }
+    
+    public List<Book> getAvailableBooksPage(Long after, int limit) {
+        if (availabilityIndex.isReady()) {
+            return availabilityIndex.getAvailableBooksAfter(after, limit);
+        }
+        return bookRepository.findAvailableBooksAfter(after, PageRequest.of(0, limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamActiveBooks()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamAvailableBooks(Consumer<Book> consumer) {
+        try (Stream<Book> books = bookRepository.streamAvailableBooks()) {
+            books.forEach(book -> {
+                consumer.accept(book);
+                entityManager.detach(book);
+            });
+        }
+    }
+    
+    @Counted("library.books.searches")
     public List<Book> searchBooks(String searchTerm) {
-        return bookRepository.searchBooks(searchTerm);
+        if (searchTerm == null || searchTerm.isBlank()) {
+            return bookRepository.findAll();
+        }
+        if (!searchIndex.isReady()) {
+            return bookRepository.searchBooks(searchTerm);
+        }
+
+        List<Long> rankedIds = searchIndex.search(searchTerm);
+        Map<Long, Book> booksById = new HashMap<>();
+        for (Book book : bookRepository.findAllById(rankedIds)) {
+            booksById.put(book.getId(), book);
+        }
+        List<Book> results = new ArrayList<>(rankedIds.size());
+        for (Long id : rankedIds) {
+            Book book = booksById.get(id);
+            if (book != null) {
+                results.add(book);
+            }
+        }
+        return results;
+    }
+
+    /**
+     * Facet counts over the books matching q (the whole catalog when q is blank),
+     * narrowed by the given filters. Throws IllegalStateException until the startup load is done.
+     */
+    public BookFacets getFacets(String q, List<String> categories, List<String> authors, List<String> decades,
+                                Boolean available, int authorLimit) {
+        if (!facetIndex.isReady()) {
+            throw new IllegalStateException("Facet index is still loading");
+        }
+        List<Long> scope = q == null || q.isBlank() ? null : searchIndex.search(q);
+        return facetIndex.facets(scope, categories, authors, decades, available, authorLimit);
+    }
+
+    // Top title and author completions for a partly typed query; throws IllegalStateException until loaded
+    public List<BookSuggestion> suggest(String q, int limit) {
+        if (!suggestIndex.isReady()) {
+            throw new IllegalStateException("Suggestion index is still loading");
+        }
+        return suggestIndex.suggest(q, Math.min(limit, BookSuggestIndex.MAX_SUGGESTIONS));
+    }
+
+    // Load the search, facet and suggestion indexes in id-ordered batches so startup never holds the whole catalog in memory.
+    // Every boot reads the catalog once; the three indexes share that pass, so a snapshot of one alone would not save it.
+    // Requests are served while this runs, and the contains checks keep entries a concurrent write has already refreshed.
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadSearchIndex() {
+        Map<Long, Long> borrowCounts = new HashMap<>();
+        for (Object[] row : borrowingRepository.countBorrowsByBook()) {
+            borrowCounts.put((Long) row[0], (Long) row[1]);
+        }
+        long lastId = 0L;
+        List<Book> batch;
+        do {
+            batch = bookRepository.findByIdGreaterThanOrderByIdAsc(lastId, PageRequest.of(0, INDEX_LOAD_BATCH_SIZE));
+            for (Book book : batch) {
+                if (!searchIndex.contains(book.getId())) {
+                    searchIndex.index(book);
+                }
+                if (!facetIndex.contains(book.getId())) {
+                    facetIndex.put(book);
+                }
+                if (!suggestIndex.contains(book.getId())) {
+                    suggestIndex.put(book, borrowCounts.getOrDefault(book.getId(), 0L));
+                }
+                lastId = book.getId();
+            }
+        } while (batch.size() == INDEX_LOAD_BATCH_SIZE);
+        searchIndex.markReady();
+        facetIndex.markReady();
+        suggestIndex.markReady();
     }
     
     public List<Book> getBooksByCategory(String category) {
@@ -34,45 +200,207 @@ public class BookService {
         return bookRepository.findByAuthorContainingIgnoreCase(author);
     }
     
+    @Cacheable(cacheNames = CacheConfig.BOOKS, key = "#id", sync = true)
     public Optional<Book> getBookById(Long id) {
         return bookRepository.findById(id);
     }
     
     public Book createBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = bookRepository.save(book);
+        searchIndex.index(saved);
+        facetIndex.put(saved);
+        suggestIndex.put(saved, 0);
+        availabilityIndex.put(saved);
+        evictBooks(List.of(saved.getId()));
+        return saved;
     }
     
+    /**
+     * Applies the submitted catalog fields onto the current row. Stock is never taken
+     * from the request: availableCopies moves by the change in totalCopies so that
+     * concurrent borrows and returns are not overwritten. A client that sends the
+     * version it read gets a conflict if the book has changed since.
+     */
     public Book updateBook(Book book) {
-        return bookRepository.save(book);
+        Book saved = retryExecutor.execute("book.update", () -> {
+            Book existing = bookRepository.findById(book.getId())
+                    .orElseThrow(() -> new RuntimeException("Book not found"));
+            if (book.isVersionSent() && book.getVersion() != existing.getVersion()) {
+                throw new ConcurrencyFailureException("Book " + book.getId() + " was modified by another request");
+            }
+            applyCatalogFields(book, existing);
+            return bookRepository.save(existing);
+        });
+        searchIndex.index(saved);
+        facetIndex.put(saved);
+        suggestIndex.put(saved, 0);
+        availabilityIndex.put(saved);
+        evictBooks(List.of(saved.getId()));
+        return saved;
+    }
+    
+    private static void applyCatalogFields(Book source, Book target) {
+        if (source.getTitle() != null) target.setTitle(source.getTitle());
+        if (source.getAuthor() != null) target.setAuthor(source.getAuthor());
+        if (source.getIsbn() != null) target.setIsbn(source.getIsbn());
+        if (source.getCategory() != null) target.setCategory(source.getCategory());
+        if (source.getPublishedYear() != null) target.setPublishedYear(source.getPublishedYear());
+        if (source.getDescription() != null) target.setDescription(source.getDescription());
+        if (source.getCoverImageUrl() != null) target.setCoverImageUrl(source.getCoverImageUrl());
+        if (source.getRating() != null) target.setRating(source.getRating());
+        if (source.getTotalCopies() != null) {
+            int delta = source.getTotalCopies() - target.getTotalCopies();
+            target.setTotalCopies(source.getTotalCopies());
+            target.setAvailableCopies(Math.max(0, target.getAvailableCopies() + delta));
+        }
+    }
+    
+    // Called after each committed import batch; rows carry their ids and the imported catalog fields
+    public void onBooksImported(List<Book> books) {
+        List<Long> ids = new ArrayList<>(books.size());
+        for (Book book : books) {
+            searchIndex.index(book);
+            ids.add(book.getId());
+        }
+        evictBooks(ids);
+        // Imported rows carry the file's stock figures, so availability is re-read from the table
+        for (Book book : bookRepository.findAllById(ids)) {
+            facetIndex.put(book);
+            suggestIndex.put(book, 0);
+            availabilityIndex.put(book);
+        }
     }
     
     public void deleteBook(Long id) {
-        Optional<Book> book = bookRepository.findById(id);
-        if (book.isPresent()) {
-            book.get().setActive(false);
-            bookRepository.save(book.get());
+        Book deleted = retryExecutor.execute("book.delete", () -> {
+            Optional<Book> book = bookRepository.findById(id);
+            if (book.isPresent()) {
+                book.get().setActive(false);
+                return bookRepository.save(book.get());
+            }
+            return null;
+        });
+        if (deleted != null) {
+            searchIndex.index(deleted);
+            facetIndex.put(deleted);
+            suggestIndex.put(deleted, 0);
+            availabilityIndex.put(deleted);
+            evictBooks(List.of(id));
         }
     }
     
-    public Book borrowBook(Long bookId) {
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            if (book.getAvailableCopies() > 0) {
-                book.setAvailableCopies(book.getAvailableCopies() - 1);
-                return bookRepository.save(book);
+    // Takes one copy with a single conditional UPDATE; false if the book is missing or out of stock
+    @Transactional
+    public boolean borrowBook(Long bookId) {
+        boolean taken = reserveCopy(bookId);
+        if (taken) {
+            recordBorrow(bookId);
+        }
+        return taken;
+    }
+    
+    // Takes a copy off the shelf without counting a borrow, e.g. to keep it for a hold
+    @Transactional
+    public boolean reserveCopy(Long bookId) {
+        boolean taken = bookRepository.decrementAvailableCopies(bookId) == 1;
+        evictBooks(List.of(bookId));
+        if (taken) {
+            adjustAvailabilityAfterCommit(List.of(bookId), -1);
+        }
+        return taken;
+    }
+    
+    // Counts a borrow of a copy that was already off the shelf, i.e. a picked-up hold
+    public void recordBorrow(Long bookId) {
+        TransactionHooks.afterCommit(() -> suggestIndex.recordBorrow(bookId));
+    }
+    
+    // Puts one copy back, never going above totalCopies
+    @Transactional
+    public boolean returnBook(Long bookId) {
+        boolean returned = bookRepository.incrementAvailableCopies(bookId) == 1;
+        evictBooks(List.of(bookId));
+        if (returned) {
+            adjustAvailabilityAfterCommit(List.of(bookId), 1);
+        }
+        return returned;
+    }
+    
+    /**
+     * JDBC-batched form of borrowBook: one guarded decrement per entry, sent in a single
+     * round-trip. result[i] tells whether bookIds.get(i) got a copy.
+     */
+    @Transactional
+    public boolean[] borrowBooks(List<Long> bookIds) {
+        evictBooks(bookIds);
+        boolean[] taken = batchAdjustCopies("UPDATE books SET available_copies = available_copies - 1, " +
+                "version = version + 1, updated_at = ? WHERE id = ? AND available_copies > 0", bookIds);
+        List<Long> borrowed = selected(bookIds, taken);
+        adjustAvailabilityAfterCommit(borrowed, -1);
+        TransactionHooks.afterCommit(() -> borrowed.forEach(suggestIndex::recordBorrow));
+        return taken;
+    }
+    
+    @Transactional
+    public boolean[] returnBooks(List<Long> bookIds) {
+        evictBooks(bookIds);
+        boolean[] returned = batchAdjustCopies("UPDATE books SET available_copies = available_copies + 1, " +
+                "version = version + 1, updated_at = ? WHERE id = ? AND available_copies < total_copies", bookIds);
+        adjustAvailabilityAfterCommit(selected(bookIds, returned), 1);
+        return returned;
+    }
+    
+    private static List<Long> selected(List<Long> bookIds, boolean[] flags) {
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < flags.length; i++) {
+            if (flags[i]) {
+                ids.add(bookIds.get(i));
             }
         }
-        return null;
+        return ids;
     }
     
-    public Book returnBook(Long bookId) {
-        Optional<Book> bookOpt = bookRepository.findById(bookId);
-        if (bookOpt.isPresent()) {
-            Book book = bookOpt.get();
-            book.setAvailableCopies(book.getAvailableCopies() + 1);
-            return bookRepository.save(book);
+    // Stock changes reach the availability view only once they are committed; until the
+    // transaction completes they are pending, so a reconcile does not count them twice
+    private void adjustAvailabilityAfterCommit(List<Long> bookIds, int delta) {
+        bookIds.forEach(availabilityIndex::beginAdjust);
+        TransactionHooks.afterCommit(() -> {
+            for (Long bookId : bookIds) {
+                if (!availabilityIndex.adjust(bookId, delta)) {
+                    bookRepository.findById(bookId).ifPresent(availabilityIndex::put);
+                }
+            }
+        });
+        TransactionHooks.afterCompletion(() -> bookIds.forEach(availabilityIndex::endAdjust));
+    }
+
+    
+    // The books cache is transaction-aware, so inside a transaction these evictions run after commit
+    private void evictBooks(Collection<Long> bookIds) {
+        Cache cache = cacheManager.getCache(CacheConfig.BOOKS);
+        if (cache != null) {
+            for (Long id : bookIds) {
+                cache.evict(id);
+            }
+        }
+    }
+    
+    private boolean[] batchAdjustCopies(String sql, List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return new boolean[0];
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int[][] counts = jdbcTemplate.batchUpdate(sql, bookIds, bookIds.size(), (ps, bookId) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, bookId);
+        });
+        boolean[] updated = new boolean[bookIds.size()];
+        int i = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                updated[i++] = count == 1;
+            }
         }
-        return null;
+        return updated;
     }
 }
@@ -0,0 +1,523 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BookSuggestion;
+import com.example.Library_Management.entity.Book;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Autocomplete over book titles and authors. Every word of a title or author name
+ * is a key in a character trie whose nodes hold the suggestions containing that
+ * word, most borrowed first, plus an upper bound on the borrow count anywhere below.
+ * The last query token is matched as a prefix within a small edit distance (none
+ * up to 3 characters, 1 up to 6, 2 beyond). The matching subtrees are then walked
+ * best-first, so the top k come out without visiting every match; earlier tokens
+ * only filter. Closer spellings rank first, then more borrowed ones.
+ *
+ * BookService keeps entries current on catalog writes and counts every committed
+ * borrow. Borrows are only tallied on the borrow path and applied to the trie in one
+ * batch per flush interval, so popularity lags by at most that interval and a busy
+ * circulation desk does not keep taking the write lock. A read/write lock lets
+ * lookups run concurrently.
+ */
+@Component
+public class BookSuggestIndex {
+
+    public static final int MAX_SUGGESTIONS = 20;
+
+    // Stops a filter that rejects nearly everything from walking the whole catalog
+    private static final int MAX_CANDIDATES = 10_000;
+
+    private static final char[] NO_KEYS = new char[0];
+    private static final Node[] NO_CHILDREN = new Node[0];
+    private static final int[] NO_POSTINGS = new int[0];
+
+    public enum Kind { TITLE, AUTHOR }
+
+    private static final class Entry {
+        final int id;
+        final Kind kind;
+        final Long bookId;
+        String text;
+        long weight;
+        int books;
+        boolean live;
+
+        Entry(int id, Kind kind, Long bookId, String text, long weight) {
+            this.id = id;
+            this.kind = kind;
+            this.bookId = bookId;
+            this.text = text;
+            this.weight = weight;
+        }
+    }
+
+    private static final class Node {
+        char[] keys = NO_KEYS;
+        Node[] children = NO_CHILDREN;
+        // Entry ids containing the word that ends here, highest weight first, then by entry id
+        int[] postings = NO_POSTINGS;
+        int size;
+        // Never below the weight of a live entry in this subtree
+        long maxWeight;
+
+        Node child(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            return i >= 0 ? children[i] : null;
+        }
+
+        Node childOrCreate(char c) {
+            int i = Arrays.binarySearch(keys, c);
+            if (i >= 0) {
+                return children[i];
+            }
+            int at = -i - 1;
+            char[] newKeys = new char[keys.length + 1];
+            Node[] newChildren = new Node[children.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, at);
+            System.arraycopy(children, 0, newChildren, 0, at);
+            System.arraycopy(keys, at, newKeys, at + 1, keys.length - at);
+            System.arraycopy(children, at, newChildren, at + 1, children.length - at);
+            Node created = new Node();
+            newKeys[at] = c;
+            newChildren[at] = created;
+            keys = newKeys;
+            children = newChildren;
+            return created;
+        }
+    }
+
+    private record Match(Node node, int distance) {}
+
+    // A subtree still to expand (index < 0) or the next posting of a node
+    private record Cursor(Node node, int index, int distance, long priority) {}
+
+    // On equal bounds a posting goes before a subtree, so unweighted catalogs do not expand breadth-first
+    private static final Comparator<Cursor> BEST_FIRST = Comparator.comparingInt(Cursor::distance)
+            .thenComparing(Comparator.comparingLong(Cursor::priority).reversed())
+            .thenComparingInt(cursor -> cursor.index() < 0 ? 1 : 0);
+
+    private final Node root = new Node();
+    private final List<Entry> entries = new ArrayList<>();
+    private final Map<Long, Entry> titles = new HashMap<>();
+    private final Map<String, Entry> authors = new HashMap<>();
+    private final Map<Long, String> authorOfBook = new HashMap<>();
+
+    // Committed borrows per book not yet applied to the trie
+    private final Map<Long, Long> pendingBorrows = new ConcurrentHashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+    }
+
+    public boolean contains(Long bookId) {
+        lock.readLock().lock();
+        try {
+            return titles.containsKey(bookId);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Records a book after a committed catalog write; inactive books are removed.
+     * borrows seeds the popularity of a book seen for the first time and is ignored afterwards.
+     */
+    public void put(Book book, long borrows) {
+        if (!book.isActive() || book.getTitle() == null) {
+            remove(book.getId());
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            Entry title = titles.get(book.getId());
+            if (title == null) {
+                title = newEntry(Kind.TITLE, book.getId(), book.getTitle(), borrows);
+                titles.put(book.getId(), title);
+            }
+            if (!title.live) {
+                title.text = book.getTitle();
+                index(title);
+            } else if (!title.text.equals(book.getTitle())) {
+                unindex(title);
+                title.text = book.getTitle();
+                index(title);
+            }
+
+            String previousAuthor = authorOfBook.get(book.getId());
+            String author = book.getAuthor() == null || book.getAuthor().isBlank() ? null : book.getAuthor().trim();
+            String authorKey = author == null ? null : author.toLowerCase(Locale.ROOT);
+            if (previousAuthor != null && !previousAuthor.equals(authorKey)) {
+                leaveAuthor(previousAuthor, title.weight);
+            }
+            if (authorKey != null && !authorKey.equals(previousAuthor)) {
+                joinAuthor(authorKey, author, title.weight);
+                authorOfBook.put(book.getId(), authorKey);
+            } else if (authorKey == null) {
+                authorOfBook.remove(book.getId());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long bookId) {
+        lock.writeLock().lock();
+        try {
+            Entry title = titles.get(bookId);
+            if (title == null || !title.live) {
+                return;
+            }
+            unindex(title);
+            String author = authorOfBook.remove(bookId);
+            if (author != null) {
+                leaveAuthor(author, title.weight);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /** Counts a committed borrow towards the popularity of the book and its author at the next flush. */
+    public void recordBorrow(Long bookId) {
+        pendingBorrows.merge(bookId, 1L, Long::sum);
+    }
+
+    // Applies the borrows tallied since the last flush, each book once, under a single write lock
+    @Scheduled(fixedDelayString = "${library.suggest.borrow-flush-interval:PT1S}")
+    public void applyPendingBorrows() {
+        if (pendingBorrows.isEmpty()) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            for (Long bookId : pendingBorrows.keySet()) {
+                Long borrows = pendingBorrows.remove(bookId);
+                Entry title = borrows == null ? null : titles.get(bookId);
+                if (title == null) {
+                    continue;
+                }
+                reweigh(title, title.weight + borrows);
+                String author = authorOfBook.get(bookId);
+                if (author != null) {
+                    Entry entry = authors.get(author);
+                    reweigh(entry, entry.weight + borrows);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookSuggestion> suggest(String query, int limit) {
+        List<String> tokens = BookSearchIndex.tokenize(query);
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        String prefix = tokens.get(tokens.size() - 1);
+        List<String> others = tokens.subList(0, tokens.size() - 1);
+
+        lock.readLock().lock();
+        try {
+            List<Match> matches = new ArrayList<>();
+            int[] firstRow = new int[prefix.length() + 1];
+            for (int j = 0; j < firstRow.length; j++) {
+                firstRow[j] = j;
+            }
+            collect(root, prefix, maxEdits(prefix), firstRow, Integer.MAX_VALUE, matches);
+
+            PriorityQueue<Cursor> queue = new PriorityQueue<>(BEST_FIRST);
+            for (Match match : matches) {
+                queue.add(new Cursor(match.node(), -1, match.distance(), match.node().maxWeight));
+            }
+
+            List<BookSuggestion> results = new ArrayList<>(limit);
+            Set<Integer> seen = new HashSet<>();
+            int examined = 0;
+            while (!queue.isEmpty() && results.size() < limit && examined < MAX_CANDIDATES) {
+                Cursor cursor = queue.poll();
+                Node node = cursor.node();
+                if (cursor.index() < 0) {
+                    if (node.size > 0) {
+                        queue.add(new Cursor(node, 0, cursor.distance(), entries.get(node.postings[0]).weight));
+                    }
+                    for (Node child : node.children) {
+                        queue.add(new Cursor(child, -1, cursor.distance(), child.maxWeight));
+                    }
+                    continue;
+                }
+                int next = cursor.index() + 1;
+                if (next < node.size) {
+                    queue.add(new Cursor(node, next, cursor.distance(), entries.get(node.postings[next]).weight));
+                }
+                Entry entry = entries.get(node.postings[cursor.index()]);
+                examined++;
+                if (seen.add(entry.id) && matchesAll(entry.text, others)) {
+                    results.add(new BookSuggestion(entry.text, entry.kind.name(), entry.bookId, entry.weight));
+                }
+            }
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Levenshtein walk of the trie: row[j] is the distance between the first j query
+     * characters and the word spelled by the path to node. A node whose full-query
+     * distance is within budget, and better than any ancestor already taken, starts
+     * a matching subtree.
+     */
+    private static void collect(Node node, String query, int maxEdits, int[] row, int bestAbove, List<Match> out) {
+        int distance = row[query.length()];
+        if (distance <= maxEdits && distance < bestAbove) {
+            out.add(new Match(node, distance));
+            if (distance == 0) {
+                return;
+            }
+            bestAbove = distance;
+        }
+        int min = Integer.MAX_VALUE;
+        for (int value : row) {
+            min = Math.min(min, value);
+        }
+        if (min > maxEdits) {
+            return;
+        }
+        for (int i = 0; i < node.keys.length; i++) {
+            char c = node.keys[i];
+            int[] next = new int[row.length];
+            next[0] = row[0] + 1;
+            for (int j = 1; j < row.length; j++) {
+                int substitution = row[j - 1] + (query.charAt(j - 1) == c ? 0 : 1);
+                next[j] = Math.min(substitution, Math.min(next[j - 1], row[j]) + 1);
+            }
+            collect(node.children[i], query, maxEdits, next, bestAbove, out);
+        }
+    }
+
+    static int maxEdits(String token) {
+        return token.length() <= 3 ? 0 : token.length() <= 6 ? 1 : 2;
+    }
+
+    // Every earlier query token must start, or be a near miss of, some word of the suggestion
+    private static boolean matchesAll(String text, List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return true;
+        }
+        List<String> words = BookSearchIndex.tokenize(text);
+        for (String token : tokens) {
+            int maxEdits = maxEdits(token);
+            boolean found = false;
+            for (String word : words) {
+                if (word.startsWith(token) || (maxEdits > 0 && withinDistance(token, word, maxEdits))) {
+                    found = true;
+                    break;
+                }
+            }
+            if (!found) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean withinDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+        int[] row = new int[b.length() + 1];
+        for (int j = 0; j < row.length; j++) {
+            row[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            int diagonal = row[0];
+            row[0] = i;
+            int min = row[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int above = row[j];
+                row[j] = Math.min(diagonal + (a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1),
+                        Math.min(row[j - 1], above) + 1);
+                diagonal = above;
+                min = Math.min(min, row[j]);
+            }
+            if (min > maxEdits) {
+                return false;
+            }
+        }
+        return row[b.length()] <= maxEdits;
+    }
+
+    private Entry newEntry(Kind kind, Long bookId, String text, long weight) {
+        Entry entry = new Entry(entries.size(), kind, bookId, text, weight);
+        entries.add(entry);
+        return entry;
+    }
+
+    private void joinAuthor(String key, String name, long weight) {
+        Entry author = authors.get(key);
+        if (author == null) {
+            author = newEntry(Kind.AUTHOR, null, name, 0);
+            authors.put(key, author);
+        }
+        author.books++;
+        if (!author.live) {
+            author.weight = weight;
+            author.text = name;
+            index(author);
+        } else {
+            reweigh(author, author.weight + weight);
+        }
+    }
+
+    private void leaveAuthor(String key, long weight) {
+        Entry author = authors.get(key);
+        if (author == null) {
+            return;
+        }
+        author.books--;
+        if (author.books <= 0) {
+            unindex(author);
+        } else {
+            reweigh(author, Math.max(0, author.weight - weight));
+        }
+    }
+
+    private void index(Entry entry) {
+        for (String word : distinctWords(entry.text)) {
+            Node node = root;
+            node.maxWeight = Math.max(node.maxWeight, entry.weight);
+            for (int i = 0; i < word.length(); i++) {
+                node = node.childOrCreate(word.charAt(i));
+                node.maxWeight = Math.max(node.maxWeight, entry.weight);
+            }
+            insert(node, entry.id, entry.weight);
+        }
+        entry.live = true;
+    }
+
+    // Bounds higher up are left as they are; they only need to stay upper bounds
+    private void unindex(Entry entry) {
+        for (String word : distinctWords(entry.text)) {
+            Node node = find(word);
+            if (node == null) {
+                continue;
+            }
+            int at = positionOf(node, entry.id, entry.weight);
+            if (at >= 0) {
+                delete(node, at);
+            }
+        }
+        entry.live = false;
+    }
+
+    // Each posting is found by binary search and moved with one array copy, so common words stay cheap
+    private void reweigh(Entry entry, long weight) {
+        long previous = entry.weight;
+        entry.weight = weight;
+        if (!entry.live || weight == previous) {
+            return;
+        }
+        for (String word : distinctWords(entry.text)) {
+            Node node = root;
+            node.maxWeight = Math.max(node.maxWeight, weight);
+            for (int i = 0; i < word.length() && node != null; i++) {
+                node = node.child(word.charAt(i));
+                if (node != null) {
+                    node.maxWeight = Math.max(node.maxWeight, weight);
+                }
+            }
+            int at = node == null ? -1 : positionOf(node, entry.id, previous);
+            if (at < 0) {
+                continue;
+            }
+            delete(node, at);
+            insert(node, entry.id, weight);
+        }
+    }
+
+    private void insert(Node node, int id, long weight) {
+        if (node.size == node.postings.length) {
+            node.postings = Arrays.copyOf(node.postings, Math.max(4, node.size * 2));
+        }
+        // First slot whose posting sorts after (weight, id)
+        int low = 0;
+        int high = node.size;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (comesBefore(node.postings[mid], id, weight)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        System.arraycopy(node.postings, low, node.postings, low + 1, node.size - low);
+        node.postings[low] = id;
+        node.size++;
+    }
+
+    private static void delete(Node node, int at) {
+        System.arraycopy(node.postings, at + 1, node.postings, at, node.size - at - 1);
+        node.size--;
+    }
+
+    // weight is the one the entry was sorted under, which may differ from its current weight during a reweigh
+    private int positionOf(Node node, int id, long weight) {
+        int low = 0;
+        int high = node.size - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int other = node.postings[mid];
+            if (other == id) {
+                return mid;
+            }
+            if (comesBefore(other, id, weight)) {
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return -1;
+    }
+
+    // Heavier first; equal weights by entry id
+    private boolean comesBefore(int other, int id, long weight) {
+        long otherWeight = entries.get(other).weight;
+        return otherWeight != weight ? otherWeight > weight : other < id;
+    }
+
+    private Node find(String word) {
+        Node node = root;
+        for (int i = 0; i < word.length() && node != null; i++) {
+            node = node.child(word.charAt(i));
+        }
+        return node;
+    }
+
+    private static Set<String> distinctWords(String text) {
+        return new LinkedHashSet<>(BookSearchIndex.tokenize(text));
+    }
+}
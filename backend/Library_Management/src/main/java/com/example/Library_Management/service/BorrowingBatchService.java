@@ -0,0 +1,286 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BatchItemResult;
+import com.example.Library_Management.dto.BorrowRequestItem;
+import com.example.Library_Management.dto.BorrowingDTO;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.BorrowingRepository;
+import com.example.Library_Management.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Circulation-desk batches: all referenced users, books and borrowings are loaded
+ * up front, the BorrowingService rules are applied per item in memory, and the
+ * resulting writes go out as JDBC batches. Each item gets its own result.
+ */
+@Service
+@Timed(value = "library.service", histogram = true)
+public class BorrowingBatchService {
+
+    public static final int MAX_BATCH_SIZE = 100;
+
+    private static final String INSERT_BORROWING =
+            "INSERT INTO borrowings (user_id, book_id, borrow_date, due_date, status, created_at, updated_at, version) " +
+            "VALUES (?, ?, ?, ?, 'BORROWED', ?, ?, 0)";
+
+    private static final String RETURN_BORROWING =
+            "UPDATE borrowings SET status = 'RETURNED', return_date = ?, updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND version = ? AND status <> 'RETURNED'";
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @Transactional
+    @Counted("library.borrowings.batches")
+    public List<BatchItemResult> borrowBooks(List<BorrowRequestItem> items) {
+        checkBatchSize(items.size());
+
+        Set<Long> userIds = new HashSet<>();
+        Set<Long> bookIds = new HashSet<>();
+        for (BorrowRequestItem item : items) {
+            if (item.getUserId() != null) userIds.add(item.getUserId());
+            if (item.getBookId() != null) bookIds.add(item.getBookId());
+        }
+
+        // Users are locked, as in the single borrow path, so per-user limits hold across concurrent batches
+        Map<Long, User> users = new HashMap<>();
+        for (User user : userRepository.findAllByIdForUpdate(userIds)) {
+            users.put(user.getId(), user);
+        }
+        Map<Long, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(bookIds)) {
+            books.put(book.getId(), book);
+        }
+        Map<Long, Integer> activeCounts = new HashMap<>();
+        Set<String> activePairs = new HashSet<>();
+        for (Object[] pair : borrowingRepository.findActiveUserBookPairs(userIds)) {
+            activeCounts.merge((Long) pair[0], 1, Integer::sum);
+            activePairs.add(pair[0] + ":" + pair[1]);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[items.size()];
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < items.size(); i++) {
+            BorrowRequestItem item = items.get(i);
+            User user = users.get(item.getUserId());
+            Book book = books.get(item.getBookId());
+            if (user == null || book == null) {
+                results[i] = BatchItemResult.failed(i, "User or book not found");
+            } else if (activeCounts.getOrDefault(user.getId(), 0) >= BorrowingService.MAX_ACTIVE_BORROWINGS) {
+                results[i] = BatchItemResult.failed(i, "Cannot borrow more books. Please return your current books first.");
+            } else if (activePairs.contains(user.getId() + ":" + book.getId())) {
+                results[i] = BatchItemResult.failed(i, "User has already borrowed this book");
+            } else {
+                activeCounts.merge(user.getId(), 1, Integer::sum);
+                activePairs.add(user.getId() + ":" + book.getId());
+                accepted.add(i);
+            }
+        }
+
+        // A READY hold already kept a copy for its holder, as in the single borrow path;
+        // everything else takes a copy from the shelf
+        List<Long> acceptedUserIds = new ArrayList<>(accepted.size());
+        List<Long> acceptedBookIds = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            acceptedUserIds.add(items.get(i).getUserId());
+            acceptedBookIds.add(items.get(i).getBookId());
+        }
+        boolean[] held = holdService.fulfillReadyHolds(acceptedUserIds, acceptedBookIds);
+        List<Integer> fromShelf = new ArrayList<>(accepted.size());
+        List<Long> shelfBookIds = new ArrayList<>(accepted.size());
+        for (int j = 0; j < accepted.size(); j++) {
+            if (held[j]) {
+                bookService.recordBorrow(acceptedBookIds.get(j));
+            } else {
+                fromShelf.add(accepted.get(j));
+                shelfBookIds.add(acceptedBookIds.get(j));
+            }
+        }
+        boolean[] taken = bookService.borrowBooks(shelfBookIds);
+        for (int j = 0; j < fromShelf.size(); j++) {
+            if (!taken[j]) {
+                int i = fromShelf.get(j);
+                results[i] = BatchItemResult.failed(i, "Book is not available for borrowing");
+            }
+        }
+
+        List<Integer> toInsert = new ArrayList<>();
+        for (int i : accepted) {
+            if (results[i] == null) {
+                toInsert.add(i);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime dueDate = now.plusDays(Borrowing.LOAN_PERIOD_DAYS);
+        List<Long> ids = insertBorrowings(items, toInsert, now, dueDate);
+        for (int j = 0; j < toInsert.size(); j++) {
+            int i = toInsert.get(j);
+            User user = users.get(items.get(i).getUserId());
+            Book book = books.get(items.get(i).getBookId());
+            results[i] = BatchItemResult.ok(i, new BorrowingDTO(ids.get(j), user.getId(), user.getUsername(),
+                    book.getId(), book.getTitle(), BorrowStatus.BORROWED, now, dueDate, null));
+        }
+        List<BatchItemResult> resultList = List.of(results);
+        TransactionHooks.afterCommit(() -> {
+            for (BatchItemResult result : resultList) {
+                if (result.isSuccess()) {
+                    overdueTracker.track(result.getBorrowing());
+                    recommendationService.recordBorrow(result.getBorrowing().getUserId(),
+                            result.getBorrowing().getBookId());
+                }
+            }
+        });
+        return resultList;
+    }
+
+    @Transactional
+    @Counted("library.borrowings.batches")
+    public List<BatchItemResult> returnBooks(List<Long> borrowingIds) {
+        checkBatchSize(borrowingIds.size());
+
+        Map<Long, Borrowing> borrowings = new HashMap<>();
+        for (Borrowing borrowing : borrowingRepository.findAllWithUserAndBookByIdIn(new LinkedHashSet<>(borrowingIds))) {
+            borrowings.put(borrowing.getId(), borrowing);
+        }
+
+        BatchItemResult[] results = new BatchItemResult[borrowingIds.size()];
+        List<Integer> accepted = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (int i = 0; i < borrowingIds.size(); i++) {
+            Borrowing borrowing = borrowings.get(borrowingIds.get(i));
+            if (borrowing == null) {
+                results[i] = BatchItemResult.failed(i, "Borrowing record not found");
+            } else if (borrowing.getStatus() == BorrowStatus.RETURNED || !seen.add(borrowing.getId())) {
+                results[i] = BatchItemResult.failed(i, "Book has already been returned");
+            } else {
+                accepted.add(i);
+            }
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp timestamp = Timestamp.valueOf(now);
+        List<Borrowing> toReturn = new ArrayList<>(accepted.size());
+        for (int i : accepted) {
+            toReturn.add(borrowings.get(borrowingIds.get(i)));
+        }
+        int[][] counts = toReturn.isEmpty() ? new int[0][] : jdbcTemplate.batchUpdate(RETURN_BORROWING, toReturn,
+                toReturn.size(), (ps, borrowing) -> {
+                    ps.setTimestamp(1, timestamp);
+                    ps.setTimestamp(2, timestamp);
+                    ps.setLong(3, borrowing.getId());
+                    ps.setLong(4, borrowing.getVersion());
+                });
+
+        List<Long> returnedBookIds = new ArrayList<>();
+        List<Integer> returned = new ArrayList<>();
+        int j = 0;
+        for (int[] chunk : counts) {
+            for (int count : chunk) {
+                int i = accepted.get(j);
+                if (count == 1) {
+                    returned.add(i);
+                    returnedBookIds.add(toReturn.get(j).getBook().getId());
+                } else {
+                    results[i] = BatchItemResult.failed(i, "Borrowing was modified by another request");
+                }
+                j++;
+            }
+        }
+        bookService.returnBooks(holdService.allocateReturnedCopies(returnedBookIds));
+
+        List<Long> returnedIds = new ArrayList<>(returned.size());
+        for (int i : returned) {
+            Borrowing b = borrowings.get(borrowingIds.get(i));
+            results[i] = BatchItemResult.ok(i, new BorrowingDTO(b.getId(), b.getUser().getId(),
+                    b.getUser().getUsername(), b.getBook().getId(), b.getBook().getTitle(),
+                    BorrowStatus.RETURNED, b.getBorrowDate(), b.getDueDate(), now));
+            returnedIds.add(b.getId());
+        }
+        TransactionHooks.afterCommit(() -> returnedIds.forEach(overdueTracker::untrack));
+        return List.of(results);
+    }
+
+    private List<Long> insertBorrowings(List<BorrowRequestItem> items, List<Integer> toInsert,
+                                        LocalDateTime now, LocalDateTime dueDate) {
+        if (toInsert.isEmpty()) {
+            return List.of();
+        }
+        Timestamp borrowTimestamp = Timestamp.valueOf(now);
+        Timestamp dueTimestamp = Timestamp.valueOf(dueDate);
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(
+                con -> con.prepareStatement(INSERT_BORROWING, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int j) throws SQLException {
+                        BorrowRequestItem item = items.get(toInsert.get(j));
+                        ps.setLong(1, item.getUserId());
+                        ps.setLong(2, item.getBookId());
+                        ps.setTimestamp(3, borrowTimestamp);
+                        ps.setTimestamp(4, dueTimestamp);
+                        ps.setTimestamp(5, borrowTimestamp);
+                        ps.setTimestamp(6, borrowTimestamp);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return toInsert.size();
+                    }
+                },
+                keyHolder);
+
+        return GeneratedKeys.ids(keyHolder.getKeyList());
+    }
+
+    private static void checkBatchSize(int size) {
+        if (size > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch may contain at most " + MAX_BATCH_SIZE + " items");
+        }
+    }
+}
@@ -1,18 +1,30 @@
 package com.example.Library_Management.service;
 
+import com.example.Library_Management.dto.BorrowingDTO;
 import com.example.Library_Management.entity.Borrowing;
 import com.example.Library_Management.entity.User;
 import com.example.Library_Management.entity.Book;
 import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import com.example.Library_Management.repository.BookRepository;
 import com.example.Library_Management.repository.BorrowingRepository;
+import com.example.Library_Management.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class BorrowingService {
 
     @Autowired
@@ -21,42 +33,105 @@ public class BorrowingService {
     @Autowired
     private BookService bookService;
 
-    public Borrowing borrowBook(User user, Book book) {
-        // Check if book is available
-        if (book.getAvailableCopies() <= 0) {
-            throw new RuntimeException("Book is not available for borrowing");
-        }
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private OptimisticRetryExecutor retryExecutor;
+
+    @Autowired
+    private OverdueTracker overdueTracker;
+
+    @Autowired
+    private RecommendationService recommendationService;
+
+    @Autowired
+    private HoldService holdService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    // Streamed rows fetch their user and book, so the persistence context is cleared in chunks
+    private static final int STREAM_CLEAR_INTERVAL = 500;
+
+    // Maximum number of books a user may hold at once
+    static final int MAX_ACTIVE_BORROWINGS = 1;
+
+    /**
+     * Borrows a book in one transaction. The user row is locked so the per-user
+     * limit holds under concurrent requests, and stock is taken with a guarded
+     * UPDATE so copies can never be oversold.
+     */
+    @Counted("library.borrowings.borrows")
+    public Borrowing borrowBook(Long userId, Long bookId) {
+        return retryExecutor.execute("borrowing.borrow", () -> doBorrowBook(userId, bookId));
+    }
+
+    private Borrowing doBorrowBook(Long userId, Long bookId) {
+        User user = userRepository.findByIdForUpdate(userId)
+                .orElseThrow(() -> new RuntimeException("User or book not found"));
 
         // Check if user can borrow more books
-        if (!canUserBorrow(user)) {
+        long activeBorrowings = borrowingRepository.countActiveBorrowingsByUser(user);
+        if (activeBorrowings >= MAX_ACTIVE_BORROWINGS) {
             throw new RuntimeException("Cannot borrow more books. Please return your current books first.");
         }
 
         // Check if user already has this book borrowed
-        if (borrowingRepository.existsByUserAndBookAndStatus(user, book, BorrowStatus.BORROWED)) {
+        Book book = bookRepository.getReferenceById(bookId);
+        if (activeBorrowings > 0
+                && borrowingRepository.existsByUserAndBookAndStatusIn(user, book, Borrowing.ACTIVE_STATUSES)) {
             throw new RuntimeException("User has already borrowed this book");
         }
 
-        // Create borrowing record
-        Borrowing borrowing = new Borrowing(user, book);
-
-        // Update book availability
-        bookService.borrowBook(book.getId());
+        // A READY hold already kept a copy for this user; otherwise take one from the shelf,
+        // where zero rows updated means the book is missing or out of stock
+        if (holdService.fulfillReadyHold(userId, bookId)) {
+            bookService.recordBorrow(bookId);
+        } else if (!bookService.borrowBook(bookId)) {
+            if (!bookRepository.existsById(bookId)) {
+                throw new RuntimeException("User or book not found");
+            }
+            throw new RuntimeException("Book is not available for borrowing");
+        }
 
-        return borrowingRepository.save(borrowing);
+        Borrowing saved = borrowingRepository.save(new Borrowing(user, book));
+        BorrowingDTO tracked = BorrowingDTO.from(saved);
+        TransactionHooks.afterCommit(() -> {
+            overdueTracker.track(tracked);
+            recommendationService.recordBorrow(tracked.getUserId(), tracked.getBookId());
+        });
+        return saved;
     }
 
+    // A concurrent return of the same borrowing fails its version check and, on retry, sees RETURNED
+    @Counted("library.borrowings.returns")
     public Borrowing returnBook(Long borrowingId) {
+        return retryExecutor.execute("borrowing.return", () -> doReturnBook(borrowingId));
+    }
+
+    private Borrowing doReturnBook(Long borrowingId) {
         Optional<Borrowing> borrowingOpt = borrowingRepository.findById(borrowingId);
         if (borrowingOpt.isPresent()) {
             Borrowing borrowing = borrowingOpt.get();
+            if (borrowing.getStatus() == BorrowStatus.RETURNED) {
+                throw new RuntimeException("Book has already been returned");
+            }
             borrowing.setStatus(BorrowStatus.RETURNED);
             borrowing.setReturnDate(LocalDateTime.now());
 
-            // Update book availability
-            bookService.returnBook(borrowing.getBook().getId());
+            // The copy goes to the next hold if anyone is waiting, else back on the shelf
+            Long bookId = borrowing.getBook().getId();
+            if (!holdService.allocateReturnedCopy(bookId)) {
+                bookService.returnBook(bookId);
+            }
 
-            return borrowingRepository.save(borrowing);
+            Borrowing saved = borrowingRepository.save(borrowing);
+            TransactionHooks.afterCommit(() -> overdueTracker.untrack(borrowingId));
+            return saved;
         }
         throw new RuntimeException("Borrowing record not found");
     }
@@ -66,7 +141,7 @@ public class BorrowingService {
     }
 
     public List<Borrowing> getUserActiveBorrowings(User user) {
-        return borrowingRepository.findByUserAndStatus(user, BorrowStatus.BORROWED);
+        return borrowingRepository.findByUserAndStatusIn(user, Borrowing.ACTIVE_STATUSES);
     }
 
     public List<Borrowing> getOverdueBorrowings() {
@@ -77,6 +152,62 @@ public class BorrowingService {
         return borrowingRepository.findAll();
     }
 
+    // Listing variants that project straight into DTOs in a single query
+    public List<BorrowingDTO> getAllBorrowingDTOs() {
+        return borrowingRepository.findAllDTOs();
+    }
+
+    public List<BorrowingDTO> getUserBorrowingDTOs(Long userId) {
+        return borrowingRepository.findDTOsByUserId(userId);
+    }
+
+    public List<BorrowingDTO> getUserActiveBorrowingDTOs(Long userId) {
+        return borrowingRepository.findDTOsByUserIdAndStatusIn(userId, Borrowing.ACTIVE_STATUSES);
+    }
+
+    public List<BorrowingDTO> getOverdueBorrowingDTOs() {
+        if (overdueTracker.isReady()) {
+            return overdueTracker.getOverdueBorrowings();
+        }
+        return borrowingRepository.findOverdueDTOs(LocalDateTime.now());
+    }
+
+    public Optional<BorrowingDTO> getBorrowingDTOById(Long id) {
+        return borrowingRepository.findDTOById(id);
+    }
+
+    public List<Borrowing> getBorrowingsPage(Long after, int limit) {
+        return borrowingRepository.findPageAfter(after, PageRequest.of(0, limit));
+    }
+
+    public List<Borrowing> getOverdueBorrowingsPage(Long after, int limit) {
+        return borrowingRepository.findOverdueBorrowingsAfter(LocalDateTime.now(), after, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public void streamBorrowings(Consumer<Borrowing> consumer) {
+        try (Stream<Borrowing> borrowings = borrowingRepository.streamAll()) {
+            consumeInChunks(borrowings, consumer);
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public void streamOverdueBorrowings(Consumer<Borrowing> consumer) {
+        try (Stream<Borrowing> borrowings = borrowingRepository.streamOverdueBorrowings(LocalDateTime.now())) {
+            consumeInChunks(borrowings, consumer);
+        }
+    }
+
+    private void consumeInChunks(Stream<Borrowing> borrowings, Consumer<Borrowing> consumer) {
+        int[] count = {0};
+        borrowings.forEach(borrowing -> {
+            consumer.accept(borrowing);
+            if (++count[0] % STREAM_CLEAR_INTERVAL == 0) {
+                entityManager.clear();
+            }
+        });
+    }
+
     public Optional<Borrowing> getBorrowingById(Long id) {
         return borrowingRepository.findById(id);
     }
@@ -85,7 +216,7 @@ public class BorrowingService {
     public boolean canUserBorrow(User user) {
         Long activeBorrowingsCount = borrowingRepository.countActiveBorrowingsByUser(user);
         // Allow borrowing only if user has no active borrowings
-        return activeBorrowingsCount == 0;
+        return activeBorrowingsCount < MAX_ACTIVE_BORROWINGS;
     }
 
     // Alternative method if you want to allow multiple books with limit:
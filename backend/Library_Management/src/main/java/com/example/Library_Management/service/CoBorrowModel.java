@@ -0,0 +1,194 @@
+package com.example.Library_Management.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Item-item co-borrow counts. Row b maps each book borrowed by someone who also
+ * borrowed b to the number of such readers. Rows, distinct-reader counts and reader
+ * state are arrays indexed directly by the dense indexes (from 1) that
+ * RecommendationService gives book and user ids, so they grow with the number of
+ * books and readers rather than with the largest id.
+ * Each reader keeps the set of books they have had, so a re-borrow is recognized in
+ * constant time and counts nothing, and a ring of their last maxHistory distinct books;
+ * a new borrow pairs only with that ring, so a heavy reader costs O(maxHistory), not
+ * O(history). Not thread-safe; RecommendationService guards it.
+ */
+final class CoBorrowModel {
+
+    record Scored(int bookId, double score) {}
+
+    private final int maxHistory;
+
+    private IntIntMap[] rows = new IntIntMap[1024];
+    private int[] readers = new int[1024];
+    private IntIntMap[] readBooks = new IntIntMap[1024];
+    // Ring of each reader's most recent distinct books; historySizes counts all of them
+    private int[][] histories = new int[1024][];
+    private int[] historySizes = new int[1024];
+
+    CoBorrowModel(int maxHistory) {
+        if (maxHistory <= 0) {
+            throw new IllegalArgumentException("maxHistory must be positive");
+        }
+        this.maxHistory = maxHistory;
+    }
+
+    /** Applies one borrow; returns false when the reader had borrowed the book before. */
+    boolean record(int userId, int bookId) {
+        ensureUser(userId);
+        ensureBook(bookId);
+        IntIntMap read = readBooks[userId];
+        if (read == null) {
+            read = new IntIntMap();
+            readBooks[userId] = read;
+        } else if (read.get(bookId) != 0) {
+            return false;
+        }
+        read.add(bookId, 1);
+        readers[bookId]++;
+
+        int[] history = histories[userId];
+        int size = historySizes[userId];
+        int recent = Math.min(size, maxHistory);
+        if (recent > 0) {
+            IntIntMap row = row(bookId);
+            for (int i = 0; i < recent; i++) {
+                int other = history[i];
+                row.add(other, 1);
+                row(other).add(bookId, 1);
+            }
+        }
+        if (history == null) {
+            history = new int[Math.min(4, maxHistory)];
+        } else if (size < maxHistory && size == history.length) {
+            history = Arrays.copyOf(history, Math.min(size * 2, maxHistory));
+        }
+        // Once the ring is full the oldest book is overwritten
+        history[size % maxHistory] = bookId;
+        histories[userId] = history;
+        historySizes[userId] = size + 1;
+        return true;
+    }
+
+    /**
+     * Adds the counts of a model built from a disjoint set of readers. Reader state is
+     * taken over as it is, so other must not be used afterwards.
+     */
+    void merge(CoBorrowModel other) {
+        ensureBook(other.rows.length - 1);
+        ensureUser(other.histories.length - 1);
+        for (int book = 0; book < other.rows.length; book++) {
+            readers[book] += other.readers[book];
+            IntIntMap otherRow = other.rows[book];
+            if (otherRow == null) {
+                continue;
+            }
+            if (rows[book] == null) {
+                rows[book] = otherRow;
+            } else {
+                rows[book].addAll(otherRow);
+            }
+        }
+        for (int user = 0; user < other.histories.length; user++) {
+            if (other.histories[user] != null) {
+                readBooks[user] = other.readBooks[user];
+                histories[user] = other.histories[user];
+                historySizes[user] = other.historySizes[user];
+            }
+        }
+    }
+
+    /**
+     * Books most often borrowed by readers of bookId, scored by cosine similarity
+     * (co-borrowers over the geometric mean of both books' readers) so that books
+     * everyone borrows do not top every list.
+     */
+    List<Scored> related(int bookId, int limit) {
+        if (bookId >= rows.length || rows[bookId] == null) {
+            return List.of();
+        }
+        PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score(), b.score()));
+        int own = readers[bookId];
+        rows[bookId].forEach((other, count) -> offer(top, limit, new Scored(other, similarity(count, own, readers[other]))));
+        return drain(top);
+    }
+
+    /** Sums the similarity of every candidate to the reader's recent books, leaving out books already read. */
+    List<Scored> recommend(int userId, int limit) {
+        if (userId >= histories.length || histories[userId] == null) {
+            return List.of();
+        }
+        int[] history = histories[userId];
+        int recent = Math.min(historySizes[userId], maxHistory);
+        IntIntMap read = readBooks[userId];
+        IntDoubleMap scores = new IntDoubleMap();
+        for (int i = 0; i < recent; i++) {
+            IntIntMap row = rows[history[i]];
+            if (row == null) {
+                continue;
+            }
+            int own = readers[history[i]];
+            row.forEach((other, count) -> {
+                if (read.get(other) == 0) {
+                    scores.add(other, similarity(count, own, readers[other]));
+                }
+            });
+        }
+        PriorityQueue<Scored> top = new PriorityQueue<>(limit + 1, (a, b) -> Double.compare(a.score(), b.score()));
+        scores.forEach((bookId, score) -> offer(top, limit, new Scored(bookId, score)));
+        return drain(top);
+    }
+
+    private static double similarity(int coReaders, int readersA, int readersB) {
+        return coReaders / Math.sqrt((double) Math.max(1, readersA) * Math.max(1, readersB));
+    }
+
+    private static void offer(PriorityQueue<Scored> top, int limit, Scored candidate) {
+        if (top.size() < limit) {
+            top.add(candidate);
+        } else if (candidate.score() > top.peek().score()) {
+            top.poll();
+            top.add(candidate);
+        }
+    }
+
+    // Highest score first
+    private static List<Scored> drain(PriorityQueue<Scored> top) {
+        List<Scored> result = new ArrayList<>(top.size());
+        while (!top.isEmpty()) {
+            result.add(top.poll());
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    private IntIntMap row(int bookId) {
+        IntIntMap row = rows[bookId];
+        if (row == null) {
+            row = new IntIntMap();
+            rows[bookId] = row;
+        }
+        return row;
+    }
+
+    private void ensureBook(int bookId) {
+        if (bookId >= rows.length) {
+            int capacity = Math.max(bookId + 1, rows.length * 2);
+            rows = Arrays.copyOf(rows, capacity);
+            readers = Arrays.copyOf(readers, capacity);
+        }
+    }
+
+    private void ensureUser(int userId) {
+        if (userId >= histories.length) {
+            int capacity = Math.max(userId + 1, histories.length * 2);
+            readBooks = Arrays.copyOf(readBooks, capacity);
+            histories = Arrays.copyOf(histories, capacity);
+            historySizes = Arrays.copyOf(historySizes, capacity);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.Library_Management.service;
+
+import java.util.Arrays;
+
+/**
+ * Gives each database id a consecutive index from 1, so arrays indexed by it are as
+ * long as the number of ids seen rather than the largest id, and any long id (zero,
+ * negative or past the int range) is safe to use. Open addressing with linear probing;
+ * an index of 0 marks an empty slot. There is no removal. Not thread-safe.
+ */
+final class DenseIds {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] keys = new long[MIN_CAPACITY];
+    private int[] indexes = new int[MIN_CAPACITY];
+    // ids[index] is the id given that index; ids[0] is unused
+    private long[] ids = new long[MIN_CAPACITY];
+    private int size;
+
+    int size() {
+        return size;
+    }
+
+    /** The index of id, or 0 when it has none. */
+    int indexOf(long id) {
+        return indexes[slot(keys, indexes, id)];
+    }
+
+    /** The index of id, giving it the next one if it has none yet. */
+    int add(long id) {
+        int slot = slot(keys, indexes, id);
+        if (indexes[slot] != 0) {
+            return indexes[slot];
+        }
+        int index = ++size;
+        keys[slot] = id;
+        indexes[slot] = index;
+        if (index == ids.length) {
+            ids = Arrays.copyOf(ids, ids.length * 2);
+        }
+        ids[index] = id;
+        if (size * 4 > keys.length * 3) {
+            grow();
+        }
+        return index;
+    }
+
+    long idAt(int index) {
+        if (index <= 0 || index > size) {
+            throw new IndexOutOfBoundsException("No id has index " + index);
+        }
+        return ids[index];
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldIndexes = indexes;
+        keys = new long[oldKeys.length * 2];
+        indexes = new int[oldIndexes.length * 2];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIndexes[i] != 0) {
+                int slot = slot(keys, indexes, oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                indexes[slot] = oldIndexes[i];
+            }
+        }
+    }
+
+    // Slot holding the id, or the empty slot where it belongs
+    private static int slot(long[] keys, int[] indexes, long id) {
+        int mask = keys.length - 1;
+        int slot = mix(id) & mask;
+        while (indexes[slot] != 0 && keys[slot] != id) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private static int mix(long id) {
+        long h = id * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,24 @@
+package com.example.Library_Management.service;
+
+import java.util.List;
+import java.util.Map;
+
+// Ids from a batch insert prepared with new String[] {"id"}, one key row per insert in batch order
+final class GeneratedKeys {
+
+    private GeneratedKeys() {}
+
+    static List<Long> ids(List<Map<String, Object>> keyList) {
+        return keyList.stream().map(GeneratedKeys::id).toList();
+    }
+
+    // MySQL Connector/J labels the key GENERATED_KEY whatever was asked for; other drivers
+    // may return more generated columns than the id, so it is never taken by position
+    private static Long id(Map<String, Object> keys) {
+        Object id = keys.containsKey("id") ? keys.get("id") : keys.get("GENERATED_KEY");
+        if (!(id instanceof Number number)) {
+            throw new IllegalStateException("No generated id returned for an inserted row: " + keys);
+        }
+        return number.longValue();
+    }
+}
@@ -0,0 +1,129 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.HoldDTO;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Server-sent event channels to readers with open holds. An idle subscriber is an
+ * async response parked by the servlet container, not a thread, so thousands of
+ * waiting clients cost only their sockets. A periodic comment keeps proxies from
+ * closing idle connections and prunes clients that went away.
+ *
+ * Events are only queued here: hold changes are published from after-commit hooks on
+ * request threads and heartbeats from the shared scheduler thread, and neither may
+ * wait on a slow client. Each stream has a bounded SseOutbox drained by a small writer
+ * pool; a client that falls behind is dropped, and on reconnecting is sent its READY
+ * holds again by HoldService.
+ */
+@Component
+public class HoldNotifier implements MeterBinder {
+
+    public static final String HOLD_READY = "hold-ready";
+    public static final String HOLD_EXPIRED = "hold-expired";
+
+    @Value("${library.holds.sse-timeout:PT30M}")
+    private Duration timeout;
+
+    // Events a stream may fall behind by before it is dropped
+    @Value("${library.holds.sse-outbox-size:16}")
+    private int outboxSize;
+
+    @Value("${library.holds.sse-writer-threads:2}")
+    private int writerThreads;
+
+    private final Map<Long, Set<SseOutbox>> subscribers = new ConcurrentHashMap<>();
+
+    private ExecutorService writers;
+
+    private Counter droppedSubscribers;
+
+    @PostConstruct
+    void start() {
+        writers = SseOutbox.writerPool("hold-notifier-writer", writerThreads);
+    }
+
+    @PreDestroy
+    void stop() {
+        subscribers.values().forEach(outboxes -> outboxes.forEach(SseOutbox::close));
+        writers.shutdownNow();
+    }
+
+    // The browser's EventSource reconnects by itself when the timeout closes the stream
+    public SseEmitter subscribe(Long userId) {
+        SseOutbox outbox = new SseOutbox(newEmitter(), outboxSize, writers, closed -> unsubscribe(userId, closed));
+        subscribers.compute(userId, (id, outboxes) -> {
+            Set<SseOutbox> set = outboxes != null ? outboxes : ConcurrentHashMap.newKeySet();
+            set.add(outbox);
+            return set;
+        });
+        return outbox.emitter();
+    }
+
+    public void send(String event, HoldDTO hold) {
+        Set<SseOutbox> outboxes = subscribers.get(hold.getUserId());
+        if (outboxes == null) {
+            return;
+        }
+        Set<ResponseBodyEmitter.DataWithMediaType> message = SseEmitter.event()
+                .name(event)
+                .id(event + "-" + hold.getId())
+                .data(hold, MediaType.APPLICATION_JSON)
+                .build();
+        outboxes.forEach(outbox -> offer(outbox, message));
+    }
+
+    @Scheduled(fixedDelayString = "${library.holds.sse-heartbeat:PT25S}")
+    public void heartbeat() {
+        Set<ResponseBodyEmitter.DataWithMediaType> keepalive = SseEmitter.event().comment("keepalive").build();
+        subscribers.values().forEach(outboxes -> outboxes.forEach(outbox -> offer(outbox, keepalive)));
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("library.holds.subscribers", this, HoldNotifier::getSubscriberCount)
+                .description("Open hold notification streams")
+                .register(registry);
+        droppedSubscribers = Counter.builder("library.holds.subscribers.dropped")
+                .description("Hold notification streams disconnected for falling behind")
+                .register(registry);
+    }
+
+    // Overridden in tests to capture what is written
+    SseEmitter newEmitter() {
+        return new SseEmitter(timeout.toMillis());
+    }
+
+    private void offer(SseOutbox outbox, Set<ResponseBodyEmitter.DataWithMediaType> message) {
+        if (!outbox.offer(message) && droppedSubscribers != null) {
+            droppedSubscribers.increment();
+        }
+    }
+
+    private void unsubscribe(Long userId, SseOutbox outbox) {
+        subscribers.computeIfPresent(userId, (id, outboxes) -> {
+            outboxes.remove(outbox);
+            return outboxes.isEmpty() ? null : outboxes;
+        });
+    }
+}
@@ -0,0 +1,278 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.HoldDTO;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.Hold;
+import com.example.Library_Management.entity.Hold.HoldStatus;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.BorrowingRepository;
+import com.example.Library_Management.repository.HoldRepository;
+import com.example.Library_Management.repository.UserRepository;
+import io.micrometer.core.annotation.Counted;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Hold queue per book. A copy that comes back while readers are waiting skips the
+ * shelf: it goes to the first WAITING hold by (priority, createdAt, id), which becomes
+ * READY and keeps the copy for its holder until the pickup window closes. Every
+ * transition is a guarded UPDATE, so concurrent returns never hand one copy to two
+ * holders. Holders are told over server-sent events once the transaction commits.
+ */
+@Service
+@Timed(value = "library.service", histogram = true)
+public class HoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+
+    // Waiting holds tried per returned copy before giving up on concurrent claimants
+    private static final int ALLOCATION_CANDIDATES = 5;
+
+    @Autowired
+    private HoldRepository holdRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private BookService bookService;
+
+    @Autowired
+    private HoldNotifier notifier;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${library.holds.pickup-window:PT48H}")
+    private Duration pickupWindow;
+
+    @Transactional
+    @Counted("library.holds.placed")
+    public HoldDTO placeHold(Long userId, Long bookId) {
+        User user = userRepository.findById(userId)
+                .orElseThrow(() -> new RuntimeException("User or book not found"));
+        Book book = bookRepository.findById(bookId)
+                .filter(Book::isActive)
+                .orElseThrow(() -> new RuntimeException("User or book not found"));
+        if (book.getAvailableCopies() > 0) {
+            throw new RuntimeException("Book is available, borrow it instead");
+        }
+        if (holdRepository.existsByUserIdAndBookIdAndStatusIn(userId, bookId, Hold.OPEN_STATUSES)) {
+            throw new RuntimeException("User already has a hold on this book");
+        }
+        if (borrowingRepository.existsByUserAndBookAndStatusIn(user, book, Borrowing.ACTIVE_STATUSES)) {
+            throw new RuntimeException("User has already borrowed this book");
+        }
+        Hold saved = holdRepository.save(new Hold(user, book));
+        HoldDTO dto = new HoldDTO(saved.getId(), userId, user.getUsername(), bookId, book.getTitle(),
+                saved.getStatus(), saved.getPriority(), saved.getCreatedAt(), null, null);
+        dto.setPosition(holdRepository.countAhead(bookId, saved.getPriority(), saved.getCreatedAt(), saved.getId()) + 1);
+        return dto;
+    }
+
+    /**
+     * Hands a copy that was just returned to the next holder. Must run inside the
+     * return's transaction; false means nobody is waiting and the copy goes back on
+     * the shelf as usual.
+     */
+    @Transactional
+    public boolean allocateReturnedCopy(Long bookId) {
+        LocalDateTime now = LocalDateTime.now();
+        for (Long holdId : holdRepository.findWaitingIds(bookId, PageRequest.of(0, ALLOCATION_CANDIDATES))) {
+            if (holdRepository.markReady(holdId, now, now.plus(pickupWindow)) == 1) {
+                notifyAfterCommit(HoldNotifier.HOLD_READY, holdId);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Batch form of allocateReturnedCopy, one entry per returned copy. Returns the
+     * copies nobody was waiting for, which still have to go back on the shelf.
+     */
+    @Transactional
+    public List<Long> allocateReturnedCopies(List<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return bookIds;
+        }
+        Set<Long> queued = new HashSet<>(holdRepository.findBookIdsWithWaitingHolds(new HashSet<>(bookIds)));
+        if (queued.isEmpty()) {
+            return bookIds;
+        }
+        List<Long> toShelf = new ArrayList<>(bookIds.size());
+        for (Long bookId : bookIds) {
+            if (!queued.contains(bookId) || !allocateReturnedCopy(bookId)) {
+                toShelf.add(bookId);
+            }
+        }
+        return toShelf;
+    }
+
+    // Turns the user's READY hold on the book into a borrowing; true if there was one, so the kept copy is used
+    @Transactional
+    public boolean fulfillReadyHold(Long userId, Long bookId) {
+        return holdRepository.fulfillReadyHold(userId, bookId) == 1;
+    }
+
+    /**
+     * Batch form of fulfillReadyHold for parallel lists of users and books. result[i]
+     * tells whether a kept copy was used for the i-th pair, which then takes no stock.
+     */
+    @Transactional
+    public boolean[] fulfillReadyHolds(List<Long> userIds, List<Long> bookIds) {
+        boolean[] fulfilled = new boolean[userIds.size()];
+        if (userIds.isEmpty()) {
+            return fulfilled;
+        }
+        Set<String> ready = new HashSet<>();
+        for (Object[] pair : holdRepository.findReadyUserBookPairs(new HashSet<>(userIds))) {
+            ready.add(pair[0] + ":" + pair[1]);
+        }
+        for (int i = 0; i < fulfilled.length; i++) {
+            fulfilled[i] = ready.contains(userIds.get(i) + ":" + bookIds.get(i))
+                    && fulfillReadyHold(userIds.get(i), bookIds.get(i));
+        }
+        return fulfilled;
+    }
+
+    @Transactional
+    @Counted("library.holds.cancelled")
+    public void cancelHold(Long holdId) {
+        Hold hold = holdRepository.findById(holdId)
+                .orElseThrow(() -> new RuntimeException("Hold not found"));
+        HoldStatus status = hold.getStatus();
+        if (status != HoldStatus.WAITING && status != HoldStatus.READY) {
+            throw new RuntimeException("Hold is no longer open");
+        }
+        if (holdRepository.transition(holdId, status, HoldStatus.CANCELLED) != 1) {
+            throw new RuntimeException("Hold was modified by another request");
+        }
+        if (status == HoldStatus.READY) {
+            releaseCopy(hold.getBook().getId());
+        }
+    }
+
+    /**
+     * Expires READY holds whose pickup window has closed and passes each kept copy
+     * on. Also serves queues that have a copy on the shelf, which happens when a hold
+     * is placed while the last copy is being returned. Each hold gets its own
+     * transaction so one failure does not hold up the rest.
+     */
+    @Scheduled(initialDelayString = "${library.holds.expiry-check-interval:PT1M}",
+               fixedDelayString = "${library.holds.expiry-check-interval:PT1M}")
+    public void expireHolds() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        int expired = 0;
+        for (Object[] row : holdRepository.findExpiredReadyHolds(LocalDateTime.now())) {
+            Long holdId = (Long) row[0];
+            Long bookId = (Long) row[1];
+            try {
+                Boolean done = transaction.execute(status -> {
+                    if (holdRepository.transition(holdId, HoldStatus.READY, HoldStatus.EXPIRED) != 1) {
+                        return false;
+                    }
+                    releaseCopy(bookId);
+                    notifyAfterCommit(HoldNotifier.HOLD_EXPIRED, holdId);
+                    return true;
+                });
+                if (Boolean.TRUE.equals(done)) {
+                    expired++;
+                }
+            } catch (RuntimeException e) {
+                log.warn("Could not expire hold {}", holdId, e);
+            }
+        }
+        for (Long bookId : holdRepository.findBookIdsWithWaitingHoldsAndCopies()) {
+            try {
+                transaction.executeWithoutResult(status -> {
+                    if (bookService.reserveCopy(bookId) && !allocateReturnedCopy(bookId)) {
+                        status.setRollbackOnly();
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.warn("Could not serve the hold queue of book {}", bookId, e);
+            }
+        }
+        if (expired > 0) {
+            log.info("Expired {} holds that were not picked up", expired);
+        }
+    }
+
+    // Opens a notification stream and replays holds that became READY while the client was away
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = notifier.subscribe(userId);
+        for (HoldDTO hold : holdRepository.findDTOsByUserIdAndStatusIn(userId, List.of(HoldStatus.READY))) {
+            notifier.send(HoldNotifier.HOLD_READY, hold);
+        }
+        return emitter;
+    }
+
+    public List<HoldDTO> getUserHolds(Long userId) {
+        return withPositions(holdRepository.findDTOsByUserIdAndStatusIn(userId, Hold.OPEN_STATUSES));
+    }
+
+    public List<HoldDTO> getBookQueue(Long bookId) {
+        List<HoldDTO> queue = holdRepository.findQueueDTOs(bookId);
+        long position = 0;
+        for (HoldDTO hold : queue) {
+            if (HoldStatus.WAITING.name().equals(hold.getStatus())) {
+                hold.setPosition(++position);
+            }
+        }
+        return queue;
+    }
+
+    public Optional<HoldDTO> getHoldDTOById(Long id) {
+        return holdRepository.findDTOById(id).map(hold -> withPositions(List.of(hold)).get(0));
+    }
+
+    private List<HoldDTO> withPositions(Collection<HoldDTO> holds) {
+        for (HoldDTO hold : holds) {
+            if (HoldStatus.WAITING.name().equals(hold.getStatus())) {
+                hold.setPosition(holdRepository.countAhead(hold.getBookId(), hold.getPriority(),
+                        hold.getCreatedAt(), hold.getId()) + 1);
+            }
+        }
+        return new ArrayList<>(holds);
+    }
+
+    // A kept copy that will not be picked up goes to the next holder, or back on the shelf
+    private void releaseCopy(Long bookId) {
+        if (!allocateReturnedCopy(bookId)) {
+            bookService.returnBook(bookId);
+        }
+    }
+
+    private void notifyAfterCommit(String event, Long holdId) {
+        TransactionHooks.afterCommit(() -> holdRepository.findDTOById(holdId)
+                .ifPresent(hold -> notifier.send(event, hold)));
+    }
+}
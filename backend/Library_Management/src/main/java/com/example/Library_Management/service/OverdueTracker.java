@@ -0,0 +1,218 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BorrowingDTO;
+import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import com.example.Library_Management.repository.BorrowingRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps every active borrowing in memory, ordered by due date, and marks it OVERDUE at
+ * the moment its due date passes. A single scheduler thread sleeps until the earliest
+ * due date instead of polling; the status changes it makes are written back in JDBC
+ * batches. The overdue set is held separately so listing it is O(k) in its size.
+ */
+@Component
+public class OverdueTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(OverdueTracker.class);
+
+    private static final int WRITE_BATCH_SIZE = 500;
+    private static final int LOAD_BATCH_SIZE = 1000;
+    private static final Duration WRITE_RETRY_DELAY = Duration.ofSeconds(30);
+
+    private static final String MARK_OVERDUE =
+            "UPDATE borrowings SET status = 'OVERDUE', updated_at = ?, version = version + 1 " +
+            "WHERE id = ? AND status = 'BORROWED'";
+
+    private record DueKey(LocalDateTime dueDate, long id) implements Comparable<DueKey> {
+        @Override
+        public int compareTo(DueKey other) {
+            int byDate = dueDate.compareTo(other.dueDate);
+            return byDate != 0 ? byDate : Long.compare(id, other.id);
+        }
+    }
+
+    @Autowired
+    private BorrowingRepository borrowingRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    // Not yet due, earliest first
+    private final ConcurrentSkipListMap<DueKey, BorrowingDTO> pending = new ConcurrentSkipListMap<>();
+    private final Map<Long, DueKey> pendingKeys = new ConcurrentHashMap<>();
+
+    // Past due and not returned, by borrowing id
+    private final ConcurrentSkipListMap<Long, BorrowingDTO> overdue = new ConcurrentSkipListMap<>();
+
+    // Transitions not yet written to the database
+    private final ConcurrentLinkedQueue<Long> unwritten = new ConcurrentLinkedQueue<>();
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "overdue-tracker");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Returns committed while load() is paging; a page read before the return must not re-track them
+    private Set<Long> untrackedDuringLoad;
+
+    private ScheduledFuture<?> wakeUp;
+    private LocalDateTime wakeUpAt;
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<BorrowingDTO> getOverdueBorrowings() {
+        return new ArrayList<>(overdue.values());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        synchronized (this) {
+            untrackedDuringLoad = new HashSet<>();
+        }
+        long lastId = 0L;
+        List<BorrowingDTO> batch;
+        do {
+            batch = borrowingRepository.findActiveDTOsAfter(lastId, PageRequest.of(0, LOAD_BATCH_SIZE));
+            trackLoaded(batch);
+            if (!batch.isEmpty()) {
+                lastId = batch.get(batch.size() - 1).getId();
+            }
+        } while (batch.size() == LOAD_BATCH_SIZE);
+        synchronized (this) {
+            untrackedDuringLoad = null;
+        }
+        ready = true;
+    }
+
+    private synchronized void trackLoaded(List<BorrowingDTO> batch) {
+        for (BorrowingDTO borrowing : batch) {
+            if (!untrackedDuringLoad.contains(borrowing.getId())) {
+                track(borrowing);
+            }
+        }
+    }
+
+    /** Starts tracking a committed, not yet returned borrowing. */
+    public synchronized void track(BorrowingDTO borrowing) {
+        if (borrowing.getDueDate() == null) {
+            return;
+        }
+        if (BorrowStatus.OVERDUE.name().equals(borrowing.getStatus())) {
+            overdue.put(borrowing.getId(), borrowing);
+            return;
+        }
+        DueKey key = new DueKey(borrowing.getDueDate(), borrowing.getId());
+        DueKey previous = pendingKeys.put(borrowing.getId(), key);
+        if (previous != null) {
+            pending.remove(previous);
+        }
+        pending.put(key, borrowing);
+        if (wakeUpAt == null || key.dueDate().isBefore(wakeUpAt)) {
+            scheduleWakeUp(key.dueDate());
+        }
+    }
+
+    /** Stops tracking a borrowing once its return has committed. */
+    public synchronized void untrack(Long borrowingId) {
+        DueKey key = pendingKeys.remove(borrowingId);
+        if (key != null) {
+            pending.remove(key);
+        }
+        overdue.remove(borrowingId);
+        if (untrackedDuringLoad != null) {
+            untrackedDuringLoad.add(borrowingId);
+        }
+    }
+
+    private void scheduleWakeUp(LocalDateTime at) {
+        if (wakeUp != null) {
+            wakeUp.cancel(false);
+        }
+        long delayMillis = Math.max(0, Duration.between(LocalDateTime.now(), at).toMillis());
+        wakeUpAt = at;
+        wakeUp = scheduler.schedule(this::fire, delayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void fire() {
+        synchronized (this) {
+            wakeUp = null;
+            wakeUpAt = null;
+            LocalDateTime now = LocalDateTime.now();
+            Map<DueKey, BorrowingDTO> due = pending.headMap(new DueKey(now, Long.MAX_VALUE), true);
+            for (Map.Entry<DueKey, BorrowingDTO> entry : new ArrayList<>(due.entrySet())) {
+                BorrowingDTO b = entry.getValue();
+                pending.remove(entry.getKey());
+                pendingKeys.remove(b.getId());
+                overdue.put(b.getId(), new BorrowingDTO(b.getId(), b.getUserId(), b.getUsername(), b.getBookId(),
+                        b.getBookTitle(), BorrowStatus.OVERDUE, b.getBorrowDate(), b.getDueDate(), b.getReturnDate()));
+                unwritten.add(b.getId());
+            }
+            if (!pending.isEmpty()) {
+                scheduleWakeUp(pending.firstKey().dueDate());
+            }
+        }
+        writeTransitions();
+    }
+
+    private void writeTransitions() {
+        List<Long> ids = new ArrayList<>();
+        Long id;
+        while ((id = unwritten.poll()) != null) {
+            ids.add(id);
+        }
+        if (ids.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        try {
+            new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                    jdbcTemplate.batchUpdate(MARK_OVERDUE, ids, WRITE_BATCH_SIZE, (ps, borrowingId) -> {
+                        ps.setTimestamp(1, now);
+                        ps.setLong(2, borrowingId);
+                    }));
+        } catch (RuntimeException e) {
+            log.warn("Failed to persist {} overdue transitions, retrying in {}", ids.size(), WRITE_RETRY_DELAY, e);
+            unwritten.addAll(ids);
+            scheduler.schedule(this::writeTransitions, WRITE_RETRY_DELAY.toMillis(), TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+}
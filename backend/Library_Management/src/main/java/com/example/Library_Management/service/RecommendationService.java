@@ -0,0 +1,274 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BookRecommendation;
+import com.example.Library_Management.dto.BookSummary;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import io.micrometer.core.annotation.Timed;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * "Readers who borrowed this also borrowed": item-item recommendations from the
+ * borrowing history. The model is updated incrementally after every committed borrow.
+ * At startup and on a schedule it is rebuilt from the borrowings table: each
+ * reader's distinct books are split across a fork-join pool, every task counts the
+ * pairs of its readers into a private model, and the partial models are merged.
+ * Borrows committed during a rebuild are replayed onto the new model before it is
+ * swapped in. Replays are harmless, because a reader's second borrow of a book counts nothing.
+ */
+@Service
+@Timed(value = "library.service", histogram = true)
+public class RecommendationService {
+
+    private static final Logger log = LoggerFactory.getLogger(RecommendationService.class);
+
+    // Readers per fork-join leaf; each leaf allocates its own partial model
+    private static final int READERS_PER_TASK = 2048;
+
+    private static final String HISTORY_QUERY =
+            "SELECT user_id, book_id FROM borrowings ORDER BY user_id, borrow_date, id";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BookRepository bookRepository;
+
+    @Value("${library.recommendations.max-history:200}")
+    private int maxHistory;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private CoBorrowModel model;
+
+    // The model is indexed by these rather than by the ids, which may be sparse or out of int range
+    private DenseIds userIndexes = new DenseIds();
+    private DenseIds bookIndexes = new DenseIds();
+
+    // Borrows seen while a rebuild is running, as {userId, bookId}
+    private List<long[]> duringRebuild;
+
+    private volatile boolean ready;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /** Counts a committed borrow; called by the borrowing services after commit. */
+    public void recordBorrow(Long userId, Long bookId) {
+        lock.writeLock().lock();
+        try {
+            if (model != null) {
+                model.record(userIndexes.add(userId), bookIndexes.add(bookId));
+            }
+            if (duringRebuild != null) {
+                duringRebuild.add(new long[]{userId, bookId});
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public List<BookRecommendation> getRelatedBooks(Long bookId, int limit) {
+        List<Ranked> scored;
+        lock.readLock().lock();
+        try {
+            int book = bookIndexes.indexOf(bookId);
+            // Ask for extra in case some of the top books have since left the catalog
+            scored = model == null || book == 0 ? List.of() : ranked(model.related(book, limit * 2));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hydrate(scored, limit);
+    }
+
+    public List<BookRecommendation> getRecommendationsForUser(Long userId, int limit) {
+        List<Ranked> scored;
+        lock.readLock().lock();
+        try {
+            int user = userIndexes.indexOf(userId);
+            scored = model == null || user == 0 ? List.of() : ranked(model.recommend(user, limit * 2));
+        } finally {
+            lock.readLock().unlock();
+        }
+        return hydrate(scored, limit);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void load() {
+        rebuild();
+    }
+
+    @Scheduled(cron = "${library.recommendations.rebuild-cron:0 30 3 * * *}")
+    public void scheduledRebuild() {
+        rebuild();
+    }
+
+    /** Recomputes the whole model from the borrowings table and swaps it in. */
+    public void rebuild() {
+        lock.writeLock().lock();
+        try {
+            duringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        long start = System.nanoTime();
+        DenseIds users = new DenseIds();
+        DenseIds books = new DenseIds();
+        CoBorrowModel rebuilt;
+        int readers;
+        try {
+            List<int[]> histories = loadHistories(users, books);
+            readers = histories.size();
+            rebuilt = build(histories, maxHistory);
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                duringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        lock.writeLock().lock();
+        try {
+            for (long[] borrow : duringRebuild) {
+                rebuilt.record(users.add(borrow[0]), books.add(borrow[1]));
+            }
+            duringRebuild = null;
+            model = rebuilt;
+            userIndexes = users;
+            bookIndexes = books;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("Rebuilt recommendations from {} readers in {} ms", readers, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // One array per reader: the user's index followed by their books' indexes in borrow order
+    private List<int[]> loadHistories(DenseIds users, DenseIds books) {
+        List<int[]> histories = new ArrayList<>();
+        int[][] current = {null};
+        int[] size = {0};
+        jdbcTemplate.query(HISTORY_QUERY, (RowCallbackHandler) rs -> {
+            int user = users.add(rs.getLong(1));
+            int book = books.add(rs.getLong(2));
+            if (current[0] == null || current[0][0] != user) {
+                if (current[0] != null) {
+                    histories.add(Arrays.copyOf(current[0], size[0]));
+                }
+                current[0] = new int[8];
+                current[0][0] = user;
+                size[0] = 1;
+            }
+            if (size[0] == current[0].length) {
+                current[0] = Arrays.copyOf(current[0], size[0] * 2);
+            }
+            current[0][size[0]++] = book;
+        });
+        if (current[0] != null) {
+            histories.add(Arrays.copyOf(current[0], size[0]));
+        }
+        return histories;
+    }
+
+    // Each history is the user's index followed by their books' indexes in borrow order
+    static CoBorrowModel build(List<int[]> histories, int maxHistory) {
+        return ForkJoinPool.commonPool().invoke(new BuildTask(histories, 0, histories.size(), maxHistory));
+    }
+
+    private static final class BuildTask extends RecursiveTask<CoBorrowModel> {
+
+        private final List<int[]> histories;
+        private final int from;
+        private final int to;
+        private final int maxHistory;
+
+        BuildTask(List<int[]> histories, int from, int to, int maxHistory) {
+            this.histories = histories;
+            this.from = from;
+            this.to = to;
+            this.maxHistory = maxHistory;
+        }
+
+        @Override
+        protected CoBorrowModel compute() {
+            if (to - from <= READERS_PER_TASK) {
+                CoBorrowModel partial = new CoBorrowModel(maxHistory);
+                for (int i = from; i < to; i++) {
+                    int[] history = histories.get(i);
+                    for (int j = 1; j < history.length; j++) {
+                        partial.record(history[0], history[j]);
+                    }
+                }
+                return partial;
+            }
+            int middle = (from + to) >>> 1;
+            BuildTask left = new BuildTask(histories, from, middle, maxHistory);
+            left.fork();
+            CoBorrowModel right = new BuildTask(histories, middle, to, maxHistory).compute();
+            CoBorrowModel merged = left.join();
+            merged.merge(right);
+            return merged;
+        }
+    }
+
+    private record Ranked(long bookId, double score) {}
+
+    // Turns the model's book indexes back into ids; called under the lock, as rebuilds swap the indexes
+    private List<Ranked> ranked(List<CoBorrowModel.Scored> scored) {
+        List<Ranked> ranked = new ArrayList<>(scored.size());
+        for (CoBorrowModel.Scored s : scored) {
+            ranked.add(new Ranked(bookIndexes.idAt(s.bookId()), s.score()));
+        }
+        return ranked;
+    }
+
+    // Loads the scored books, drops any no longer in the catalog and keeps the score order
+    private List<BookRecommendation> hydrate(List<Ranked> scored, int limit) {
+        if (scored.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = new ArrayList<>(scored.size());
+        for (Ranked s : scored) {
+            ids.add(s.bookId());
+        }
+        Map<Long, Book> books = new HashMap<>();
+        for (Book book : bookRepository.findAllById(ids)) {
+            books.put(book.getId(), book);
+        }
+        List<BookRecommendation> result = new ArrayList<>(limit);
+        for (Ranked s : scored) {
+            Book book = books.get(s.bookId());
+            if (book != null && book.isActive()) {
+                result.add(new BookRecommendation(BookSummary.from(book), s.score()));
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+}
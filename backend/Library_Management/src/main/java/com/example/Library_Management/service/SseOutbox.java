@@ -0,0 +1,123 @@
+package com.example.Library_Management.service;
+
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Bounded queue of events for one server-sent event client, drained by a shared
+ * writer pool. Producers only enqueue, so request and scheduler threads never block
+ * on a socket. At most one writer drains an outbox at a time, so events go out in
+ * order. A client that falls capacity events behind is dropped rather than given
+ * more memory or threads; a writer stuck in a send to a stalled client completes
+ * the stream itself once the send returns, so dropping never pins a second thread.
+ */
+final class SseOutbox {
+
+    private final SseEmitter emitter;
+    private final BlockingQueue<Set<ResponseBodyEmitter.DataWithMediaType>> events;
+    private final Executor writers;
+    private final Consumer<SseOutbox> onClose;
+    // Held by whoever may touch the emitter: a draining writer, or close() on an idle outbox
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private volatile boolean closed;
+
+    SseOutbox(SseEmitter emitter, int capacity, Executor writers, Consumer<SseOutbox> onClose) {
+        this.emitter = emitter;
+        this.events = new ArrayBlockingQueue<>(capacity);
+        this.writers = writers;
+        this.onClose = onClose;
+        emitter.onCompletion(this::stop);
+        emitter.onTimeout(this::stop);
+        emitter.onError(e -> stop());
+    }
+
+    /** Daemon threads, since a stalled client must not keep the JVM alive. */
+    static ExecutorService writerPool(String name, int threads) {
+        AtomicInteger count = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, r -> {
+            Thread thread = new Thread(r, name + "-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    SseEmitter emitter() {
+        return emitter;
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    /** Queues an event; returns false when it overflowed the outbox and the client was dropped. */
+    boolean offer(Set<ResponseBodyEmitter.DataWithMediaType> event) {
+        if (closed) {
+            return true;
+        }
+        if (!events.offer(event)) {
+            close();
+            return false;
+        }
+        if (writing.compareAndSet(false, true)) {
+            writers.execute(this::drain);
+        }
+        return true;
+    }
+
+    /** Stops sending and ends the stream. */
+    void close() {
+        stop();
+        // An idle outbox is completed here; a writer mid-send completes it when the send returns
+        if (writing.compareAndSet(false, true)) {
+            complete();
+        }
+    }
+
+    private void drain() {
+        while (true) {
+            Set<ResponseBodyEmitter.DataWithMediaType> event;
+            while (!closed && (event = events.poll()) != null) {
+                try {
+                    emitter.send(event);
+                } catch (IOException | IllegalStateException e) {
+                    stop();
+                }
+            }
+            if (closed) {
+                // writing stays set, so nothing drains a closed outbox again
+                complete();
+                return;
+            }
+            writing.set(false);
+            // An event offered after the last poll but before the flag cleared is picked up here
+            if (events.isEmpty() || !writing.compareAndSet(false, true)) {
+                return;
+            }
+        }
+    }
+
+    private void stop() {
+        closed = true;
+        events.clear();
+        onClose.accept(this);
+    }
+
+    private void complete() {
+        try {
+            emitter.complete();
+        } catch (RuntimeException e) {
+            // Already completed by the container
+        }
+    }
+}
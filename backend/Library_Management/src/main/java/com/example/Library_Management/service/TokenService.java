@@ -0,0 +1,179 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.entity.User;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Issues and verifies self-contained access tokens in JWT form (HS256), carrying the
+ * user id, username, role and expiry, so a request is authenticated without touching
+ * the database. Tokens can be revoked individually (logout) or for a whole user (role
+ * change, deletion); revocations are kept in memory only until the affected tokens
+ * would have expired anyway.
+ */
+@Service
+public class TokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenService.class);
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final Base64.Encoder BASE64 = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder BASE64_DECODER = Base64.getUrlDecoder();
+    private static final String HEADER = BASE64.encodeToString(
+            "{\"alg\":\"HS256\",\"typ\":\"JWT\"}".getBytes(StandardCharsets.UTF_8));
+
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final ThreadLocal<Mac> macs;
+
+    // Revoked token ids, each kept until its token expires
+    private final Cache<String, Long> revokedTokens;
+
+    // Tokens of these users issued before the stored epoch second are no longer accepted
+    private final Cache<Long, Long> revokedBefore;
+
+    public TokenService(ObjectMapper objectMapper,
+                        @Value("${library.auth.secret:}") String secret,
+                        @Value("${library.auth.token-ttl:PT8H}") Duration ttl) {
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+
+        byte[] key;
+        if (secret.isBlank()) {
+            key = new byte[32];
+            new SecureRandom().nextBytes(key);
+            log.warn("library.auth.secret is not set; using a random key, so tokens will not survive a restart");
+        } else {
+            key = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        SecretKeySpec keySpec = new SecretKeySpec(key, ALGORITHM);
+        this.macs = ThreadLocal.withInitial(() -> {
+            try {
+                Mac mac = Mac.getInstance(ALGORITHM);
+                mac.init(keySpec);
+                return mac;
+            } catch (GeneralSecurityException e) {
+                throw new IllegalStateException("HMAC-SHA256 is not available", e);
+            }
+        });
+
+        this.revokedTokens = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfter(new Expiry<String, Long>() {
+                    @Override
+                    public long expireAfterCreate(String tokenId, Long expiresAt, long currentTime) {
+                        long remaining = expiresAt - Instant.now().getEpochSecond();
+                        return TimeUnit.SECONDS.toNanos(Math.max(remaining, 1));
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String tokenId, Long expiresAt, long currentTime, long currentDuration) {
+                        return expireAfterCreate(tokenId, expiresAt, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String tokenId, Long expiresAt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+        this.revokedBefore = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    public Duration getTtl() {
+        return ttl;
+    }
+
+    public String issue(User user) {
+        long now = Instant.now().getEpochSecond();
+        Map<String, Object> claims = new LinkedHashMap<>();
+        claims.put("sub", user.getId().toString());
+        claims.put("name", user.getUsername());
+        claims.put("role", user.getRole().name());
+        claims.put("iat", now);
+        claims.put("exp", now + ttl.getSeconds());
+        claims.put("jti", UUID.randomUUID().toString());
+        try {
+            String payload = BASE64.encodeToString(objectMapper.writeValueAsBytes(claims));
+            String signingInput = HEADER + "." + payload;
+            return signingInput + "." + BASE64.encodeToString(sign(signingInput));
+        } catch (Exception e) {
+            throw new IllegalStateException("Could not issue token", e);
+        }
+    }
+
+    /** Returns the token's identity if its signature is valid and it is neither expired nor revoked. */
+    public Optional<AuthenticatedUser> verify(String token) {
+        if (token == null) {
+            return Optional.empty();
+        }
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || !token.startsWith(HEADER + ".")) {
+            return Optional.empty();
+        }
+        try {
+            byte[] expected = sign(token.substring(0, lastDot));
+            byte[] actual = BASE64_DECODER.decode(token.substring(lastDot + 1));
+            if (!MessageDigest.isEqual(expected, actual)) {
+                return Optional.empty();
+            }
+            JsonNode claims = objectMapper.readTree(BASE64_DECODER.decode(token.substring(firstDot + 1, lastDot)));
+            long now = Instant.now().getEpochSecond();
+            long expiresAt = claims.path("exp").asLong();
+            if (expiresAt <= now) {
+                return Optional.empty();
+            }
+            String tokenId = claims.path("jti").asText();
+            Long userId = Long.valueOf(claims.path("sub").asText());
+            Long notBefore = revokedBefore.getIfPresent(userId);
+            if (revokedTokens.getIfPresent(tokenId) != null
+                    || (notBefore != null && claims.path("iat").asLong() < notBefore)) {
+                return Optional.empty();
+            }
+            return Optional.of(new AuthenticatedUser(userId, claims.path("name").asText(),
+                    User.Role.valueOf(claims.path("role").asText()), tokenId, expiresAt));
+        } catch (Exception e) {
+            // Malformed base64, JSON or claims
+            return Optional.empty();
+        }
+    }
+
+    public void revoke(AuthenticatedUser user) {
+        revokedTokens.put(user.getTokenId(), user.getExpiresAt());
+    }
+
+    // Tokens issued in the current second are revoked too
+    public void revokeAllFor(Long userId) {
+        revokedBefore.put(userId, Instant.now().getEpochSecond() + 1);
+    }
+
+    private byte[] sign(String signingInput) {
+        return macs.get().doFinal(signingInput.getBytes(StandardCharsets.US_ASCII));
+    }
+}
@@ -1,23 +1,57 @@
 package com.example.Library_Management.service;
 
+import com.example.Library_Management.config.CacheConfig;
 import com.example.Library_Management.entity.User;
 import com.example.Library_Management.repository.UserRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
+@Timed(value = "library.service", histogram = true)
 public class UserService {
     
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private TokenService tokenService;
+    
+    @Autowired
+    private PasswordService passwordService;
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#user.username")
     public User createUser(User user) {
+        user.setPassword(passwordService.hash(user.getPassword()));
         return userRepository.save(user);
     }
     
+    // Stores a new hash for a user who just authenticated, e.g. to migrate a plaintext row
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#user.username")
+    })
+    @Transactional
+    public void updatePassword(User user, String encodedPassword) {
+        userRepository.updatePassword(user.getId(), encodedPassword);
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.USERS_BY_USERNAME, key = "#username", condition = "#username != null", sync = true)
     public Optional<User> findByUsername(String username) {
         return userRepository.findByUsername(username);
     }
@@ -38,15 +72,61 @@ public class UserService {
         return userRepository.findAll();
     }
     
+    public List<User> getUsersPage(Long after, int limit) {
+        return userRepository.findByIdGreaterThanOrderByIdAsc(after, PageRequest.of(0, limit));
+    }
+    
+    @Transactional(readOnly = true)
+    public void streamUsers(Consumer<User> consumer) {
+        try (Stream<User> users = userRepository.streamAll()) {
+            users.forEach(user -> {
+                consumer.accept(user);
+                entityManager.detach(user);
+            });
+        }
+    }
+    
+    @Cacheable(cacheNames = CacheConfig.USERS, key = "#id", sync = true)
     public Optional<User> getUserById(Long id) {
         return userRepository.findById(id);
     }
     
+    public boolean existsById(Long id) {
+        return userRepository.existsById(id);
+    }
+    
+    // The username may have changed, so the by-username cache is cleared wholesale
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#user.id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
     public User updateUser(User user) {
-        return userRepository.save(user);
+        Optional<User> existing = userRepository.findById(user.getId());
+
+        // A missing password, or the stored hash sent back unchanged, keeps the current one
+        String password = user.getPassword();
+        if (password == null || password.isBlank()
+                || existing.map(e -> password.equals(e.getPassword())).orElse(false)) {
+            user.setPassword(existing.map(User::getPassword).orElse(password));
+        } else {
+            user.setPassword(passwordService.hash(password));
+        }
+
+        // Outstanding tokens carry the old role, so they must not outlive a role change
+        User.Role previousRole = existing.map(User::getRole).orElse(null);
+        User saved = userRepository.save(user);
+        if (previousRole != null && previousRole != saved.getRole()) {
+            tokenService.revokeAllFor(saved.getId());
+        }
+        return saved;
     }
     
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.USERS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.USERS_BY_USERNAME, allEntries = true)
+    })
     public void deleteUser(Long id) {
         userRepository.deleteById(id);
+        tokenService.revokeAllFor(id);
     }
 }
@@ -0,0 +1,35 @@
+package db.migration;
+
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Rows written before optimistic locking, or by a ddl-auto schema baselined at V1, have
+ * a NULL version. A guarded UPDATE never matches them and version + 1 leaves them NULL,
+ * so they start at 0 and the columns become NOT NULL DEFAULT 0. This is a Java migration
+ * because MySQL and H2 share no syntax for changing a column's nullability.
+ */
+public class V4__Backfill_row_versions extends BaseJavaMigration {
+
+    private static final String[] TABLES = {"books", "borrowings"};
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        boolean mysql = connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql");
+        try (Statement statement = connection.createStatement()) {
+            for (String table : TABLES) {
+                statement.executeUpdate("UPDATE " + table + " SET version = 0 WHERE version IS NULL");
+                if (mysql) {
+                    statement.execute("ALTER TABLE " + table + " MODIFY COLUMN version BIGINT NOT NULL DEFAULT 0");
+                } else {
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN version SET DEFAULT 0");
+                    statement.execute("ALTER TABLE " + table + " ALTER COLUMN version SET NOT NULL");
+                }
+            }
+        }
+    }
+}
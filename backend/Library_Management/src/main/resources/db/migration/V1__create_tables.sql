@@ -0,0 +1,51 @@
+-- Baseline schema, equivalent to what Hibernate ddl-auto generated for the entities.
+-- Written in the subset of SQL shared by H2 and MySQL.
+
+CREATE TABLE users (
+    id          BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username    VARCHAR(50)  NOT NULL,
+    password    VARCHAR(255) NOT NULL,
+    email       VARCHAR(255) NOT NULL,
+    first_name  VARCHAR(50)  NOT NULL,
+    last_name   VARCHAR(50)  NOT NULL,
+    role        VARCHAR(20),
+    is_active   BOOLEAN      NOT NULL,
+    created_at  DATETIME(6),
+    updated_at  DATETIME(6),
+    CONSTRAINT uk_users_username UNIQUE (username),
+    CONSTRAINT uk_users_email UNIQUE (email)
+);
+
+CREATE TABLE books (
+    id                BIGINT AUTO_INCREMENT PRIMARY KEY,
+    title             VARCHAR(200) NOT NULL,
+    author            VARCHAR(100) NOT NULL,
+    isbn              VARCHAR(255),
+    category          VARCHAR(50),
+    published_year    INT,
+    description       TEXT,
+    cover_image_url   VARCHAR(255),
+    total_copies      INT          NOT NULL,
+    available_copies  INT          NOT NULL,
+    rating            DOUBLE,
+    is_active         BOOLEAN      NOT NULL,
+    version           BIGINT,
+    created_at        DATETIME(6),
+    updated_at        DATETIME(6),
+    CONSTRAINT uk_books_isbn UNIQUE (isbn)
+);
+
+CREATE TABLE borrowings (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id      BIGINT      NOT NULL,
+    book_id      BIGINT      NOT NULL,
+    borrow_date  DATETIME(6),
+    due_date     DATETIME(6),
+    return_date  DATETIME(6),
+    status       VARCHAR(20),
+    version      BIGINT,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    CONSTRAINT fk_borrowings_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_borrowings_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
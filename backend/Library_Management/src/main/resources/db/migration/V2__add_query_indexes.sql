@@ -0,0 +1,14 @@
+-- Composite indexes for the predicates the repositories filter on.
+
+-- countActiveBorrowingsByUser, findByUserAndStatus, findActiveUserBookPairs (user_id, status)
+-- and existsByUserAndBookAndStatus (user_id, book_id, status) all resolve on this one index.
+CREATE INDEX idx_borrowings_user_status_book ON borrowings (user_id, status, book_id);
+
+-- findOverdueBorrowings / findOverdueDTOs: status = 'BORROWED' AND due_date < ?
+CREATE INDEX idx_borrowings_status_due_date ON borrowings (status, due_date);
+
+-- findDTOsByUserId: WHERE user_id = ? ORDER BY borrow_date DESC
+CREATE INDEX idx_borrowings_user_borrow_date ON borrowings (user_id, borrow_date);
+
+-- findAvailableBooks / findAvailableBooksAfter: is_active = TRUE AND available_copies > 0
+CREATE INDEX idx_books_active_available ON books (is_active, available_copies);
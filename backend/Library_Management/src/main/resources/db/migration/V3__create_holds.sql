@@ -0,0 +1,25 @@
+-- Hold queue for books with no copy on the shelf. A returned copy goes to the first
+-- WAITING hold by (priority, created_at, id) and is kept for its holder until expires_at.
+CREATE TABLE holds (
+    id           BIGINT AUTO_INCREMENT PRIMARY KEY,
+    user_id      BIGINT      NOT NULL,
+    book_id      BIGINT      NOT NULL,
+    status       VARCHAR(20) NOT NULL,
+    priority     INT         NOT NULL,
+    ready_at     DATETIME(6),
+    expires_at   DATETIME(6),
+    version      BIGINT,
+    created_at   DATETIME(6),
+    updated_at   DATETIME(6),
+    CONSTRAINT fk_holds_user FOREIGN KEY (user_id) REFERENCES users (id),
+    CONSTRAINT fk_holds_book FOREIGN KEY (book_id) REFERENCES books (id)
+);
+
+-- Next in line for a book: WHERE book_id = ? AND status = 'WAITING' ORDER BY priority, created_at, id
+CREATE INDEX idx_holds_book_status_queue ON holds (book_id, status, priority, created_at, id);
+
+-- A user's open holds, and the duplicate check when placing one
+CREATE INDEX idx_holds_user_status_book ON holds (user_id, status, book_id);
+
+-- Expiry sweep: status = 'READY' AND expires_at < ?
+CREATE INDEX idx_holds_status_expires ON holds (status, expires_at);
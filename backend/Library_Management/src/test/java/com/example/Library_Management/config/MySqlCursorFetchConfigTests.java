@@ -0,0 +1,47 @@
+package com.example.Library_Management.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class MySqlCursorFetchConfigTests {
+
+	@Test
+	void mySqlPoolsFetchThroughACursor() {
+		HikariDataSource hikari = pool("jdbc:mysql://localhost:3306/library");
+
+		MySqlCursorFetchConfig.enableCursorFetch(hikari);
+
+		assertEquals("true", hikari.getDataSourceProperties().getProperty(MySqlCursorFetchConfig.USE_CURSOR_FETCH));
+	}
+
+	@Test
+	void anExplicitSettingIsKept() {
+		HikariDataSource inUrl = pool("jdbc:mysql://localhost:3306/library?useCursorFetch=false");
+		HikariDataSource inProperties = pool("jdbc:mysql://localhost:3306/library");
+		inProperties.addDataSourceProperty(MySqlCursorFetchConfig.USE_CURSOR_FETCH, "false");
+
+		MySqlCursorFetchConfig.enableCursorFetch(inUrl);
+		MySqlCursorFetchConfig.enableCursorFetch(inProperties);
+
+		assertFalse(inUrl.getDataSourceProperties().containsKey(MySqlCursorFetchConfig.USE_CURSOR_FETCH));
+		assertEquals("false", inProperties.getDataSourceProperties().getProperty(MySqlCursorFetchConfig.USE_CURSOR_FETCH));
+	}
+
+	@Test
+	void otherDatabasesAreLeftAlone() {
+		HikariDataSource hikari = pool("jdbc:h2:mem:library");
+
+		MySqlCursorFetchConfig.enableCursorFetch(hikari);
+
+		assertFalse(hikari.getDataSourceProperties().containsKey(MySqlCursorFetchConfig.USE_CURSOR_FETCH));
+	}
+
+	private static HikariDataSource pool(String url) {
+		HikariDataSource hikari = new HikariDataSource();
+		hikari.setJdbcUrl(url);
+		return hikari;
+	}
+}
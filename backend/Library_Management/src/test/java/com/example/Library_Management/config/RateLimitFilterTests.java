@@ -0,0 +1,84 @@
+package com.example.Library_Management.config;
+
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.entity.User;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimitFilterTests {
+
+	private static final int PASSED = 200;
+
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final RateLimitFilter filter = new RateLimitFilter(
+			new TokenBucketLimiter("auth", 2, Duration.ofMinutes(1), 100),
+			new TokenBucketLimiter("circulation", 10, Duration.ofMinutes(1), 100),
+			meterRegistry);
+
+	@Test
+	void loginIsThrottledPerAddressWithRetryAfter() throws Exception {
+		assertEquals(PASSED, send(request("POST", "/auth/login", "10.0.0.1")).getStatus());
+		assertEquals(PASSED, send(request("POST", "/auth/login", "10.0.0.1")).getStatus());
+
+		MockHttpServletResponse throttled = send(request("POST", "/auth/login", "10.0.0.1"));
+
+		assertEquals(429, throttled.getStatus());
+		// One token every 30 seconds
+		assertEquals("30", throttled.getHeader(HttpHeaders.RETRY_AFTER));
+		assertEquals(PASSED, send(request("POST", "/auth/login", "10.0.0.2")).getStatus());
+		assertEquals(1.0, meterRegistry.get("library.ratelimit.rejected").tag("policy", "auth").counter().count());
+	}
+
+	@Test
+	void readsAreNeverThrottled() throws Exception {
+		for (int i = 0; i < 20; i++) {
+			assertEquals(PASSED, send(request("GET", "/borrowings/user/7", "10.0.0.1")).getStatus());
+			assertEquals(PASSED, send(request("GET", "/books", "10.0.0.1")).getStatus());
+		}
+	}
+
+	@Test
+	void batchesPayPerItemUpToTheBucketCapacity() throws Exception {
+		MockHttpServletRequest batch = request("POST", "/borrowings/borrow/batch", "10.0.0.1");
+		batch.setAttribute(TokenAuthenticationFilter.AUTHENTICATED_USER, 
+				new AuthenticatedUser(7L, "kiosk", User.Role.LIBRARIAN, "token-1", Long.MAX_VALUE));
+		assertEquals(PASSED, send(batch).getStatus());
+
+		// The filter took one token; four more for a five-item batch leaves five
+		assertEquals(0, RateLimitFilter.chargeRemaining(batch, 5));
+		assertTrue(RateLimitFilter.chargeRemaining(batch, 7) > 0);
+		assertEquals(0, RateLimitFilter.chargeRemaining(batch, 6));
+
+		// A batch larger than the bucket is charged the whole bucket, not refused forever
+		MockHttpServletRequest large = request("POST", "/borrowings/borrow/batch", "10.0.0.2");
+		assertEquals(PASSED, send(large).getStatus());
+		assertEquals(0, RateLimitFilter.chargeRemaining(large, 100));
+		assertEquals(429, send(request("POST", "/borrowings/borrow", "10.0.0.2")).getStatus());
+	}
+
+	@Test
+	void nothingIsChargedWhenTheFilterDidNotRun() {
+		assertEquals(0, RateLimitFilter.chargeRemaining(new MockHttpServletRequest(), 100));
+	}
+
+	private MockHttpServletResponse send(MockHttpServletRequest request) throws Exception {
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response;
+	}
+
+	private static MockHttpServletRequest request(String method, String path, String address) {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		request.setRemoteAddr(address);
+		return request;
+	}
+}
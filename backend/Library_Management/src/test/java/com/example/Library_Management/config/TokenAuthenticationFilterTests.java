@@ -0,0 +1,112 @@
+package com.example.Library_Management.config;
+
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.service.TokenService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class TokenAuthenticationFilterTests {
+
+	private static final int PASSED = 200;
+
+	private final TokenService tokenService = new TokenService(new ObjectMapper(),
+			"0123456789abcdef0123456789abcdef", Duration.ofHours(1));
+	private final TokenAuthenticationFilter filter = new TokenAuthenticationFilter(tokenService);
+
+	private final String student = token(7L, User.Role.STUDENT);
+	private final String librarian = token(8L, User.Role.LIBRARIAN);
+	private final String admin = token(9L, User.Role.ADMIN);
+
+	@Test
+	void catalogReadsAreOpen() throws Exception {
+		assertEquals(PASSED, status("GET", "/books", null));
+		assertEquals(PASSED, status("GET", "/books/1", null));
+		assertEquals(PASSED, status("GET", "/books/search", student));
+	}
+
+	@Test
+	void catalogWritesNeedStaff() throws Exception {
+		assertEquals(401, status("POST", "/books", null));
+		assertEquals(401, status("POST", "/books", "garbage"));
+		assertEquals(403, status("POST", "/books", student));
+		assertEquals(403, status("PUT", "/books/1", student));
+		assertEquals(403, status("DELETE", "/books/1", student));
+		assertEquals(PASSED, status("POST", "/books", librarian));
+		assertEquals(PASSED, status("DELETE", "/books/1", admin));
+	}
+
+	@Test
+	void usersNeedATokenAndStaffForOtherRecords() throws Exception {
+		assertEquals(401, status("GET", "/users", null));
+		assertEquals(401, status("GET", "/users/7", null));
+		assertEquals(403, status("GET", "/users", student));
+		assertEquals(403, status("GET", "/users/8", student));
+		assertEquals(403, status("DELETE", "/users/7", student));
+		assertEquals(PASSED, status("GET", "/users/7", student));
+		assertEquals(PASSED, status("PUT", "/users/7", student));
+		assertEquals(PASSED, status("GET", "/users/7/recommendations", student));
+		assertEquals(PASSED, status("GET", "/users", librarian));
+		assertEquals(PASSED, status("DELETE", "/users/7", admin));
+	}
+
+	@Test
+	void holdWritesNeedAToken() throws Exception {
+		assertEquals(401, status("POST", "/holds", null));
+		assertEquals(401, status("DELETE", "/holds/1", null));
+		assertEquals(PASSED, status("POST", "/holds", student));
+		assertEquals(PASSED, status("DELETE", "/holds/1", student));
+		assertEquals(PASSED, status("GET", "/holds/book/1", null));
+	}
+
+	@Test
+	void preflightRequestsAreNotChecked() throws Exception {
+		assertEquals(PASSED, status("OPTIONS", "/books", null));
+		assertEquals(PASSED, status("OPTIONS", "/users", null));
+	}
+
+	@Test
+	void queryTokenIsAcceptedOnlyForEventStreams() throws Exception {
+		MockHttpServletRequest stream = new MockHttpServletRequest("GET", "/holds/notifications");
+		stream.addHeader(HttpHeaders.ACCEPT, MediaType.TEXT_EVENT_STREAM_VALUE);
+		stream.setParameter("access_token", student);
+		filter.doFilter(stream, new MockHttpServletResponse(), new MockFilterChain());
+		AuthenticatedUser user = TokenAuthenticationFilter.currentUser(stream);
+		assertNotNull(user);
+		assertEquals(7L, user.getUserId());
+
+		MockHttpServletRequest plain = new MockHttpServletRequest("GET", "/users/7");
+		plain.setParameter("access_token", student);
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(plain, response, new MockFilterChain());
+		assertNull(TokenAuthenticationFilter.currentUser(plain));
+		assertEquals(401, response.getStatus());
+	}
+
+	private int status(String method, String path, String token) throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+		if (token != null) {
+			request.addHeader(HttpHeaders.AUTHORIZATION, "Bearer " + token);
+		}
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		filter.doFilter(request, response, new MockFilterChain());
+		return response.getStatus();
+	}
+
+	private String token(Long id, User.Role role) {
+		User user = new User("user" + id, "secret", "user" + id + "@library.com", "Test", "User", role);
+		user.setId(id);
+		return tokenService.issue(user);
+	}
+}
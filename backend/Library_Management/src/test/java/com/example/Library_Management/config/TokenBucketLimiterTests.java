@@ -0,0 +1,81 @@
+package com.example.Library_Management.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenBucketLimiterTests {
+
+	@Test
+	void fullBucketAllowsABurstOfCapacity() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter("test", 5, Duration.ofMinutes(1), 100);
+
+		for (int i = 0; i < 5; i++) {
+			assertEquals(0, limiter.tryAcquire("a"));
+		}
+		assertTrue(limiter.tryAcquire("a") > 0);
+	}
+
+	@Test
+	void rejectionReportsTheWaitForTheNextTokenAndConsumesNothing() {
+		// One token every 12 seconds
+		TokenBucketLimiter limiter = new TokenBucketLimiter("test", 5, Duration.ofMinutes(1), 100);
+		for (int i = 0; i < 5; i++) {
+			limiter.tryAcquire("a");
+		}
+
+		long first = limiter.tryAcquire("a");
+		long second = limiter.tryAcquire("a");
+
+		assertTrue(first > TimeUnit.SECONDS.toNanos(11) && first <= TimeUnit.SECONDS.toNanos(12), "wait " + first);
+		// The rejected attempt did not push the next token further out
+		assertTrue(second <= first);
+	}
+
+	@Test
+	void aTokenComesBackAfterOneRefillStep() throws InterruptedException {
+		// One token every 100ms
+		TokenBucketLimiter limiter = new TokenBucketLimiter("test", 2, Duration.ofMillis(200), 100);
+		limiter.tryAcquire("a");
+		limiter.tryAcquire("a");
+		assertTrue(limiter.tryAcquire("a") > 0);
+
+		Thread.sleep(150);
+
+		assertEquals(0, limiter.tryAcquire("a"));
+		assertTrue(limiter.tryAcquire("a") > 0);
+	}
+
+	@Test
+	void keysHaveSeparateBuckets() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter("test", 1, Duration.ofMinutes(1), 100);
+
+		assertEquals(0, limiter.tryAcquire("ip:10.0.0.1"));
+		assertTrue(limiter.tryAcquire("ip:10.0.0.1") > 0);
+		assertEquals(0, limiter.tryAcquire("ip:10.0.0.2"));
+		assertEquals(2, limiter.getTrackedKeys());
+	}
+
+	@Test
+	void severalTokensAreTakenTogetherOrNotAtAll() {
+		TokenBucketLimiter limiter = new TokenBucketLimiter("test", 10, Duration.ofMinutes(1), 100);
+
+		assertEquals(0, limiter.tryAcquire("a", 8));
+		assertTrue(limiter.tryAcquire("a", 3) > 0);
+		assertEquals(0, limiter.tryAcquire("a", 2));
+		assertTrue(limiter.tryAcquire("a") > 0);
+	}
+
+	@Test
+	void capacityAndRefillPeriodMustBePositive() {
+		assertThrows(IllegalArgumentException.class,
+				() -> new TokenBucketLimiter("test", 0, Duration.ofMinutes(1), 100));
+		assertThrows(IllegalArgumentException.class,
+				() -> new TokenBucketLimiter("test", 1, Duration.ZERO, 100));
+	}
+}
@@ -0,0 +1,191 @@
+package com.example.Library_Management.controller;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.UserRepository;
+import com.example.Library_Management.service.BookService;
+import com.example.Library_Management.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BookControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Test
+	void staleVersionIsAConflict() throws Exception {
+		Book book = bookRepository.save(new Book("Conflicted Tides", "Edit Author", "conflict-isbn-1",
+				"Testing", 2024, null, 2));
+		Long readVersion = book.getVersion();
+		assertTrue(bookService.borrowBook(book.getId()));
+		String token = tokenService.issue(userRepository.save(new User("catalogue", "secret",
+				"catalogue@library.com", "Cata", "Logue", User.Role.LIBRARIAN)));
+
+		mockMvc.perform(put("/books/" + book.getId())
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Renamed\",\"version\":" + readVersion + "}"))
+				.andExpect(status().isConflict());
+
+		Long currentVersion = bookRepository.findById(book.getId()).orElseThrow().getVersion();
+		mockMvc.perform(put("/books/" + book.getId())
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + token)
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"title\":\"Renamed\",\"version\":" + currentVersion + "}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.title").value("Renamed"));
+	}
+
+	@Test
+	void bookPagesContinueFromTheLastIdAndSkipUnavailableBooks() throws Exception {
+		List<Long> ids = createBooks(5);
+		long after = ids.get(0) - 1;
+
+		assertEquals(ids.subList(0, 2), page("/books", after, 2));
+		assertEquals(ids.subList(2, 4), page("/books", ids.get(1), 2));
+		assertEquals(ids.subList(4, 5), page("/books", ids.get(3), 2));
+		assertEquals(List.of(), page("/books", ids.get(4), 2));
+
+		// The second and fourth books are out of stock
+		assertEquals(List.of(ids.get(0), ids.get(2)), page("/books/available", after, 2));
+		assertEquals(List.of(ids.get(4)), page("/books/available", ids.get(2), 2));
+	}
+
+	@Test
+	void outOfRangeBookLimitsAreClamped() throws Exception {
+		List<Long> ids = createBooks(3);
+		long after = ids.get(0) - 1;
+
+		assertEquals(ids, page("/books", after, 0));
+		assertEquals(ids, page("/books", after, Integer.MAX_VALUE));
+		assertEquals(List.of(ids.get(0), ids.get(2)), page("/books/available", after, -1));
+	}
+
+	@Test
+	void bookStreamsWriteOneFullRowPerLine() throws Exception {
+		List<Long> ids = createBooks(4);
+
+		List<JsonNode> rows = stream("/books/stream");
+		List<Long> streamed = rows.stream().map(row -> row.get("id").asLong()).toList();
+		assertEquals(ids, streamed.subList(streamed.indexOf(ids.get(0)), streamed.size()));
+		// Full rows, not the list summaries
+		assertTrue(rows.get(rows.size() - 1).has("version"));
+
+		List<Long> available = stream("/books/available/stream").stream().map(row -> row.get("id").asLong()).toList();
+		assertEquals(List.of(ids.get(0), ids.get(2)), available.subList(available.indexOf(ids.get(0)), available.size()));
+	}
+
+	@Test
+	void pagesCanBeNarrowedToSelectedFields() throws Exception {
+		List<Long> ids = createBooks(1);
+
+		mockMvc.perform(get("/books")
+						.param("after", String.valueOf(ids.get(0) - 1))
+						.param("limit", "1")
+						.param("fields", "id,title,bogus"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].id").value(ids.get(0)))
+				.andExpect(jsonPath("$[0].title").value("Paged Book 0"))
+				.andExpect(jsonPath("$[0].author").doesNotExist());
+		mockMvc.perform(get("/books")
+						.param("after", String.valueOf(ids.get(0) - 1))
+						.param("limit", "1")
+						.param("fields", ","))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$[0].author").value("Keyset Author"));
+	}
+
+	@Test
+	void relatedBooksOfUnknownOrOutOfRangeIdsAreEmpty() throws Exception {
+		for (String id : List.of(String.valueOf(Long.MAX_VALUE), String.valueOf(Integer.MAX_VALUE + 1L), "-5", "0")) {
+			mockMvc.perform(get("/books/" + id + "/related"))
+					.andExpect(status().isOk())
+					.andExpect(jsonPath("$").isEmpty());
+		}
+	}
+
+	// Books newer than anything else in the catalog; every second one has no copies left
+	private List<Long> createBooks(int count) {
+		String tag = UUID.randomUUID().toString().substring(0, 8);
+		List<Long> ids = new ArrayList<>();
+		for (int i = 0; i < count; i++) {
+			Long id = bookService.createBook(new Book("Paged Book " + i, "Keyset Author", "page-" + tag + "-" + i,
+					"Testing", 2024, null, 1)).getId();
+			if (i % 2 == 1) {
+				assertTrue(bookService.borrowBook(id));
+			}
+			ids.add(id);
+		}
+		return ids;
+	}
+
+	private List<Long> page(String path, long after, int limit) throws Exception {
+		String body = mockMvc.perform(get(path)
+						.param("after", String.valueOf(after))
+						.param("limit", String.valueOf(limit)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Long> page = new ArrayList<>();
+		objectMapper.readTree(body).forEach(row -> page.add(row.get("id").asLong()));
+		return page;
+	}
+
+	private List<JsonNode> stream(String path) throws Exception {
+		MvcResult started = mockMvc.perform(get(path))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(body.endsWith("\n"));
+		List<JsonNode> rows = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			JsonNode row = objectMapper.readTree(line);
+			assertTrue(row.isObject(), line);
+			rows.add(row);
+		}
+		return rows;
+	}
+}
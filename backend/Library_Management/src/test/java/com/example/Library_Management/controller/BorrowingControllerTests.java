@@ -0,0 +1,146 @@
+package com.example.Library_Management.controller;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.BorrowingRepository;
+import com.example.Library_Management.repository.UserRepository;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class BorrowingControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BorrowingRepository borrowingRepository;
+
+	private final List<Long> ids = new ArrayList<>();
+	private final List<Long> overdueIds = new ArrayList<>();
+
+	// Five borrowings newer than anything else in the database; the second and fourth are overdue
+	@BeforeEach
+	void setUp() {
+		String tag = UUID.randomUUID().toString().substring(0, 8);
+		User user = userRepository.save(new User("pager-" + tag, "secret", "pager-" + tag + "@library.com",
+				"Page", "Reader", User.Role.STUDENT));
+		Book book = bookRepository.save(new Book("Paged Volumes", "Keyset Author", "pager-" + tag,
+				"Testing", 2024, null, 10));
+		for (int i = 0; i < 5; i++) {
+			Borrowing borrowing = new Borrowing(user, book);
+			if (i % 2 == 1) {
+				borrowing.setDueDate(LocalDateTime.now().minusDays(3));
+			}
+			Long id = borrowingRepository.save(borrowing).getId();
+			ids.add(id);
+			if (i % 2 == 1) {
+				overdueIds.add(id);
+			}
+		}
+	}
+
+	@Test
+	void pagesContinueFromTheLastIdWithoutOverlap() throws Exception {
+		long after = ids.get(0) - 1;
+
+		assertEquals(ids.subList(0, 2), page("/borrowings", after, 2));
+		assertEquals(ids.subList(2, 4), page("/borrowings", ids.get(1), 2));
+		assertEquals(ids.subList(4, 5), page("/borrowings", ids.get(3), 2));
+		assertEquals(List.of(), page("/borrowings", ids.get(4), 2));
+	}
+
+	@Test
+	void overduePagesSkipBorrowingsThatAreNotOverdue() throws Exception {
+		long after = ids.get(0) - 1;
+
+		assertEquals(overdueIds.subList(0, 1), page("/borrowings/overdue", after, 1));
+		assertEquals(overdueIds.subList(1, 2), page("/borrowings/overdue", overdueIds.get(0), 1));
+		assertEquals(List.of(), page("/borrowings/overdue", overdueIds.get(1), 1));
+	}
+
+	@Test
+	void outOfRangeLimitsAreClamped() throws Exception {
+		long after = ids.get(0) - 1;
+
+		// Zero and negative limits fall back to the default page rather than failing or returning nothing
+		assertEquals(ids, page("/borrowings", after, 0));
+		assertEquals(ids, page("/borrowings", after, -5));
+		assertEquals(ids, page("/borrowings", after, Integer.MAX_VALUE));
+		assertEquals(NdjsonResponses.DEFAULT_PAGE_SIZE, NdjsonResponses.clampLimit(0));
+		assertEquals(NdjsonResponses.MAX_PAGE_SIZE, NdjsonResponses.clampLimit(Integer.MAX_VALUE));
+		assertEquals(7, NdjsonResponses.clampLimit(7));
+	}
+
+	@Test
+	void streamsWriteOneBorrowingPerLine() throws Exception {
+		List<Long> streamed = stream("/borrowings/stream");
+		assertTrue(streamed.containsAll(ids));
+		assertEquals(ids, streamed.subList(streamed.indexOf(ids.get(0)), streamed.size()));
+
+		List<Long> overdue = stream("/borrowings/overdue/stream");
+		assertEquals(overdueIds, overdue.subList(overdue.indexOf(overdueIds.get(0)), overdue.size()));
+	}
+
+	private List<Long> page(String path, long after, int limit) throws Exception {
+		String body = mockMvc.perform(get(path)
+						.param("after", String.valueOf(after))
+						.param("limit", String.valueOf(limit)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Long> page = new ArrayList<>();
+		objectMapper.readTree(body).forEach(row -> page.add(row.get("id").asLong()));
+		return page;
+	}
+
+	// Each line must be a complete JSON object, and the body must end with the last line's newline
+	private List<Long> stream(String path) throws Exception {
+		MvcResult started = mockMvc.perform(get(path))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+		assertTrue(body.endsWith("\n"));
+		List<Long> streamed = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			JsonNode row = objectMapper.readTree(line);
+			assertTrue(row.isObject(), line);
+			streamed.add(row.get("id").asLong());
+		}
+		return streamed;
+	}
+}
@@ -0,0 +1,86 @@
+package com.example.Library_Management.controller;
+
+import com.example.Library_Management.dto.BookRecommendation;
+import com.example.Library_Management.dto.BookSummary;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class FieldSelectionTests {
+
+	private static final Set<String> ALL_FIELDS = Set.of("id", "title", "author", "isbn", "category", "publishedYear",
+			"coverImageUrl", "totalCopies", "availableCopies", "rating", "excerpt");
+
+	// Configured like JacksonConfig, so summaries written outside a selection are not rejected
+	private final ObjectMapper objectMapper = new ObjectMapper()
+			.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+
+	private final List<BookSummary> summaries = List.of(summary(1L, "First"), summary(2L, "Second"));
+
+	@Test
+	void noSelectionWritesTheFullSummary() throws Exception {
+		assertEquals(List.of(ALL_FIELDS, ALL_FIELDS), fieldNames(write(null)));
+		assertEquals(List.of(ALL_FIELDS, ALL_FIELDS), fieldNames(write("")));
+		assertEquals(List.of(ALL_FIELDS, ALL_FIELDS), fieldNames(write("  ")));
+	}
+
+	@Test
+	void selectionsWithoutAnyFieldNameAreTheFullSummaryToo() throws Exception {
+		assertEquals(List.of(ALL_FIELDS, ALL_FIELDS), fieldNames(write(",")));
+		assertEquals(List.of(ALL_FIELDS, ALL_FIELDS), fieldNames(write(" , ,")));
+	}
+
+	@Test
+	void selectedFieldsAreKeptOnEveryRow() throws Exception {
+		JsonNode rows = write(" id , title,,availableCopies ");
+
+		assertEquals(List.of(Set.of("id", "title", "availableCopies"), Set.of("id", "title", "availableCopies")),
+				fieldNames(rows));
+		assertEquals("Second", rows.get(1).get("title").asText());
+	}
+
+	@Test
+	void unknownAndNestedFieldNamesAreIgnored() throws Exception {
+		assertEquals(List.of(Set.of("id"), Set.of("id")), fieldNames(write("id,bogus,title.length,book.id")));
+		// Nothing left to write, but the rows are still there
+		assertEquals(List.of(Set.of(), Set.of()), fieldNames(write("bogus")));
+		// Names are matched exactly
+		assertEquals(List.of(Set.of(), Set.of()), fieldNames(write("ID,Title")));
+	}
+
+	@Test
+	void summariesNestedInOtherResponsesAreWrittenInFull() throws Exception {
+		JsonNode recommendation = objectMapper.valueToTree(new BookRecommendation(summary(3L, "Nested"), 0.5));
+
+		assertEquals(List.of(ALL_FIELDS), fieldNames(List.of(recommendation.get("book"))));
+	}
+
+	private JsonNode write(String fields) throws Exception {
+		MappingJacksonValue value = FieldSelection.apply(summaries, fields);
+		String json = objectMapper.writer(value.getFilters()).writeValueAsString(value.getValue());
+		return objectMapper.readTree(json);
+	}
+
+	private static List<Set<String>> fieldNames(Iterable<JsonNode> rows) {
+		List<Set<String>> names = new ArrayList<>();
+		for (JsonNode row : rows) {
+			Set<String> fields = new HashSet<>();
+			row.fieldNames().forEachRemaining(fields::add);
+			names.add(fields);
+		}
+		return names;
+	}
+
+	private static BookSummary summary(Long id, String title) {
+		return new BookSummary(id, title, "Author", "isbn-" + id, "Fiction", 2001, null, 3, 2, 4.5, "An excerpt");
+	}
+}
@@ -0,0 +1,81 @@
+package com.example.Library_Management.controller;
+
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.UserRepository;
+import com.example.Library_Management.service.TokenService;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class SimpleAuthControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TokenService tokenService;
+
+	@Test
+	void selfRegistrationIgnoresRequestedRole() throws Exception {
+		mockMvc.perform(post("/auth/register")
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(registration("mallory", "ADMIN")))
+				.andExpect(status().isOk());
+
+		assertEquals(User.Role.STUDENT, userRepository.findByUsername("mallory").orElseThrow().getRole());
+	}
+
+	@Test
+	void staffMayRegisterOtherRoles() throws Exception {
+		User admin = userRepository.save(new User("registrar", "secret", "registrar@library.com",
+				"Reg", "Istrar", User.Role.ADMIN));
+
+		mockMvc.perform(post("/auth/register")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + tokenService.issue(admin))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content(registration("newlibrarian", "LIBRARIAN")))
+				.andExpect(status().isOk());
+
+		assertEquals(User.Role.LIBRARIAN, userRepository.findByUsername("newlibrarian").orElseThrow().getRole());
+	}
+
+	@Test
+	void loginRehashesPlaintextAndLowCostPasswords() throws Exception {
+		userRepository.save(new User("legacyplain", "secret1", "legacyplain@library.com",
+				"Legacy", "Plain", User.Role.STUDENT));
+		userRepository.save(new User("legacycheap", new BCryptPasswordEncoder(4).encode("secret1"),
+				"legacycheap@library.com", "Legacy", "Cheap", User.Role.STUDENT));
+
+		for (String username : new String[] {"legacyplain", "legacycheap"}) {
+			mockMvc.perform(post("/auth/login")
+							.contentType(MediaType.APPLICATION_JSON)
+							.content("{\"username\":\"" + username + "\",\"password\":\"secret1\"}"))
+					.andExpect(status().isOk());
+
+			// Stored again at the configured strength, and the same password still logs in
+			String stored = userRepository.findByUsername(username).orElseThrow().getPassword();
+			assertTrue(stored.startsWith("$2a$10$"), stored);
+			assertTrue(new BCryptPasswordEncoder().matches("secret1", stored));
+		}
+	}
+
+	private static String registration(String username, String role) {
+		return "{\"username\":\"" + username + "\",\"password\":\"secret1\",\"email\":\"" + username
+				+ "@library.com\",\"firstName\":\"Test\",\"lastName\":\"User\",\"role\":\"" + role + "\"}";
+	}
+}
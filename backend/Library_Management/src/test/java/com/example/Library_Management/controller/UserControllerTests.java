@@ -0,0 +1,123 @@
+package com.example.Library_Management.controller;
+
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.UserRepository;
+import com.example.Library_Management.service.TokenService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UserControllerTests {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private TokenService tokenService;
+
+	private final List<Long> ids = new ArrayList<>();
+	private String staffToken;
+	private String studentToken;
+
+	// The staff member is created first, so the paged users are its three students
+	@BeforeEach
+	void setUp() {
+		String tag = UUID.randomUUID().toString().substring(0, 8);
+		staffToken = tokenService.issue(save("staff-" + tag, User.Role.LIBRARIAN));
+		for (int i = 0; i < 3; i++) {
+			User student = save("student-" + tag + "-" + i, User.Role.STUDENT);
+			ids.add(student.getId());
+			studentToken = tokenService.issue(student);
+		}
+	}
+
+	@Test
+	void userPagesContinueFromTheLastId() throws Exception {
+		long after = ids.get(0) - 1;
+
+		assertEquals(ids.subList(0, 2), page(after, 2));
+		assertEquals(ids.subList(2, 3), page(ids.get(1), 2));
+		assertEquals(List.of(), page(ids.get(2), 2));
+		// Out of range limits fall back to the default and the maximum page
+		assertEquals(ids, page(after, 0));
+		assertEquals(ids, page(after, Integer.MAX_VALUE));
+	}
+
+	@Test
+	void onlyStaffMayPageOrStreamUsers() throws Exception {
+		mockMvc.perform(get("/users").param("limit", "2"))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/users").param("limit", "2")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + studentToken))
+				.andExpect(status().isForbidden());
+		mockMvc.perform(get("/users/stream")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + studentToken))
+				.andExpect(status().isForbidden());
+	}
+
+	@Test
+	void userStreamWritesOneUserPerLineWithoutPasswords() throws Exception {
+		MvcResult started = mockMvc.perform(get("/users/stream")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + staffToken))
+				.andExpect(request().asyncStarted())
+				.andReturn();
+		String body = mockMvc.perform(asyncDispatch(started))
+				.andExpect(status().isOk())
+				.andExpect(content().contentType("application/x-ndjson"))
+				.andReturn().getResponse().getContentAsString();
+
+		assertTrue(body.endsWith("\n"));
+		List<Long> streamed = new ArrayList<>();
+		for (String line : body.split("\n")) {
+			JsonNode row = objectMapper.readTree(line);
+			assertTrue(row.isObject(), line);
+			assertFalse(row.has("password"));
+			streamed.add(row.get("id").asLong());
+		}
+		assertEquals(ids, streamed.subList(streamed.indexOf(ids.get(0)), streamed.size()));
+	}
+
+	private List<Long> page(long after, int limit) throws Exception {
+		String body = mockMvc.perform(get("/users")
+						.header(HttpHeaders.AUTHORIZATION, "Bearer " + staffToken)
+						.param("after", String.valueOf(after))
+						.param("limit", String.valueOf(limit)))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+		List<Long> page = new ArrayList<>();
+		objectMapper.readTree(body).forEach(row -> page.add(row.get("id").asLong()));
+		return page;
+	}
+
+	private User save(String username, User.Role role) {
+		return userRepository.save(new User(username, "secret", username + "@library.com", "Test", "User", role));
+	}
+}
@@ -0,0 +1,106 @@
+package com.example.Library_Management.repository;
+
+import com.example.Library_Management.dto.BorrowingDTO;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import com.example.Library_Management.entity.User;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class BorrowingRepositoryTests {
+
+	private static final int BORROWINGS = 5;
+
+	@Autowired
+	private TestEntityManager entityManager;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@Autowired
+	private BorrowingRepository borrowingRepository;
+
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = entityManager.persist(new User("reader", "secret", "reader@library.com",
+				"Test", "Reader", User.Role.STUDENT));
+		for (int i = 0; i < BORROWINGS; i++) {
+			Book book = entityManager.persist(new Book("Title " + i, "Author " + i, "isbn-" + i,
+					"Fiction", 2000 + i, null, 3));
+			Borrowing borrowing = new Borrowing(user, book);
+			if (i % 2 == 0) {
+				borrowing.setDueDate(LocalDateTime.now().minusDays(1));
+			}
+			entityManager.persist(borrowing);
+		}
+		entityManager.flush();
+		entityManager.clear();
+	}
+
+	@Test
+	void findAllDTOsUsesSingleStatement() {
+		Statistics statistics = statistics();
+
+		List<BorrowingDTO> dtos = borrowingRepository.findAllDTOs();
+
+		assertEquals(BORROWINGS, dtos.size());
+		assertEquals("reader", dtos.get(0).getUsername());
+		assertEquals("Title 0", dtos.get(0).getBookTitle());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void userAndOverdueListingsUseSingleStatement() {
+		Statistics statistics = statistics();
+		assertEquals(BORROWINGS, borrowingRepository.findDTOsByUserId(user.getId()).size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		statistics = statistics();
+		assertEquals(BORROWINGS, borrowingRepository
+				.findDTOsByUserIdAndStatusIn(user.getId(), List.of(BorrowStatus.BORROWED)).size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+
+		statistics = statistics();
+		assertEquals(3, borrowingRepository.findOverdueDTOs(LocalDateTime.now()).size());
+		assertEquals(1, statistics.getPrepareStatementCount());
+	}
+
+	@Test
+	void rowsWrittenWithoutAVersionStartAtZero() {
+		Long bookId = entityManager.persistAndGetId(new Book("Legacy Shelf", "Old Author", "legacy-isbn",
+				"Fiction", 1999, null, 1), Long.class);
+		// Written the way rows from before optimistic locking were, with no version column
+		entityManager.getEntityManager()
+				.createNativeQuery("INSERT INTO borrowings (user_id, book_id, status) VALUES (?1, ?2, 'BORROWED')")
+				.setParameter(1, user.getId())
+				.setParameter(2, bookId)
+				.executeUpdate();
+		entityManager.clear();
+
+		Borrowing legacy = borrowingRepository.findAll().stream()
+				.filter(borrowing -> borrowing.getBook().getId().equals(bookId))
+				.findFirst().orElseThrow();
+		assertEquals(0, legacy.getVersion());
+	}
+
+	private Statistics statistics() {
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+		return statistics;
+	}
+}
@@ -0,0 +1,235 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.AvailabilityDelta;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AvailabilityFeedTests {
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+	private AvailabilityFeed feed;
+
+	@BeforeEach
+	void setUp() {
+		feed = new AvailabilityFeed() {
+			@Override
+			SseEmitter newEmitter() {
+				RecordingEmitter emitter = new RecordingEmitter();
+				emitters.add(emitter);
+				return emitter;
+			}
+		};
+		ReflectionTestUtils.setField(feed, "objectMapper", objectMapper);
+		// Flushes are driven by the tests
+		ReflectionTestUtils.setField(feed, "flushInterval", Duration.ofHours(1));
+		ReflectionTestUtils.setField(feed, "heartbeat", Duration.ofHours(1));
+		ReflectionTestUtils.setField(feed, "timeout", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(feed, "replaySize", 8);
+		ReflectionTestUtils.setField(feed, "outboxSize", 4);
+		ReflectionTestUtils.setField(feed, "writerThreads", 2);
+		feed.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		feed.stop();
+	}
+
+	@Test
+	void changesAreCoalescedPerBookUntilTheNextFlush() throws Exception {
+		RecordingEmitter subscriber = subscribe(null);
+		feed.publish(delta(1L, 3));
+		feed.publish(delta(1L, 2));
+		feed.publish(delta(2L, 0));
+
+		feed.flush();
+
+		Event event = subscriber.next();
+		assertEquals(AvailabilityFeed.AVAILABILITY, event.name());
+		assertEquals(Map.of(1L, 2, 2L, 0), copies(event));
+		assertNull(subscriber.poll());
+	}
+
+	@Test
+	void lastEventIdReplaysWhatWasMissedLatestPerBook() throws Exception {
+		RecordingEmitter first = subscribe(null);
+		feed.publish(delta(1L, 3));
+		feed.flush();
+		String seen = first.next().id();
+		feed.publish(delta(1L, 2));
+		feed.flush();
+		feed.publish(delta(2L, 5));
+		feed.publish(delta(1L, 1));
+		feed.flush();
+
+		RecordingEmitter resumed = subscribe(seen);
+		Event replay = resumed.next();
+
+		assertEquals(AvailabilityFeed.AVAILABILITY, replay.name());
+		assertEquals(Map.of(1L, 1, 2L, 5), copies(replay));
+
+		// Already up to date: nothing is replayed, and later flushes still arrive
+		RecordingEmitter current = subscribe(replay.id());
+		assertNull(current.poll());
+		feed.publish(delta(3L, 4));
+		feed.flush();
+		assertEquals(Map.of(3L, 4), copies(current.next()));
+	}
+
+	@Test
+	void idsFromAnotherRunOrOutOfTheBufferGetAReset() throws Exception {
+		RecordingEmitter subscriber = subscribe(null);
+		// Ten changes in one flush overrun the eight-entry buffer
+		for (long bookId = 1; bookId <= 10; bookId++) {
+			feed.publish(delta(bookId, 1));
+		}
+		feed.flush();
+		String latest = subscriber.next().id();
+		String epoch = latest.substring(0, latest.indexOf(':'));
+
+		assertEquals(AvailabilityFeed.RESET, subscribe("0:5").next().name());
+		assertEquals(AvailabilityFeed.RESET, subscribe("garbage").next().name());
+		assertEquals(AvailabilityFeed.RESET, subscribe(epoch + ":1").next().name());
+		assertEquals(AvailabilityFeed.RESET, subscribe(epoch + ":99").next().name());
+		Event reset = subscribe(epoch + ":1").next();
+		// The reset carries the current id, so the reloaded client resumes from there
+		assertEquals(latest, reset.id());
+		assertEquals(AvailabilityFeed.AVAILABILITY, subscribe(epoch + ":2").next().name());
+	}
+
+	@Test
+	void aStalledSubscriberIsDroppedWithoutHoldingUpTheOthers() throws Exception {
+		RecordingEmitter stalled = subscribe(null);
+		stalled.gate = new CountDownLatch(1);
+		RecordingEmitter healthy = subscribe(null);
+
+		// One event is stuck in the stalled send and four fill its outbox; the sixth overflows it
+		for (int i = 1; i <= 10; i++) {
+			feed.publish(delta(1L, i));
+			feed.flush();
+			assertEquals(Map.of(1L, i), copies(healthy.next()));
+			if (i == 1) {
+				assertTrue(stalled.sending.await(5, TimeUnit.SECONDS));
+			}
+			assertEquals(i <= 5 ? 2 : 1, feed.getSubscriberCount());
+		}
+		// The writer stuck on the stalled client ends its stream once the send returns
+		stalled.gate.countDown();
+		assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+	}
+
+	@Test
+	void stalledSubscribersDoNotAddWriterThreads() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		for (int i = 0; i < 10; i++) {
+			subscribe(null).gate = gate;
+		}
+		for (int i = 1; i <= 3; i++) {
+			feed.publish(delta(1L, i));
+			feed.flush();
+		}
+		Thread.sleep(200);
+
+		ThreadPoolExecutor writers = (ThreadPoolExecutor) ReflectionTestUtils.getField(feed, "writers");
+		assertEquals(2, writers.getLargestPoolSize());
+		assertEquals(2, writers.getActiveCount());
+		gate.countDown();
+	}
+
+	private RecordingEmitter subscribe(String lastEventId) {
+		feed.subscribe(lastEventId);
+		return emitters.get(emitters.size() - 1);
+	}
+
+	private Map<Long, Integer> copies(Event event) throws Exception {
+		List<AvailabilityDelta> deltas = objectMapper.readValue(event.data(), new TypeReference<>() {});
+		return deltas.stream().collect(Collectors.toMap(AvailabilityDelta::getBookId, AvailabilityDelta::getAvailableCopies));
+	}
+
+	private static AvailabilityDelta delta(Long bookId, int copies) {
+		return new AvailabilityDelta(bookId, "Book " + bookId, copies, 10, copies > 0);
+	}
+
+	private record Event(String name, String id, String data) {
+
+		static Event parse(String text) {
+			String name = null;
+			String id = null;
+			String data = null;
+			for (String line : text.split("\n")) {
+				if (line.startsWith("event:")) {
+					name = line.substring(6);
+				} else if (line.startsWith("id:")) {
+					id = line.substring(3);
+				} else if (line.startsWith("data:")) {
+					data = line.substring(5);
+				}
+			}
+			return new Event(name, id, data);
+		}
+	}
+
+	// Captures each event as the text that would go on the wire
+	private static class RecordingEmitter extends SseEmitter {
+
+		final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		final CountDownLatch sending = new CountDownLatch(1);
+		final CountDownLatch completed = new CountDownLatch(1);
+		volatile CountDownLatch gate;
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			sending.countDown();
+			if (gate != null) {
+				try {
+					gate.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			StringBuilder text = new StringBuilder();
+			items.forEach(item -> text.append(item.getData()));
+			sent.add(text.toString());
+		}
+
+		@Override
+		public void complete() {
+			completed.countDown();
+			super.complete();
+		}
+
+		Event next() throws InterruptedException {
+			String text = sent.poll(5, TimeUnit.SECONDS);
+			assertNotNull(text, "no event sent");
+			return Event.parse(text);
+		}
+
+		Event poll() throws InterruptedException {
+			String text = sent.poll(200, TimeUnit.MILLISECONDS);
+			return text == null ? null : Event.parse(text);
+		}
+	}
+}
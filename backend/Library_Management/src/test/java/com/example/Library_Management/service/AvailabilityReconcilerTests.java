@@ -0,0 +1,65 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class AvailabilityReconcilerTests {
+
+	@Autowired
+	private AvailabilityReconciler reconciler;
+
+	@Autowired
+	private BookAvailabilityIndex availabilityIndex;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void reconcileRepairsAnIndexThatDriftedFromTheTable() {
+		Book book = bookService.createBook(new Book("Drifting", "Author", "reconcile-isbn-1", "Testing", 2024, null, 3));
+		// A lost after-commit update, say
+		availabilityIndex.adjust(book.getId(), -2);
+		assertEquals(1, indexedCopies(book).orElseThrow());
+
+		assertTrue(reconciler.reconcile() >= 1);
+		assertEquals(3, indexedCopies(book).orElseThrow());
+	}
+
+	@Test
+	void aBorrowCommittedWhileReconcilingIsCountedOnce() {
+		Book book = bookService.createBook(new Book("Busy Shelf", "Author", "reconcile-isbn-2", "Testing", 2024, null, 3));
+
+		// Registered first, so the reconcile runs between the borrow's commit and its after-commit adjust
+		new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+			TransactionHooks.afterCommit(reconciler::reconcile);
+			assertTrue(bookService.borrowBook(book.getId()));
+		});
+
+		assertEquals(2, bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies());
+		assertEquals(2, indexedCopies(book).orElseThrow());
+	}
+
+	private Optional<Integer> indexedCopies(Book book) {
+		return availabilityIndex.getAvailableBooks().stream()
+				.filter(b -> b.getId().equals(book.getId()))
+				.map(Book::getAvailableCopies)
+				.findFirst();
+	}
+}
@@ -0,0 +1,142 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.CategoryAvailability;
+import com.example.Library_Management.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookAvailabilityIndexTests {
+
+	private BookAvailabilityIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new BookAvailabilityIndex();
+		ReflectionTestUtils.setField(index, "facetIndex", new BookFacetIndex());
+		ReflectionTestUtils.setField(index, "availabilityFeed", new AvailabilityFeed());
+		index.put(book(1L, "Fiction", 2, 0));
+		index.put(book(2L, "Fiction", 1, 0));
+		index.put(book(3L, "History", 4, 0));
+	}
+
+	@Test
+	void adjustsMoveCopiesAndDropBooksThatRunOut() {
+		assertTrue(index.adjust(2L, -1));
+		assertTrue(index.adjust(3L, 1));
+
+		assertEquals(List.of(1L, 3L), ids(index.getAvailableBooks()));
+		assertEquals(5, copies(3L));
+		assertEquals(1, version(3L));
+		assertEquals(Map.of("Fiction", List.of(1L, 2L), "History", List.of(1L, 5L)), counts());
+		assertEquals(List.of(3L), ids(index.getAvailableBooksAfter(1L, 5)));
+	}
+
+	@Test
+	void aReturnToABookThatWasNotHeldAsksTheCallerToLoadIt() {
+		assertFalse(index.adjust(9L, 1));
+		assertTrue(index.adjust(9L, -1));
+		assertFalse(index.getAvailableBooks().stream().anyMatch(book -> book.getId() == 9L));
+	}
+
+	@Test
+	void reconcileRepairsDriftFromTheScan() {
+		index.startReconcile();
+		int corrected = index.finishReconcile(scan(book(1L, "Fiction", 1, 1), book(3L, "History", 4, 0),
+				book(4L, "History", 2, 0)));
+
+		// Book 1 changed, book 2 is gone and book 4 was missing
+		assertEquals(3, corrected);
+		assertEquals(List.of(1L, 3L, 4L), ids(index.getAvailableBooks()));
+		assertEquals(1, copies(1L));
+		assertTrue(index.isReady());
+	}
+
+	@Test
+	void booksWrittenDuringTheScanKeepTheirLiveValue() {
+		index.startReconcile();
+		// Scanned before the borrow below committed
+		Map<Long, Book> scanned = scan(book(1L, "Fiction", 2, 0), book(2L, "Fiction", 1, 0), book(3L, "History", 4, 0));
+		index.beginAdjust(1L);
+		index.adjust(1L, -1);
+		index.endAdjust(1L);
+
+		assertEquals(0, index.finishReconcile(scanned));
+		assertEquals(1, copies(1L));
+	}
+
+	@Test
+	void aChangeTheScanAlreadySawIsNotAppliedTwiceWhenItsAdjustArrivesLate() {
+		// A borrow has run its UPDATE; its after-commit adjust has not arrived yet
+		index.beginAdjust(1L);
+		index.startReconcile();
+		// The borrow commits before the scan reads its page, so the scan has one copy left
+		Map<Long, Book> scanned = scan(book(1L, "Fiction", 1, 1), book(2L, "Fiction", 1, 0), book(3L, "History", 4, 0));
+		assertEquals(0, index.finishReconcile(scanned));
+
+		index.adjust(1L, -1);
+		index.endAdjust(1L);
+
+		assertEquals(1, copies(1L));
+		assertEquals(1, version(1L));
+	}
+
+	@Test
+	void aRolledBackChangeNoLongerShieldsTheBookFromReconcile() {
+		index.beginAdjust(1L);
+		index.endAdjust(1L);
+
+		index.startReconcile();
+		assertEquals(1, index.finishReconcile(scan(book(1L, "Fiction", 5, 3), book(2L, "Fiction", 1, 0),
+				book(3L, "History", 4, 0))));
+		assertEquals(5, copies(1L));
+	}
+
+	private Map<String, List<Long>> counts() {
+		Map<String, List<Long>> counts = new HashMap<>();
+		for (CategoryAvailability c : index.getCategoryCounts()) {
+			counts.put(c.getCategory(), List.of(c.getAvailableTitles(), c.getAvailableCopies()));
+		}
+		return counts;
+	}
+
+	private int copies(Long id) {
+		return book(id).getAvailableCopies();
+	}
+
+	private long version(Long id) {
+		return book(id).getVersion();
+	}
+
+	private Book book(Long id) {
+		return index.getAvailableBooks().stream().filter(book -> book.getId().equals(id)).findFirst().orElseThrow();
+	}
+
+	private static List<Long> ids(List<Book> books) {
+		return books.stream().map(Book::getId).toList();
+	}
+
+	private static Map<Long, Book> scan(Book... books) {
+		Map<Long, Book> scanned = new HashMap<>();
+		for (Book book : books) {
+			scanned.put(book.getId(), book);
+		}
+		return scanned;
+	}
+
+	private static Book book(Long id, String category, int copies, long version) {
+		Book book = new Book("Book " + id, "Author", "isbn-" + id, category, 2000, null, 5);
+		book.setId(id);
+		book.setAvailableCopies(copies);
+		book.setVersion(version);
+		return book;
+	}
+}
@@ -0,0 +1,59 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookCacheTests {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void readDuringUncommittedBorrowDoesNotLeaveStaleEntry() throws Exception {
+		Book book = bookRepository.save(new Book("Cached Tides", "Cache Author", "cache-isbn-1",
+				"Testing", 2024, null, 3));
+		Long id = book.getId();
+		assertEquals(3, bookService.getBookById(id).orElseThrow().getAvailableCopies());
+
+		CountDownLatch updated = new CountDownLatch(1);
+		CountDownLatch readDone = new CountDownLatch(1);
+		CompletableFuture<Void> borrow = CompletableFuture.runAsync(() ->
+				new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+					assertTrue(bookService.borrowBook(id));
+					updated.countDown();
+					try {
+						assertTrue(readDone.await(30, TimeUnit.SECONDS));
+					} catch (InterruptedException e) {
+						Thread.currentThread().interrupt();
+						throw new IllegalStateException(e);
+					}
+				}));
+
+		assertTrue(updated.await(30, TimeUnit.SECONDS));
+		// The borrow is not committed yet, so this read sees (and may cache) three copies
+		assertEquals(3, bookService.getBookById(id).orElseThrow().getAvailableCopies());
+		readDone.countDown();
+		borrow.get(30, TimeUnit.SECONDS);
+
+		assertEquals(2, bookService.getBookById(id).orElseThrow().getAvailableCopies());
+	}
+}
@@ -0,0 +1,147 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BookFacets;
+import com.example.Library_Management.dto.FacetCount;
+import com.example.Library_Management.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class BookFacetIndexTests {
+
+	private BookFacetIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new BookFacetIndex();
+		add(1L, "Fantasy", "Steven Erikson", 1999, true);
+		add(2L, "Fantasy", "Steven Erikson", 2001, false);
+		add(3L, "Fantasy", "Robert Jordan", 1990, true);
+		add(4L, "Science Fiction", "Iain Banks", 1987, true);
+		add(5L, "Science Fiction", "Steven Erikson", 2005, false);
+		add(6L, "History", "Mary Beard", 2015, true);
+	}
+
+	@Test
+	void filtersAreAndedAcrossFacetsAndOredWithinOne() {
+		assertEquals(3, facets(Set.of("Fantasy", "Science Fiction"), Set.of("Steven Erikson"), Set.of(), null).getTotal());
+		assertEquals(3, facets(Set.of("Fantasy"), Set.of("Steven Erikson", "Robert Jordan"), Set.of(), null).getTotal());
+		assertEquals(2, facets(Set.of("Fantasy"), Set.of("Steven Erikson", "Robert Jordan"), Set.of("1990s"), null).getTotal());
+		assertEquals(0, facets(Set.of("History"), Set.of("Steven Erikson"), Set.of(), null).getTotal());
+		// A value nobody has matches nothing rather than being ignored
+		assertEquals(0, facets(Set.of("Poetry"), Set.of(), Set.of(), null).getTotal());
+	}
+
+	@Test
+	void eachFacetsCountsIgnoreItsOwnFilter() {
+		BookFacets facets = facets(Set.of("Fantasy"), Set.of(), Set.of(), null);
+
+		assertEquals(3, facets.getTotal());
+		assertEquals(Map.of("Fantasy", 3L, "History", 1L, "Science Fiction", 2L), counts(facets.getCategories()));
+		assertEquals(Map.of("Steven Erikson", 2L, "Robert Jordan", 1L), counts(facets.getAuthors()));
+		assertEquals(Map.of("1990s", 2L, "2000s", 1L), counts(facets.getDecades()));
+	}
+
+	@Test
+	void availabilityIsSplitAndCanBeFilteredOn() {
+		BookFacets all = facets(Set.of(), Set.of(), Set.of(), null);
+		assertEquals(4, all.getAvailable());
+		assertEquals(2, all.getUnavailable());
+
+		BookFacets onShelf = facets(Set.of(), Set.of(), Set.of(), true);
+		assertEquals(4, onShelf.getTotal());
+		assertEquals(Map.of("Fantasy", 2L, "History", 1L, "Science Fiction", 1L), counts(onShelf.getCategories()));
+		// The split itself ignores the availability filter, like any facet
+		assertEquals(4, onShelf.getAvailable());
+		assertEquals(2, onShelf.getUnavailable());
+
+		assertEquals(2, facets(Set.of(), Set.of(), Set.of(), false).getTotal());
+
+		index.setAvailable(2L, true);
+		assertEquals(5, facets(Set.of(), Set.of(), Set.of(), true).getTotal());
+	}
+
+	@Test
+	void authorsAreCappedMostFrequentFirstAndOtherFacetsSortByValue() {
+		BookFacets facets = index.facets(null, Set.of(), Set.of(), Set.of(), null, 2);
+
+		// Ties are broken by name
+		assertEquals(List.of("Steven Erikson", "Iain Banks"), values(facets.getAuthors()));
+		assertEquals(List.of("Fantasy", "History", "Science Fiction"), values(facets.getCategories()));
+		assertEquals(List.of("1980s", "1990s", "2000s", "2010s"), values(facets.getDecades()));
+	}
+
+	@Test
+	void scopeLimitsTheBooksCounted() {
+		BookFacets facets = index.facets(List.of(1L, 4L, 99L), Set.of(), Set.of(), Set.of(), null, 10);
+
+		assertEquals(2, facets.getTotal());
+		assertEquals(Map.of("Fantasy", 1L, "Science Fiction", 1L), counts(facets.getCategories()));
+	}
+
+	@Test
+	void updatesAndDeactivationsUnindexTheOldValues() {
+		Book moved = book(3L, "History", "Tom Holland", 2003);
+		index.put(moved);
+		Book withdrawn = book(6L, "History", "Mary Beard", 2015);
+		withdrawn.setActive(false);
+		index.put(withdrawn);
+
+		BookFacets facets = facets(Set.of(), Set.of(), Set.of(), null);
+		assertEquals(5, facets.getTotal());
+		assertEquals(Map.of("Fantasy", 2L, "History", 1L, "Science Fiction", 2L), counts(facets.getCategories()));
+		assertFalse(counts(facets.getAuthors()).containsKey("Robert Jordan"));
+		assertFalse(counts(facets.getAuthors()).containsKey("Mary Beard"));
+		assertFalse(index.contains(6L));
+		// Still on the shelf, but an inactive book is not counted as available
+		assertEquals(3, facets.getAvailable());
+	}
+
+	@Test
+	void decadesHandleMissingAndEarlyYears() {
+		assertEquals(BookFacetIndex.UNKNOWN_DECADE, BookFacetIndex.decadeOf(null));
+		assertEquals("1990s", BookFacetIndex.decadeOf(1999));
+		assertEquals("2000s", BookFacetIndex.decadeOf(2000));
+		assertEquals("0s", BookFacetIndex.decadeOf(0));
+		assertEquals("0s", BookFacetIndex.decadeOf(9));
+		// Years before 0 round down, so -5 falls in the decade starting at -10
+		assertEquals("-10s", BookFacetIndex.decadeOf(-5));
+		assertEquals("-10s", BookFacetIndex.decadeOf(-10));
+
+		add(7L, "History", "Anonymous", null, true);
+		assertEquals(1L, counts(facets(Set.of(), Set.of(), Set.of(), null).getDecades())
+				.get(BookFacetIndex.UNKNOWN_DECADE));
+	}
+
+	private BookFacets facets(Set<String> categories, Set<String> authors, Set<String> decades, Boolean available) {
+		return index.facets(null, categories, authors, decades, available, 10);
+	}
+
+	private void add(Long id, String category, String author, Integer year, boolean available) {
+		index.put(book(id, category, author, year));
+		index.setAvailable(id, available);
+	}
+
+	private static Map<String, Long> counts(List<FacetCount> counts) {
+		Map<String, Long> map = new LinkedHashMap<>();
+		counts.forEach(count -> map.put(count.getValue(), count.getCount()));
+		return map;
+	}
+
+	private static List<String> values(List<FacetCount> counts) {
+		return counts.stream().map(FacetCount::getValue).toList();
+	}
+
+	private static Book book(Long id, String category, String author, Integer year) {
+		Book book = new Book("Book " + id, author, "isbn-" + id, category, year, null, 1);
+		book.setId(id);
+		return book;
+	}
+}
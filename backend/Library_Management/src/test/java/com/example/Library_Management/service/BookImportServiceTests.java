@@ -0,0 +1,133 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.ImportReport;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataAccessException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookImportServiceTests {
+
+	private static final String HEADER = "title,author,isbn,category,publishedYear,totalCopies,description\n";
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+	@Autowired
+	private BookImportService importService;
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Test
+	void quotedFieldsAreImportedIntact() throws IOException {
+		String isbn = isbn();
+
+		ImportReport report = importCsv(HEADER
+				+ "\"Dune, Deluxe\",Frank Herbert," + isbn + ",Fiction,1965,2,\"Says \"\"hi\"\"\nover two lines\"\n", 10);
+
+		assertEquals(1, report.getInserted());
+		Book book = stored(isbn).orElseThrow();
+		assertEquals("Dune, Deluxe", book.getTitle());
+		assertEquals("Says \"hi\"\nover two lines", book.getDescription());
+		assertEquals(2, book.getAvailableCopies());
+	}
+
+	@Test
+	void malformedRowsAreReportedByRowAndTheRestImported() throws IOException {
+		String good = isbn();
+		String alsoGood = isbn();
+
+		ImportReport report = importCsv(HEADER
+				+ "Good,Author," + good + ",Fiction,2001,1,\n"
+				+ "Bad Year,Author," + isbn() + ",Fiction,MMI,1,\n"
+				+ ",No Title," + isbn() + ",Fiction,2001,1,\n"
+				+ "\n"
+				+ "No Copies,Author," + isbn() + ",Fiction,2001,0,\n"
+				+ "Also Good,Author," + alsoGood + ",Fiction,2002,3,\n", 10);
+
+		assertEquals(5, report.getRowsRead());
+		assertEquals(2, report.getInserted());
+		assertEquals(3, report.getRejected());
+		assertEquals("Row 2: publishedyear is not a number: MMI", report.getErrors().get(0));
+		assertTrue(report.getErrors().get(1).startsWith("Row 3: title "), report.getErrors().get(1));
+		// The blank line is skipped without counting as a row; zero copies breaks both copy counts, reported in either order
+		assertTrue(report.getErrors().get(2).matches("Row 4: (total|available)Copies .*"), report.getErrors().get(2));
+		assertTrue(stored(good).isPresent());
+		assertTrue(stored(alsoGood).isPresent());
+	}
+
+	@Test
+	void repeatedIsbnsUpdateInsteadOfInserting() throws IOException {
+		String existing = isbn();
+		String repeated = isbn();
+		Book onShelf = bookRepository.save(new Book("Old Title", "Author", existing, "Fiction", 1990, null, 2));
+		assertTrue(bookService.borrowBook(onShelf.getId()));
+
+		// Two rows per chunk: the first chunk has the repeat twice, the second has it again
+		ImportReport report = importCsv(HEADER
+				+ "First,Author," + repeated + ",Fiction,2001,1,\n"
+				+ "Second,Author," + repeated + ",Fiction,2001,1,\n"
+				+ "New Title,Author," + existing + ",Fiction,1990,5,\n"
+				+ "Third,Author," + repeated + ",Fiction,2001,4,\n", 2);
+
+		assertEquals(4, report.getRowsRead());
+		assertEquals(1, report.getInserted());
+		assertEquals(2, report.getUpdated());
+		assertEquals("Third", stored(repeated).orElseThrow().getTitle());
+		assertEquals(4, stored(repeated).orElseThrow().getTotalCopies());
+		Book updated = stored(existing).orElseThrow();
+		assertEquals(onShelf.getId(), updated.getId());
+		assertEquals("New Title", updated.getTitle());
+		// The borrowed copy stays out: one on loan plus the three added
+		assertEquals(4, updated.getAvailableCopies());
+	}
+
+	@Test
+	void chunksCommittedBeforeAFailingChunkAreKept() {
+		String first = isbn();
+		String second = isbn();
+		String third = isbn();
+		String tooLong = "x".repeat(300);
+
+		assertThrows(DataAccessException.class, () -> importCsv(HEADER
+				+ "One,Author," + first + ",Fiction,2001,1,\n"
+				+ "Two,Author," + second + ",Fiction,2001,1,\n"
+				+ "Three,Author," + third + ",Fiction,2001,1,\n"
+				+ "Four,Author," + tooLong + ",Fiction,2001,1,\n", 2));
+
+		assertTrue(stored(first).isPresent());
+		assertTrue(stored(second).isPresent());
+		// The failing chunk rolls back as a whole
+		assertTrue(stored(third).isEmpty());
+	}
+
+	private ImportReport importCsv(String csv, int batchSize) throws IOException {
+		return importService.importBooks(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+				BookImportService.Format.CSV, batchSize);
+	}
+
+	private Optional<Book> stored(String isbn) {
+		List<Book> books = bookRepository.findAll();
+		return books.stream().filter(book -> isbn.equals(book.getIsbn())).findFirst();
+	}
+
+	private static String isbn() {
+		return "import-isbn-" + SEQUENCE.incrementAndGet();
+	}
+}
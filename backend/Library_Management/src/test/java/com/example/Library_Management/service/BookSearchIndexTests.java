@@ -0,0 +1,87 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSearchIndexTests {
+
+	private BookSearchIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new BookSearchIndex();
+		index.index(book(1L, "The Silent River", "Ada Tolkien", "978-0-00-000001-1", "Fiction"));
+		index.index(book(2L, "River Songs", "Leo Rivers", "9780000000028", "Poetry"));
+		index.index(book(3L, "Algorithms in Practice", "Grace Hopper", "9780000000035", "Technology"));
+		index.index(book(4L, "Mystery of the Fiction Writer", "Zora Eco", "9780000000042", "Mystery"));
+	}
+
+	@Test
+	void tokenizeFoldsCaseAndSplitsOnPunctuation() {
+		assertEquals(List.of("the", "c", "programming", "language", "2nd", "ed"),
+				BookSearchIndex.tokenize("The C-Programming Language (2nd ed.)"));
+		assertEquals(List.of(), BookSearchIndex.tokenize("  --  "));
+		assertEquals(List.of(), BookSearchIndex.tokenize(null));
+	}
+
+	@Test
+	void searchIsCaseInsensitiveAndMatchesPrefixes() {
+		assertEquals(List.of(3L), index.search("ALGO"));
+		assertEquals(List.of(3L), index.search("hopp"));
+		assertTrue(index.search("xyz").isEmpty());
+	}
+
+	@Test
+	void everyQueryTokenMustMatch() {
+		assertEquals(List.of(1L), index.search("silent river"));
+		assertTrue(index.search("silent algorithms").isEmpty());
+	}
+
+	@Test
+	void titleHitsOutrankCategoryHitsAndExactTermsOutrankPrefixes() {
+		// "fiction" is in the title of 4 and only the category of 1
+		assertEquals(List.of(4L, 1L), index.search("fiction"));
+		// "river" is an exact title term for 1 and 2 but only a prefix of the title term "rivers" in 5
+		index.index(book(5L, "Rivers of Light", "Omar Borges", "9780000000059", "Travel"));
+		assertEquals(List.of(1L, 2L, 5L), index.search("river"));
+	}
+
+	@Test
+	void isbnMatchesWithOrWithoutHyphens() {
+		assertEquals(List.of(1L), index.search("9780000000011"));
+		assertEquals(List.of(1L), index.search("978-0-00-000001-1"));
+		assertEquals(List.of(2L), index.search("978-0000000028"));
+	}
+
+	@Test
+	void updateUnindexesTermsTheBookNoLongerHas() {
+		index.index(book(3L, "Data Structures", "Grace Hopper", "9780000000035", "Technology"));
+
+		assertTrue(index.search("algorithms").isEmpty());
+		assertEquals(List.of(3L), index.search("structures"));
+		assertEquals(4, index.size());
+	}
+
+	@Test
+	void removeDropsTheBookAndItsTerms() {
+		index.remove(3L);
+
+		assertFalse(index.contains(3L));
+		assertTrue(index.search("algorithms").isEmpty());
+		assertTrue(index.search("hopper").isEmpty());
+		assertEquals(3, index.size());
+	}
+
+	private static Book book(Long id, String title, String author, String isbn, String category) {
+		Book book = new Book(title, author, isbn, category, 2000, null, 1);
+		book.setId(id);
+		return book;
+	}
+}
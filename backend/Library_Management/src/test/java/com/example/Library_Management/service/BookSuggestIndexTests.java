@@ -0,0 +1,136 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BookSuggestion;
+import com.example.Library_Management.entity.Book;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BookSuggestIndexTests {
+
+	private BookSuggestIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new BookSuggestIndex();
+		index.put(book(1L, "Gardens of the Moon", "Steven Erikson"), 5);
+		index.put(book(2L, "Garden Design Basics", "Monty Donald"), 1);
+		index.put(book(3L, "Deadhouse Gates", "Steven Erikson"), 3);
+		index.put(book(4L, "Cat Tales", "Ann Fox"), 0);
+	}
+
+	@Test
+	void prefixMatchesRankByPopularity() {
+		assertEquals(List.of("Gardens of the Moon", "Garden Design Basics"), texts(index.suggest("gard", 10)));
+		assertEquals(List.of("Gardens of the Moon"), texts(index.suggest("the mo", 10)));
+	}
+
+	@Test
+	void authorsAreSuggestedWithTheirBooksBorrowsSummed() {
+		List<BookSuggestion> suggestions = index.suggest("erik", 10);
+
+		assertEquals("Steven Erikson", suggestions.get(0).getText());
+		assertEquals("AUTHOR", suggestions.get(0).getType());
+		assertEquals(8, suggestions.get(0).getBorrows());
+	}
+
+	@Test
+	void oneEditIsForgivenFromFourCharactersAndTwoFromSeven() {
+		assertEquals(List.of("Deadhouse Gates"), texts(index.suggest("gqtes", 10)));
+		assertTrue(index.suggest("gqtse", 10).isEmpty());
+		assertEquals(List.of("Deadhouse Gates"), texts(index.suggest("deadhuose", 10)));
+		assertTrue(index.suggest("daedhuose", 10).isEmpty());
+	}
+
+	@Test
+	void noTyposAreForgivenUpToThreeCharacters() {
+		assertEquals(0, BookSuggestIndex.maxEdits("cat"));
+		assertEquals(List.of("Cat Tales"), texts(index.suggest("cat", 10)));
+		assertTrue(index.suggest("cta", 10).isEmpty());
+		assertTrue(index.suggest("bat", 10).isEmpty());
+	}
+
+	@Test
+	void borrowsReorderSuggestionsOnceApplied() {
+		for (int i = 0; i < 5; i++) {
+			index.recordBorrow(2L);
+		}
+		// Tallied on the borrow path but not applied yet
+		assertEquals(List.of("Gardens of the Moon", "Garden Design Basics"), texts(index.suggest("gard", 10)));
+
+		index.applyPendingBorrows();
+
+		List<BookSuggestion> suggestions = index.suggest("gard", 10);
+		assertEquals(List.of("Garden Design Basics", "Gardens of the Moon"), texts(suggestions));
+		assertEquals(6, suggestions.get(0).getBorrows());
+	}
+
+	@Test
+	void repeatedReweighsKeepLongPostingListsOrdered() {
+		BookSuggestIndex shared = new BookSuggestIndex();
+		Random random = new Random(42);
+		for (long id = 1; id <= 200; id++) {
+			shared.put(book(id, "Common Title " + id, null), random.nextInt(5));
+		}
+		for (int round = 0; round < 20; round++) {
+			for (int i = 0; i < 50; i++) {
+				shared.recordBorrow(1L + random.nextInt(200));
+			}
+			shared.applyPendingBorrows();
+		}
+		shared.remove(7L);
+		shared.put(book(7L, "Common Title 7", null), 0);
+
+		List<BookSuggestion> suggestions = shared.suggest("common", BookSuggestIndex.MAX_SUGGESTIONS);
+		assertEquals(BookSuggestIndex.MAX_SUGGESTIONS, suggestions.size());
+		for (int i = 1; i < suggestions.size(); i++) {
+			assertTrue(suggestions.get(i - 1).getBorrows() >= suggestions.get(i).getBorrows());
+		}
+	}
+
+	@Test
+	void changingTheAuthorMovesTheBorrowsToTheNewAuthor() {
+		index.put(book(3L, "Deadhouse Gates", "Ian Esslemont"), 0);
+
+		assertEquals(5, borrowsOf("Steven Erikson", index.suggest("steven", 10)));
+		assertEquals(3, borrowsOf("Ian Esslemont", index.suggest("esslemont", 10)));
+
+		index.put(book(1L, "Gardens of the Moon", "Ian Esslemont"), 0);
+
+		assertTrue(index.suggest("steven", 10).isEmpty());
+		assertEquals(8, borrowsOf("Ian Esslemont", index.suggest("esslemont", 10)));
+	}
+
+	@Test
+	void removedAndInactiveBooksAreNoLongerSuggested() {
+		index.remove(4L);
+		assertTrue(index.suggest("cat", 10).isEmpty());
+		assertTrue(index.suggest("ann fox", 10).isEmpty());
+
+		Book inactive = book(2L, "Garden Design Basics", "Monty Donald");
+		inactive.setActive(false);
+		index.put(inactive, 0);
+		assertEquals(List.of("Gardens of the Moon"), texts(index.suggest("garden", 10)));
+	}
+
+	private static List<String> texts(List<BookSuggestion> suggestions) {
+		return suggestions.stream().filter(s -> "TITLE".equals(s.getType())).map(BookSuggestion::getText).toList();
+	}
+
+	private static long borrowsOf(String author, List<BookSuggestion> suggestions) {
+		return suggestions.stream()
+				.filter(s -> "AUTHOR".equals(s.getType()) && author.equals(s.getText()))
+				.findFirst().orElseThrow().getBorrows();
+	}
+
+	private static Book book(Long id, String title, String author) {
+		Book book = new Book(title, author, "isbn-" + id, "Fiction", 2000, null, 1);
+		book.setId(id);
+		return book;
+	}
+}
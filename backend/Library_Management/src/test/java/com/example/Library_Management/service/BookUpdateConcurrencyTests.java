@@ -0,0 +1,94 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.ConcurrencyFailureException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BookUpdateConcurrencyTests {
+
+	@Autowired
+	private BookService bookService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Test
+	void editFromAStaleFormIsRejected() {
+		Book book = bookRepository.save(new Book("Versioned Tides", "Edit Author", "edit-isbn-1",
+				"Testing", 2024, null, 3));
+		Long readVersion = book.getVersion();
+		assertTrue(bookService.borrowBook(book.getId()));
+
+		Book edit = edit(book.getId(), "Versioned Tides, Revised");
+		edit.setVersion(readVersion);
+
+		assertThrows(ConcurrencyFailureException.class, () -> bookService.updateBook(edit));
+		assertEquals("Versioned Tides", bookRepository.findById(book.getId()).orElseThrow().getTitle());
+	}
+
+	@Test
+	void borrowCommittedDuringAnEditIsNotOverwritten() throws Exception {
+		Book book = bookRepository.save(new Book("Shared Shelf", "Edit Author", "edit-isbn-2",
+				"Testing", 2024, null, 3));
+		Long id = book.getId();
+		CountDownLatch editRead = new CountDownLatch(1);
+		CountDownLatch borrowed = new CountDownLatch(1);
+
+		// The edit pauses after loading the row, while the copy count is still 3 of 3
+		Book edit = new Book() {
+			private boolean paused;
+
+			@Override
+			public Integer getTotalCopies() {
+				if (!paused) {
+					paused = true;
+					editRead.countDown();
+					await(borrowed);
+				}
+				return 5;
+			}
+		};
+		edit.setId(id);
+		edit.setTitle("Shared Shelf, Second Edition");
+
+		CompletableFuture<Book> update = CompletableFuture.supplyAsync(() -> bookService.updateBook(edit));
+		await(editRead);
+		assertTrue(bookService.borrowBook(id));
+		borrowed.countDown();
+		update.get(30, TimeUnit.SECONDS);
+
+		Book saved = bookRepository.findById(id).orElseThrow();
+		assertEquals("Shared Shelf, Second Edition", saved.getTitle());
+		assertEquals(5, saved.getTotalCopies());
+		// 3 - 1 borrowed + 2 added, not the 5 the first attempt would have written
+		assertEquals(4, saved.getAvailableCopies());
+	}
+
+	private static Book edit(Long id, String title) {
+		Book edit = new Book();
+		edit.setId(id);
+		edit.setTitle(title);
+		return edit;
+	}
+
+	private static void await(CountDownLatch latch) {
+		try {
+			assertTrue(latch.await(30, TimeUnit.SECONDS));
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException(e);
+		}
+	}
+}
@@ -0,0 +1,206 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BatchItemResult;
+import com.example.Library_Management.dto.BorrowRequestItem;
+import com.example.Library_Management.dto.HoldDTO;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import com.example.Library_Management.entity.Hold.HoldStatus;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.BorrowingRepository;
+import com.example.Library_Management.repository.HoldRepository;
+import com.example.Library_Management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BorrowingBatchServiceTests {
+
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+	@Autowired
+	private BorrowingBatchService batchService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BorrowingRepository borrowingRepository;
+
+	@Autowired
+	private HoldService holdService;
+
+	@Autowired
+	private HoldRepository holdRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Test
+	void aPairRepeatedInOneBatchIsBorrowedOnce() {
+		User user = user();
+		Book book = book(3);
+
+		List<BatchItemResult> results = batchService.borrowBooks(List.of(item(user, book), item(user, book)));
+
+		assertTrue(results.get(0).isSuccess());
+		assertFalse(results.get(1).isSuccess());
+		assertEquals(2, copies(book));
+		assertEquals(1, borrowingRepository.findByBook(book).size());
+	}
+
+	@Test
+	void theActiveBorrowingLimitCountsEarlierItemsOfTheBatch() {
+		User user = user();
+		User other = user();
+		Book first = book(3);
+		Book second = book(3);
+
+		List<BatchItemResult> results = batchService.borrowBooks(List.of(
+				item(user, first), item(user, second), item(other, second)));
+
+		assertTrue(results.get(0).isSuccess());
+		assertEquals("Cannot borrow more books. Please return your current books first.", results.get(1).getMessage());
+		assertTrue(results.get(2).isSuccess());
+		assertEquals(2, copies(second));
+	}
+
+	@Test
+	void itemsBeyondTheLastCopyFailWithoutTakingStock() {
+		Book book = book(2);
+
+		List<BatchItemResult> results = batchService.borrowBooks(List.of(
+				item(user(), book), item(user(), book), item(user(), book)));
+
+		assertTrue(results.get(0).isSuccess());
+		assertTrue(results.get(1).isSuccess());
+		assertEquals("Book is not available for borrowing", results.get(2).getMessage());
+		assertEquals(0, copies(book));
+		assertEquals(2, borrowingRepository.findByBook(book).size());
+	}
+
+	@Test
+	void generatedIdsAreMatchedToTheirItemsInRequestOrder() {
+		Book scarce = book(1);
+		List<User> users = List.of(user(), user(), user(), user());
+		List<Book> books = List.of(book(1), scarce, scarce, book(1));
+
+		List<BatchItemResult> results = batchService.borrowBooks(List.of(
+				item(users.get(0), books.get(0)), item(users.get(1), books.get(1)),
+				item(users.get(2), books.get(2)), item(users.get(3), books.get(3))));
+
+		// The failed item in the middle must not shift the ids of the items after it
+		assertFalse(results.get(2).isSuccess());
+		for (int i : new int[] {0, 1, 3}) {
+			BatchItemResult result = results.get(i);
+			assertEquals(i, result.getIndex());
+			Borrowing stored = borrowingRepository.findById(result.getBorrowing().getId()).orElseThrow();
+			assertEquals(users.get(i).getId(), stored.getUser().getId());
+			assertEquals(books.get(i).getId(), stored.getBook().getId());
+		}
+	}
+
+	@Test
+	void aHolderBorrowingInABatchGetsTheKeptCopy() {
+		Book book = book(1);
+		Long borrowingId = borrow(user(), book);
+		User holder = user();
+		HoldDTO hold = holdService.placeHold(holder.getId(), book.getId());
+		assertTrue(batchService.returnBooks(List.of(borrowingId)).get(0).isSuccess());
+		assertEquals(HoldStatus.READY, holdRepository.findById(hold.getId()).orElseThrow().getStatus());
+		assertEquals(0, copies(book));
+
+		List<BatchItemResult> results = batchService.borrowBooks(List.of(item(user(), book), item(holder, book)));
+
+		// The kept copy is not on the shelf for anyone else
+		assertEquals("Book is not available for borrowing", results.get(0).getMessage());
+		assertTrue(results.get(1).isSuccess());
+		assertEquals(HoldStatus.FULFILLED, holdRepository.findById(hold.getId()).orElseThrow().getStatus());
+		assertEquals(0, copies(book));
+	}
+
+	@Test
+	void aBorrowingRepeatedInAReturnBatchIsReturnedOnce() {
+		Book book = book(1);
+		Long borrowingId = borrow(user(), book);
+
+		List<BatchItemResult> results = batchService.returnBooks(List.of(borrowingId, borrowingId));
+
+		assertTrue(results.get(0).isSuccess());
+		assertEquals("Book has already been returned", results.get(1).getMessage());
+		assertEquals(1, copies(book));
+		assertEquals(BorrowStatus.RETURNED, borrowingRepository.findById(borrowingId).orElseThrow().getStatus());
+	}
+
+	@Test
+	void aBorrowingChangedAfterItWasReadFailsItsVersionCheck() {
+		Book book = book(2);
+		Long staleId = borrow(user(), book);
+		Long freshId = borrow(user(), book);
+
+		List<BatchItemResult> results = new TransactionTemplate(transactionManager).execute(status -> {
+			// Read into the batch's persistence context, then changed underneath it
+			borrowingRepository.findById(staleId).orElseThrow();
+			jdbcTemplate.update("UPDATE borrowings SET version = version + 1 WHERE id = ?", staleId);
+			return batchService.returnBooks(List.of(staleId, freshId));
+		});
+
+		assertEquals("Borrowing was modified by another request", results.get(0).getMessage());
+		assertTrue(results.get(1).isSuccess());
+		assertEquals(BorrowStatus.BORROWED, borrowingRepository.findById(staleId).orElseThrow().getStatus());
+		assertEquals(1, copies(book));
+	}
+
+	@Test
+	void oversizedBatchesAreRejected() {
+		List<Long> ids = Collections.nCopies(BorrowingBatchService.MAX_BATCH_SIZE + 1, 1L);
+		assertThrows(IllegalArgumentException.class, () -> batchService.returnBooks(ids));
+	}
+
+	private Long borrow(User user, Book book) {
+		BatchItemResult result = batchService.borrowBooks(List.of(item(user, book))).get(0);
+		assertTrue(result.isSuccess());
+		return result.getBorrowing().getId();
+	}
+
+	private int copies(Book book) {
+		return bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies();
+	}
+
+	private static BorrowRequestItem item(User user, Book book) {
+		return new BorrowRequestItem(user.getId(), book.getId());
+	}
+
+	private Book book(int copies) {
+		int n = SEQUENCE.incrementAndGet();
+		return bookRepository.save(new Book("Batch Book " + n, "Batch Author", "batch-isbn-" + n,
+				"Testing", 2024, null, copies));
+	}
+
+	private User user() {
+		int n = SEQUENCE.incrementAndGet();
+		return userRepository.save(new User("batcher" + n, "secret", "batcher" + n + "@library.com",
+				"Batch", "Reader" + n, User.Role.STUDENT));
+	}
+}
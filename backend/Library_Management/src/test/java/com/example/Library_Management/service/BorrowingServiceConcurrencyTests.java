@@ -0,0 +1,78 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.BorrowingRepository;
+import com.example.Library_Management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class BorrowingServiceConcurrencyTests {
+
+	private static final int BORROWERS = 500;
+	private static final int COPIES = 25;
+
+	@Autowired
+	private BorrowingService borrowingService;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private BorrowingRepository borrowingRepository;
+
+	@Test
+	void concurrentBorrowersNeverOversellCopies() throws Exception {
+		Book book = bookRepository.save(new Book("Rush Hour", "Stress Author", "stress-isbn-1",
+				"Testing", 2024, null, COPIES));
+		List<Long> userIds = new ArrayList<>();
+		for (int i = 0; i < BORROWERS; i++) {
+			User user = userRepository.save(new User("borrower" + i, "secret", "borrower" + i + "@library.com",
+					"Borrower", "No" + i, User.Role.STUDENT));
+			userIds.add(user.getId());
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(64);
+		CountDownLatch start = new CountDownLatch(1);
+		AtomicInteger successes = new AtomicInteger();
+		for (Long userId : userIds) {
+			executor.submit(() -> {
+				start.await();
+				try {
+					borrowingService.borrowBook(userId, book.getId());
+					successes.incrementAndGet();
+				} catch (RuntimeException e) {
+					// Out of stock or lock timeout; either way no copy was taken
+				}
+				return null;
+			});
+		}
+		start.countDown();
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(2, TimeUnit.MINUTES));
+
+		int remaining = bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies();
+		long borrowed = borrowingRepository.findByBook(book).size();
+		assertTrue(remaining >= 0);
+		assertTrue(successes.get() <= COPIES);
+		assertEquals(COPIES, successes.get() + remaining);
+		assertEquals(successes.get(), borrowed);
+	}
+}
@@ -0,0 +1,129 @@
+package com.example.Library_Management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CoBorrowModelTests {
+
+	private static final int BOOKS = 300;
+
+	@Test
+	void relatedBooksAreScoredByCosineSimilarity() {
+		CoBorrowModel model = new CoBorrowModel(10);
+		// Readers 1 and 2 both read 10 and 11; reader 3 reads 10 and 12
+		record(model, 1, 10, 11);
+		record(model, 2, 10, 11);
+		record(model, 3, 10, 12);
+
+		List<CoBorrowModel.Scored> related = model.related(10, 5);
+
+		assertEquals(List.of(11, 12), related.stream().map(CoBorrowModel.Scored::bookId).toList());
+		// 2 co-readers over sqrt(3 readers of 10 * 2 readers of 11)
+		assertEquals(2 / Math.sqrt(6), related.get(0).score(), 1e-9);
+		assertEquals(1 / Math.sqrt(3), related.get(1).score(), 1e-9);
+		assertTrue(model.related(99, 5).isEmpty());
+	}
+
+	@Test
+	void reborrowingABookCountsNothing() {
+		CoBorrowModel model = new CoBorrowModel(10);
+		record(model, 1, 10, 11);
+
+		assertFalse(model.record(1, 10));
+		assertFalse(model.record(1, 11));
+
+		assertEquals(Map.of(11, 1.0), scores(model.related(10, 5)));
+	}
+
+	@Test
+	void newBorrowsPairOnlyWithTheMostRecentBooks() {
+		CoBorrowModel model = new CoBorrowModel(2);
+		record(model, 1, 10, 11, 12, 13);
+
+		// 13 arrived when the reader's last two books were 11 and 12
+		assertEquals(Map.of(11, 1.0, 12, 1.0), scores(model.related(13, 5)));
+		// 10 left the window before 13, but is still known as read
+		assertFalse(model.record(1, 10));
+	}
+
+	@Test
+	void recommendationsLeaveOutEverythingAlreadyRead() {
+		CoBorrowModel model = new CoBorrowModel(2);
+		record(model, 1, 10, 11, 12);
+		record(model, 2, 12, 10, 13);
+
+		// Reader 2's window is 10 and 13; 10's row also holds 11, 12 and 13
+		List<CoBorrowModel.Scored> recommended = model.recommend(2, 5);
+
+		assertEquals(List.of(11), recommended.stream().map(CoBorrowModel.Scored::bookId).toList());
+		assertTrue(model.recommend(99, 5).isEmpty());
+	}
+
+	@Test
+	void mergingDisjointReadersMatchesRecordingThemTogether() {
+		CoBorrowModel together = new CoBorrowModel(3);
+		CoBorrowModel left = new CoBorrowModel(3);
+		CoBorrowModel right = new CoBorrowModel(3);
+		record(together, 1, 10, 11, 12);
+		record(together, 2000, 11, 12, 13);
+		record(left, 1, 10, 11, 12);
+		record(right, 2000, 11, 12, 13);
+
+		left.merge(right);
+
+		for (int book = 10; book <= 13; book++) {
+			assertEquals(scores(together.related(book, BOOKS)), scores(left.related(book, BOOKS)));
+		}
+		assertEquals(scores(together.recommend(2000, BOOKS)), scores(left.recommend(2000, BOOKS)));
+		assertFalse(left.record(2000, 13));
+	}
+
+	@Test
+	void forkJoinBuildEqualsASequentialBuild() {
+		Random random = new Random(7);
+		List<int[]> histories = new ArrayList<>();
+		for (int user = 1; user <= 6000; user++) {
+			int[] history = new int[1 + 1 + random.nextInt(12)];
+			history[0] = user;
+			for (int i = 1; i < history.length; i++) {
+				// Skewed towards low ids so rows overlap, with some re-borrows
+				history[i] = 1 + (int) (BOOKS * Math.pow(random.nextDouble(), 2));
+			}
+			histories.add(history);
+		}
+
+		CoBorrowModel sequential = new CoBorrowModel(5);
+		for (int[] history : histories) {
+			for (int i = 1; i < history.length; i++) {
+				sequential.record(history[0], history[i]);
+			}
+		}
+		CoBorrowModel parallel = RecommendationService.build(histories, 5);
+
+		for (int book = 1; book <= BOOKS; book++) {
+			assertEquals(scores(sequential.related(book, BOOKS)), scores(parallel.related(book, BOOKS)), "book " + book);
+		}
+		for (int user = 1; user <= 6000; user += 97) {
+			assertEquals(scores(sequential.recommend(user, BOOKS)), scores(parallel.recommend(user, BOOKS)), "user " + user);
+		}
+	}
+
+	private static void record(CoBorrowModel model, int userId, int... bookIds) {
+		for (int bookId : bookIds) {
+			assertTrue(model.record(userId, bookId));
+		}
+	}
+
+	private static Map<Integer, Double> scores(List<CoBorrowModel.Scored> scored) {
+		return scored.stream().collect(Collectors.toMap(CoBorrowModel.Scored::bookId, CoBorrowModel.Scored::score));
+	}
+}
@@ -0,0 +1,60 @@
+package com.example.Library_Management.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class CsvRecordReaderTests {
+
+	@Test
+	void quotedFieldsKeepCommasEscapedQuotesAndNewlines() throws IOException {
+		List<List<String>> records = readAll("title,description\r\n"
+				+ "\"Dune, Deluxe\",\"The \"\"spice\"\" must flow\nand it does\"\r\n"
+				+ "Plain,\"\"\n");
+
+		assertEquals(List.of(
+				List.of("title", "description"),
+				List.of("Dune, Deluxe", "The \"spice\" must flow\nand it does"),
+				List.of("Plain", "")), records);
+	}
+
+	@Test
+	void emptyFieldsAndMissingTrailingNewlineAreKept() throws IOException {
+		assertEquals(List.of(List.of("a", "", "c"), List.of("", "")), readAll("a,,c\n,"));
+	}
+
+	@Test
+	void aLoneCarriageReturnEndsARecord() throws IOException {
+		assertEquals(List.of(List.of("a"), List.of("b")), readAll("a\rb"));
+	}
+
+	@Test
+	void quotesInsideAnUnquotedFieldAreLiteral() throws IOException {
+		assertEquals(List.of(List.of("5\" floppy", "x")), readAll("5\" floppy,x\n"));
+	}
+
+	@Test
+	void anUnterminatedQuoteIsAnError() throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader("ok\n\"never closed,\nmore"));
+		assertEquals(List.of("ok"), reader.next());
+		assertThrows(IOException.class, reader::next);
+	}
+
+	private static List<List<String>> readAll(String csv) throws IOException {
+		CsvRecordReader reader = new CsvRecordReader(new StringReader(csv));
+		List<List<String>> records = new ArrayList<>();
+		List<String> record;
+		while ((record = reader.next()) != null) {
+			records.add(record);
+		}
+		assertNull(reader.next());
+		return records;
+	}
+}
@@ -0,0 +1,61 @@
+package com.example.Library_Management.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class DenseIdsTests {
+
+	@Test
+	void idsGetConsecutiveIndexesFromOne() {
+		DenseIds ids = new DenseIds();
+
+		assertEquals(1, ids.add(5_000_000_000L));
+		assertEquals(2, ids.add(7));
+		assertEquals(1, ids.add(5_000_000_000L));
+		assertEquals(2, ids.size());
+		assertEquals(5_000_000_000L, ids.idAt(1));
+		assertEquals(7, ids.idAt(2));
+	}
+
+	@Test
+	void unknownIdsHaveNoIndex() {
+		DenseIds ids = new DenseIds();
+		ids.add(7);
+
+		assertEquals(0, ids.indexOf(8));
+		assertEquals(0, ids.indexOf(Long.MAX_VALUE));
+		assertThrows(IndexOutOfBoundsException.class, () -> ids.idAt(0));
+		assertThrows(IndexOutOfBoundsException.class, () -> ids.idAt(2));
+	}
+
+	@Test
+	void zeroNegativeAndExtremeIdsAreOrdinaryKeys() {
+		DenseIds ids = new DenseIds();
+		long[] keys = {0, -1, Long.MIN_VALUE, Long.MAX_VALUE, Integer.MAX_VALUE + 1L};
+		for (long key : keys) {
+			ids.add(key);
+		}
+
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(i + 1, ids.indexOf(keys[i]));
+			assertEquals(keys[i], ids.idAt(i + 1));
+		}
+	}
+
+	@Test
+	void indexesSurviveGrowth() {
+		DenseIds ids = new DenseIds();
+		// Sparse ids, far apart, so collisions and resizes both happen
+		for (long id = 1; id <= 20_000; id++) {
+			assertEquals((int) id, ids.add(id * 1_000_003L));
+		}
+
+		assertEquals(20_000, ids.size());
+		for (long id = 1; id <= 20_000; id++) {
+			assertEquals((int) id, ids.indexOf(id * 1_000_003L));
+			assertEquals(id * 1_000_003L, ids.idAt((int) id));
+		}
+	}
+}
@@ -0,0 +1,138 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.HoldDTO;
+import com.example.Library_Management.entity.Hold.HoldStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HoldNotifierTests {
+
+	private final List<RecordingEmitter> emitters = new CopyOnWriteArrayList<>();
+	private HoldNotifier notifier;
+
+	@BeforeEach
+	void setUp() {
+		notifier = new HoldNotifier() {
+			@Override
+			SseEmitter newEmitter() {
+				RecordingEmitter emitter = new RecordingEmitter();
+				emitters.add(emitter);
+				return emitter;
+			}
+		};
+		ReflectionTestUtils.setField(notifier, "timeout", Duration.ofMinutes(5));
+		ReflectionTestUtils.setField(notifier, "outboxSize", 4);
+		ReflectionTestUtils.setField(notifier, "writerThreads", 2);
+		notifier.start();
+	}
+
+	@AfterEach
+	void tearDown() {
+		notifier.stop();
+	}
+
+	@Test
+	void holdEventsReachEveryStreamOfTheHolderOnly() throws Exception {
+		RecordingEmitter phone = subscribe(7L);
+		RecordingEmitter laptop = subscribe(7L);
+		RecordingEmitter someoneElse = subscribe(8L);
+
+		notifier.send(HoldNotifier.HOLD_READY, hold(31L, 7L));
+
+		String event = phone.next();
+		assertTrue(event.contains("event:hold-ready\n"));
+		assertTrue(event.contains("id:hold-ready-31\n"));
+		assertTrue(laptop.next().contains("id:hold-ready-31"));
+		assertNull(someoneElse.poll());
+		assertEquals(3, notifier.getSubscriberCount());
+	}
+
+	@Test
+	void aStalledStreamHoldsUpNeitherSendersNorTheHeartbeat() throws Exception {
+		RecordingEmitter stalled = subscribe(7L);
+		stalled.gate = new CountDownLatch(1);
+		RecordingEmitter healthy = subscribe(7L);
+
+		// Returns and the scheduler only enqueue, so they finish while the stalled send hangs
+		assertTimeoutPreemptively(Duration.ofSeconds(5), () -> {
+			for (long id = 1; id <= 8; id++) {
+				notifier.send(HoldNotifier.HOLD_EXPIRED, hold(id, 7L));
+				assertTrue(healthy.next().contains("id:hold-expired-" + id));
+			}
+			notifier.heartbeat();
+		});
+		assertTrue(healthy.next().contains("keepalive"));
+
+		// One event is stuck in the stalled send and four filled its outbox, so it was dropped
+		assertEquals(1, notifier.getSubscriberCount());
+		stalled.gate.countDown();
+		assertTrue(stalled.completed.await(5, TimeUnit.SECONDS));
+	}
+
+	private RecordingEmitter subscribe(Long userId) {
+		notifier.subscribe(userId);
+		return emitters.get(emitters.size() - 1);
+	}
+
+	private static HoldDTO hold(Long id, Long userId) {
+		return new HoldDTO(id, userId, "reader" + userId, 3L, "Kept Copy", HoldStatus.READY, 0,
+				LocalDateTime.now(), LocalDateTime.now(), LocalDateTime.now().plusDays(3));
+	}
+
+	// Captures the text parts of each event; the hold itself is serialized by the container
+	private static class RecordingEmitter extends SseEmitter {
+
+		final BlockingQueue<String> sent = new LinkedBlockingQueue<>();
+		final CountDownLatch completed = new CountDownLatch(1);
+		volatile CountDownLatch gate;
+
+		@Override
+		public void send(Set<DataWithMediaType> items) {
+			if (gate != null) {
+				try {
+					gate.await(30, TimeUnit.SECONDS);
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			StringBuilder text = new StringBuilder();
+			items.stream().filter(item -> item.getData() instanceof String).forEach(item -> text.append(item.getData()));
+			sent.add(text.toString());
+		}
+
+		@Override
+		public void complete() {
+			completed.countDown();
+			super.complete();
+		}
+
+		String next() throws InterruptedException {
+			String text = sent.poll(5, TimeUnit.SECONDS);
+			assertNotNull(text, "no event sent");
+			return text;
+		}
+
+		String poll() throws InterruptedException {
+			return sent.poll(200, TimeUnit.MILLISECONDS);
+		}
+	}
+}
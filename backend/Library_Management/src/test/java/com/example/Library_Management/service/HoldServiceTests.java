@@ -0,0 +1,202 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.HoldDTO;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.entity.Borrowing;
+import com.example.Library_Management.entity.Hold;
+import com.example.Library_Management.entity.Hold.HoldStatus;
+import com.example.Library_Management.entity.User;
+import com.example.Library_Management.repository.BookRepository;
+import com.example.Library_Management.repository.HoldRepository;
+import com.example.Library_Management.repository.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+class HoldServiceTests {
+
+	private static final AtomicInteger SEQUENCE = new AtomicInteger();
+
+	@Autowired
+	private HoldService holdService;
+
+	@Autowired
+	private BorrowingService borrowingService;
+
+	@Autowired
+	private HoldRepository holdRepository;
+
+	@Autowired
+	private BookRepository bookRepository;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Test
+	void returnedCopyGoesToTheWaitingHolder() {
+		Book book = book(1);
+		Borrowing borrowing = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		User holder = user(User.Role.STUDENT);
+		HoldDTO hold = holdService.placeHold(holder.getId(), book.getId());
+		assertEquals(1L, hold.getPosition());
+
+		borrowingService.returnBook(borrowing.getId());
+
+		assertEquals(HoldStatus.READY, status(hold));
+		assertTrue(holdRepository.findById(hold.getId()).orElseThrow().getExpiresAt().isAfter(LocalDateTime.now()));
+		// The copy is kept for the holder, not put back on the shelf
+		assertEquals(0, copies(book));
+	}
+
+	@Test
+	void staffHoldsAreServedBeforeEarlierStudentHolds() {
+		Book book = book(1);
+		Borrowing borrowing = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO studentHold = holdService.placeHold(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO staffHold = holdService.placeHold(user(User.Role.LIBRARIAN).getId(), book.getId());
+		assertEquals(1L, staffHold.getPosition());
+
+		borrowingService.returnBook(borrowing.getId());
+
+		assertEquals(HoldStatus.READY, status(staffHold));
+		assertEquals(HoldStatus.WAITING, status(studentHold));
+	}
+
+	@Test
+	void holderPicksUpTheKeptCopy() {
+		Book book = book(1);
+		Borrowing borrowing = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		User holder = user(User.Role.STUDENT);
+		HoldDTO hold = holdService.placeHold(holder.getId(), book.getId());
+		borrowingService.returnBook(borrowing.getId());
+
+		// Nobody else can take the kept copy
+		User other = user(User.Role.STUDENT);
+		assertThrows(RuntimeException.class, () -> borrowingService.borrowBook(other.getId(), book.getId()));
+
+		borrowingService.borrowBook(holder.getId(), book.getId());
+
+		assertEquals(HoldStatus.FULFILLED, status(hold));
+		assertEquals(0, copies(book));
+	}
+
+	@Test
+	void expiryPassesTheCopyOnAndFinallyBackToTheShelf() {
+		Book book = book(1);
+		Borrowing borrowing = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO first = holdService.placeHold(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO second = holdService.placeHold(user(User.Role.STUDENT).getId(), book.getId());
+		borrowingService.returnBook(borrowing.getId());
+		assertEquals(HoldStatus.READY, status(first));
+
+		expireNow(first);
+		holdService.expireHolds();
+
+		assertEquals(HoldStatus.EXPIRED, status(first));
+		assertEquals(HoldStatus.READY, status(second));
+		assertEquals(0, copies(book));
+
+		expireNow(second);
+		holdService.expireHolds();
+
+		assertEquals(HoldStatus.EXPIRED, status(second));
+		assertEquals(1, copies(book));
+	}
+
+	@Test
+	void cancellingAReadyHoldPassesTheCopyOn() {
+		Book book = book(1);
+		Borrowing borrowing = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO first = holdService.placeHold(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO second = holdService.placeHold(user(User.Role.STUDENT).getId(), book.getId());
+		borrowingService.returnBook(borrowing.getId());
+
+		holdService.cancelHold(first.getId());
+
+		assertEquals(HoldStatus.CANCELLED, status(first));
+		assertEquals(HoldStatus.READY, status(second));
+		assertEquals(0, copies(book));
+	}
+
+	@Test
+	void holdsAreRejectedWhileACopyIsOnTheShelfOrAlreadyHeld() {
+		Book available = book(1);
+		assertThrows(RuntimeException.class,
+				() -> holdService.placeHold(user(User.Role.STUDENT).getId(), available.getId()));
+
+		Book book = book(1);
+		borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		User holder = user(User.Role.STUDENT);
+		holdService.placeHold(holder.getId(), book.getId());
+		assertThrows(RuntimeException.class, () -> holdService.placeHold(holder.getId(), book.getId()));
+	}
+
+	@Test
+	void concurrentReturnsGiveTheOnlyHolderOneCopy() throws Exception {
+		Book book = book(2);
+		Borrowing first = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		Borrowing second = borrowingService.borrowBook(user(User.Role.STUDENT).getId(), book.getId());
+		HoldDTO hold = holdService.placeHold(user(User.Role.STUDENT).getId(), book.getId());
+
+		ExecutorService executor = Executors.newFixedThreadPool(2);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<Borrowing>> returns = List.of(
+				executor.submit(() -> {
+					start.await();
+					return borrowingService.returnBook(first.getId());
+				}),
+				executor.submit(() -> {
+					start.await();
+					return borrowingService.returnBook(second.getId());
+				}));
+		start.countDown();
+		for (Future<Borrowing> result : returns) {
+			result.get(30, TimeUnit.SECONDS);
+		}
+		executor.shutdown();
+		assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+		assertEquals(HoldStatus.READY, status(hold));
+		assertEquals(1, copies(book));
+	}
+
+	private Book book(int copies) {
+		int n = SEQUENCE.incrementAndGet();
+		return bookRepository.save(new Book("Held Title " + n, "Hold Author", "hold-isbn-" + n,
+				"Testing", 2024, null, copies));
+	}
+
+	private User user(User.Role role) {
+		int n = SEQUENCE.incrementAndGet();
+		return userRepository.save(new User("holder" + n, "secret", "holder" + n + "@library.com",
+				"Hold", "Er" + n, role));
+	}
+
+	private HoldStatus status(HoldDTO hold) {
+		return holdRepository.findById(hold.getId()).orElseThrow().getStatus();
+	}
+
+	private int copies(Book book) {
+		return bookRepository.findById(book.getId()).orElseThrow().getAvailableCopies();
+	}
+
+	private void expireNow(HoldDTO dto) {
+		Hold hold = holdRepository.findById(dto.getId()).orElseThrow();
+		hold.setExpiresAt(LocalDateTime.now().minusMinutes(1));
+		holdRepository.save(hold);
+	}
+}
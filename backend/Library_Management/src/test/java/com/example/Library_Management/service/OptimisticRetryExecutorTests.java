@@ -0,0 +1,111 @@
+package com.example.Library_Management.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class OptimisticRetryExecutorTests {
+
+	private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+	private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final OptimisticRetryExecutor executor = new OptimisticRetryExecutor(transactionManager, meterRegistry);
+
+	@Test
+	void conflictsAreRetriedInAFreshTransaction() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		String result = executor.execute("test.op", () -> {
+			if (attempts.incrementAndGet() < 3) {
+				throw new OptimisticLockingFailureException("stale");
+			}
+			return "done";
+		});
+
+		assertEquals("done", result);
+		assertEquals(3, attempts.get());
+		assertEquals(3, transactionManager.begun.get());
+		assertEquals(1, transactionManager.committed.get());
+		assertEquals(2.0, count("library.optimistic.retries"));
+	}
+
+	@Test
+	void conflictIsRethrownOnceAttemptsRunOut() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThrows(OptimisticLockingFailureException.class, () -> executor.run("test.op", () -> {
+			attempts.incrementAndGet();
+			throw new OptimisticLockingFailureException("stale");
+		}));
+
+		assertEquals(OptimisticRetryExecutor.MAX_ATTEMPTS, attempts.get());
+		assertEquals(OptimisticRetryExecutor.MAX_ATTEMPTS - 1, count("library.optimistic.retries"));
+		assertEquals(1.0, count("library.optimistic.exhausted"));
+	}
+
+	@Test
+	void otherFailuresAreNotRetried() {
+		AtomicInteger attempts = new AtomicInteger();
+
+		assertThrows(IllegalStateException.class, () -> executor.run("test.op", () -> {
+			attempts.incrementAndGet();
+			throw new IllegalStateException("broken");
+		}));
+
+		assertEquals(1, attempts.get());
+		assertEquals(1, transactionManager.rolledBack.get());
+	}
+
+	@Test
+	void insideAnOuterTransactionTheActionRunsOnce() {
+		AtomicInteger attempts = new AtomicInteger();
+		TransactionSynchronizationManager.setActualTransactionActive(true);
+		try {
+			assertThrows(OptimisticLockingFailureException.class, () -> executor.run("test.op", () -> {
+				attempts.incrementAndGet();
+				throw new OptimisticLockingFailureException("stale");
+			}));
+		} finally {
+			TransactionSynchronizationManager.setActualTransactionActive(false);
+		}
+
+		assertEquals(1, attempts.get());
+		assertEquals(0, transactionManager.begun.get());
+	}
+
+	private double count(String name) {
+		return meterRegistry.get(name).tag("operation", "test.op").counter().count();
+	}
+
+	private static class RecordingTransactionManager implements PlatformTransactionManager {
+
+		final AtomicInteger begun = new AtomicInteger();
+		final AtomicInteger committed = new AtomicInteger();
+		final AtomicInteger rolledBack = new AtomicInteger();
+
+		@Override
+		public TransactionStatus getTransaction(TransactionDefinition definition) {
+			begun.incrementAndGet();
+			return new SimpleTransactionStatus();
+		}
+
+		@Override
+		public void commit(TransactionStatus status) {
+			committed.incrementAndGet();
+		}
+
+		@Override
+		public void rollback(TransactionStatus status) {
+			rolledBack.incrementAndGet();
+		}
+	}
+}
@@ -0,0 +1,158 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BorrowingDTO;
+import com.example.Library_Management.entity.Borrowing.BorrowStatus;
+import com.example.Library_Management.repository.BorrowingRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.lang.reflect.Proxy;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OverdueTrackerTests {
+
+	private final BlockingQueue<Long> written = new LinkedBlockingQueue<>();
+	private OverdueTracker tracker;
+
+	@BeforeEach
+	void setUp() {
+		tracker = new OverdueTracker();
+		ReflectionTestUtils.setField(tracker, "jdbcTemplate", new JdbcTemplate() {
+			@Override
+			public <T> int[][] batchUpdate(String sql, Collection<T> batchArgs, int batchSize,
+					ParameterizedPreparedStatementSetter<T> pss) {
+				batchArgs.forEach(id -> written.add((Long) id));
+				return new int[0][];
+			}
+		});
+		ReflectionTestUtils.setField(tracker, "transactionManager", new PlatformTransactionManager() {
+			@Override
+			public TransactionStatus getTransaction(TransactionDefinition definition) {
+				return new SimpleTransactionStatus();
+			}
+
+			@Override
+			public void commit(TransactionStatus status) {
+			}
+
+			@Override
+			public void rollback(TransactionStatus status) {
+			}
+		});
+	}
+
+	@AfterEach
+	void tearDown() {
+		tracker.shutdown();
+	}
+
+	@Test
+	void pastDueBorrowingsTurnOverdueInIdOrderAndAreWrittenBack() throws Exception {
+		LocalDateTime past = LocalDateTime.now().minusDays(1);
+		tracker.track(borrowing(3L, BorrowStatus.BORROWED, past.minusDays(2)));
+		tracker.track(borrowing(1L, BorrowStatus.BORROWED, past));
+		tracker.track(borrowing(2L, BorrowStatus.BORROWED, past.minusDays(1)));
+		tracker.track(borrowing(4L, BorrowStatus.BORROWED, LocalDateTime.now().plusHours(1)));
+
+		assertEquals(List.of(1L, 2L, 3L), List.of(nextWrite(), nextWrite(), nextWrite()).stream().sorted().toList());
+		assertNull(written.poll(200, TimeUnit.MILLISECONDS));
+		List<BorrowingDTO> overdue = tracker.getOverdueBorrowings();
+		assertEquals(List.of(1L, 2L, 3L), overdue.stream().map(BorrowingDTO::getId).toList());
+		assertTrue(overdue.stream().allMatch(b -> BorrowStatus.OVERDUE.name().equals(b.getStatus())));
+	}
+
+	@Test
+	void anEarlierDueDateBringsTheWakeUpForward() throws Exception {
+		tracker.track(borrowing(1L, BorrowStatus.BORROWED, LocalDateTime.now().plusHours(1)));
+		tracker.track(borrowing(2L, BorrowStatus.BORROWED, LocalDateTime.now().plusNanos(300_000_000)));
+		assertTrue(tracker.getOverdueBorrowings().isEmpty());
+
+		assertEquals(2L, nextWrite());
+		assertEquals(List.of(2L), ids(tracker.getOverdueBorrowings()));
+
+		// Tracking again replaces the earlier due date, as a renewal would
+		tracker.track(borrowing(1L, BorrowStatus.BORROWED, LocalDateTime.now().minusMinutes(1)));
+		assertEquals(1L, nextWrite());
+		assertEquals(List.of(1L, 2L), ids(tracker.getOverdueBorrowings()));
+	}
+
+	@Test
+	void returnedBorrowingsAreNoLongerTracked() throws Exception {
+		tracker.track(borrowing(1L, BorrowStatus.OVERDUE, LocalDateTime.now().minusDays(1)));
+		tracker.track(borrowing(2L, BorrowStatus.BORROWED, LocalDateTime.now().plusNanos(200_000_000)));
+
+		tracker.untrack(1L);
+		tracker.untrack(2L);
+
+		assertNull(written.poll(500, TimeUnit.MILLISECONDS));
+		assertTrue(tracker.getOverdueBorrowings().isEmpty());
+	}
+
+	@Test
+	void aReturnCommittedWhileLoadingIsNotTrackedAgain() {
+		LocalDateTime past = LocalDateTime.now().minusDays(1);
+		List<BorrowingDTO> page = List.of(borrowing(1L, BorrowStatus.OVERDUE, past),
+				borrowing(2L, BorrowStatus.OVERDUE, past));
+		ReflectionTestUtils.setField(tracker, "borrowingRepository", repository(() -> {
+			// Borrowing 1 is returned after its page was read but before the page is tracked
+			tracker.untrack(1L);
+			return page;
+		}));
+
+		tracker.load();
+
+		assertTrue(tracker.isReady());
+		assertEquals(List.of(2L), ids(tracker.getOverdueBorrowings()));
+
+		// The guard only lasts for the load; a later borrowing with the same id is tracked normally
+		tracker.track(borrowing(1L, BorrowStatus.OVERDUE, past));
+		assertEquals(List.of(1L, 2L), ids(tracker.getOverdueBorrowings()));
+	}
+
+	private long nextWrite() throws InterruptedException {
+		Long id = written.poll(5, TimeUnit.SECONDS);
+		assertNotNull(id, "no overdue transition written");
+		return id;
+	}
+
+	private static List<Long> ids(List<BorrowingDTO> borrowings) {
+		return borrowings.stream().map(BorrowingDTO::getId).toList();
+	}
+
+	// Serves one page from findActiveDTOsAfter, then an empty one
+	private static BorrowingRepository repository(Supplier<List<BorrowingDTO>> firstPage) {
+		AtomicBoolean served = new AtomicBoolean();
+		return (BorrowingRepository) Proxy.newProxyInstance(BorrowingRepository.class.getClassLoader(),
+				new Class<?>[] {BorrowingRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findActiveDTOsAfter")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					return served.getAndSet(true) ? List.of() : firstPage.get();
+				});
+	}
+
+	private static BorrowingDTO borrowing(Long id, BorrowStatus status, LocalDateTime dueDate) {
+		return new BorrowingDTO(id, 5L, "reader", 10L + id, "Book " + id, status,
+				dueDate.minusDays(14), dueDate, null);
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.Library_Management.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordServiceTests {
+
+	private PasswordService passwordService;
+
+	@AfterEach
+	void tearDown() {
+		passwordService.shutdown();
+	}
+
+	@Test
+	void plaintextRowsAreAcceptedAndFlaggedForRehash() {
+		passwordService = new PasswordService(5, 1, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
+
+		assertTrue(passwordService.matches("secret1", "secret1"));
+		assertFalse(passwordService.matches("secret2", "secret1"));
+		assertFalse(passwordService.isHashed("secret1"));
+		assertTrue(passwordService.needsRehash("secret1"));
+	}
+
+	@Test
+	void hashesBelowTheConfiguredStrengthAreFlaggedForRehash() {
+		passwordService = new PasswordService(5, 1, 4, Duration.ofSeconds(5), new SimpleMeterRegistry());
+		String cheap = new BCryptPasswordEncoder(4).encode("secret1");
+		String current = passwordService.hash("secret1");
+
+		assertTrue(passwordService.matches("secret1", cheap));
+		assertTrue(passwordService.needsRehash(cheap));
+		assertTrue(passwordService.matches("secret1", current));
+		assertFalse(passwordService.needsRehash(current));
+		assertFalse(passwordService.matches("secret2", current));
+	}
+
+	@Test
+	void callersAreTurnedAwayOnceHashingIsSaturated() {
+		// One thread and a one-slot queue; each hash takes far longer than callers wait
+		passwordService = new PasswordService(14, 1, 1, Duration.ofMillis(100), new SimpleMeterRegistry());
+
+		// Waits out the timeout while its hash keeps the only thread busy
+		RejectedExecutionException timedOut = assertThrows(RejectedExecutionException.class,
+				() -> passwordService.hash("secret1"));
+		assertEquals("Password hashing is saturated", timedOut.getMessage());
+		// Times out in the queue, where its cancelled task keeps the slot until the thread frees up
+		assertThrows(RejectedExecutionException.class, () -> passwordService.hash("secret2"));
+
+		// Neither a thread nor a queue slot is free, so this one is refused without waiting
+		String stored = new BCryptPasswordEncoder(4).encode("secret3");
+		long start = System.nanoTime();
+		RejectedExecutionException refused = assertThrows(RejectedExecutionException.class,
+				() -> passwordService.matches("secret3", stored));
+		assertTrue(Duration.ofNanos(System.nanoTime() - start).toMillis() < 100);
+		assertFalse("Password hashing is saturated".equals(refused.getMessage()));
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.BookRecommendation;
+import com.example.Library_Management.entity.Book;
+import com.example.Library_Management.repository.BookRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RecommendationServiceTests {
+
+	private static final long HUGE = Integer.MAX_VALUE + 10L;
+
+	private RecommendationService service;
+	private CoBorrowModel model;
+
+	@BeforeEach
+	void setUp() {
+		service = new RecommendationService();
+		model = new CoBorrowModel(5);
+		ReflectionTestUtils.setField(service, "bookRepository", catalog());
+		// As if the startup rebuild had found no borrowings
+		ReflectionTestUtils.setField(service, "model", model);
+	}
+
+	@Test
+	void idsOutOfIntRangeAreRecordedAndRecommended() {
+		service.recordBorrow(HUGE, HUGE);
+		service.recordBorrow(HUGE, 3L);
+		service.recordBorrow(Long.MAX_VALUE, Long.MAX_VALUE);
+		service.recordBorrow(Long.MAX_VALUE, 3L);
+
+		assertEquals(List.of(3L), bookIds(service.getRelatedBooks(HUGE, 5)));
+		assertEquals(List.of(HUGE, Long.MAX_VALUE), bookIds(service.getRelatedBooks(3L, 5)).stream().sorted().toList());
+		assertEquals(List.of(HUGE), bookIds(service.getRecommendationsForUser(Long.MAX_VALUE, 5)));
+	}
+
+	@Test
+	void unknownZeroAndNegativeIdsGetNothing() {
+		service.recordBorrow(1L, 2L);
+		service.recordBorrow(1L, 3L);
+
+		assertTrue(service.getRelatedBooks(-5L, 5).isEmpty());
+		assertTrue(service.getRelatedBooks(0L, 5).isEmpty());
+		assertTrue(service.getRelatedBooks(Long.MAX_VALUE, 5).isEmpty());
+		assertTrue(service.getRecommendationsForUser(-1L, 5).isEmpty());
+		assertEquals(List.of(3L), bookIds(service.getRelatedBooks(2L, 5)));
+	}
+
+	@Test
+	void largeIdsDoNotGrowTheModel() {
+		for (long i = 0; i < 100; i++) {
+			service.recordBorrow(HUGE + i, 1_000_000_000L + i);
+		}
+
+		Object[] rows = (Object[]) ReflectionTestUtils.getField(model, "rows");
+		Object[] histories = (Object[]) ReflectionTestUtils.getField(model, "histories");
+		assertEquals(1024, rows.length);
+		assertEquals(1024, histories.length);
+	}
+
+	private static List<Long> bookIds(List<BookRecommendation> recommendations) {
+		return recommendations.stream().map(r -> r.getBook().getId()).toList();
+	}
+
+	// Every requested id is an active book
+	private static BookRepository catalog() {
+		return (BookRepository) Proxy.newProxyInstance(BookRepository.class.getClassLoader(),
+				new Class<?>[] {BookRepository.class}, (proxy, method, args) -> {
+					if (!method.getName().equals("findAllById")) {
+						throw new UnsupportedOperationException(method.getName());
+					}
+					List<Book> books = new ArrayList<>();
+					for (Object id : (Iterable<?>) args[0]) {
+						Book book = new Book("Book " + id, "Author", "isbn-" + id, "Fiction", 2000, null, 1);
+						book.setId((Long) id);
+						books.add(book);
+					}
+					return books;
+				});
+	}
+}
@@ -0,0 +1,114 @@
+package com.example.Library_Management.service;
+
+import com.example.Library_Management.dto.AuthenticatedUser;
+import com.example.Library_Management.entity.User;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenServiceTests {
+
+	private static final String SECRET = "0123456789abcdef0123456789abcdef";
+
+	private TokenService tokenService;
+	private User student;
+	private User librarian;
+
+	@BeforeEach
+	void setUp() {
+		tokenService = new TokenService(new ObjectMapper(), SECRET, Duration.ofHours(1));
+		student = user(1L, "student", User.Role.STUDENT);
+		librarian = user(2L, "librarian", User.Role.LIBRARIAN);
+	}
+
+	@Test
+	void issuedTokenVerifiesWithItsClaims() {
+		AuthenticatedUser verified = tokenService.verify(tokenService.issue(librarian)).orElseThrow();
+
+		assertEquals(2L, verified.getUserId());
+		assertEquals("librarian", verified.getUsername());
+		assertEquals(User.Role.LIBRARIAN, verified.getRole());
+		assertTrue(verified.isStaff());
+	}
+
+	@Test
+	void tamperedSignatureIsRejected() {
+		String token = tokenService.issue(student);
+		// The last base64 character carries unused bits, so flip the first one of the signature
+		int signature = token.lastIndexOf('.') + 1;
+		char first = token.charAt(signature);
+		String tampered = token.substring(0, signature) + (first == 'A' ? 'B' : 'A') + token.substring(signature + 1);
+
+		assertTrue(tokenService.verify(tampered).isEmpty());
+	}
+
+	@Test
+	void tamperedPayloadIsRejected() {
+		String[] parts = tokenService.issue(student).split("\\.");
+		String payload = new String(Base64.getUrlDecoder().decode(parts[1]), StandardCharsets.UTF_8)
+				.replace("\"STUDENT\"", "\"ADMIN\"");
+		String forged = parts[0] + "." + Base64.getUrlEncoder().withoutPadding()
+				.encodeToString(payload.getBytes(StandardCharsets.UTF_8)) + "." + parts[2];
+
+		assertTrue(tokenService.verify(forged).isEmpty());
+	}
+
+	@Test
+	void tokenSignedWithAnotherKeyIsRejected() {
+		TokenService other = new TokenService(new ObjectMapper(), "another-secret-another-secret-00", Duration.ofHours(1));
+
+		assertTrue(tokenService.verify(other.issue(student)).isEmpty());
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		TokenService shortLived = new TokenService(new ObjectMapper(), SECRET, Duration.ZERO);
+
+		assertTrue(shortLived.verify(shortLived.issue(student)).isEmpty());
+	}
+
+	@Test
+	void malformedTokensAreRejected() {
+		assertTrue(tokenService.verify(null).isEmpty());
+		assertTrue(tokenService.verify("").isEmpty());
+		assertTrue(tokenService.verify("not-a-token").isEmpty());
+		assertTrue(tokenService.verify("a.b.c").isEmpty());
+	}
+
+	@Test
+	void revokeRejectsOnlyThatToken() {
+		String first = tokenService.issue(student);
+		String second = tokenService.issue(student);
+
+		tokenService.revoke(tokenService.verify(first).orElseThrow());
+
+		assertTrue(tokenService.verify(first).isEmpty());
+		assertTrue(tokenService.verify(second).isPresent());
+	}
+
+	@Test
+	void revokeAllForRejectsEveryTokenOfThatUserOnly() {
+		String first = tokenService.issue(student);
+		String second = tokenService.issue(student);
+		String otherUser = tokenService.issue(librarian);
+
+		tokenService.revokeAllFor(student.getId());
+
+		assertTrue(tokenService.verify(first).isEmpty());
+		assertTrue(tokenService.verify(second).isEmpty());
+		assertTrue(tokenService.verify(otherUser).isPresent());
+	}
+
+	private static User user(Long id, String username, User.Role role) {
+		User user = new User(username, "secret", username + "@library.com", "Test", "User", role);
+		user.setId(id);
+		return user;
+	}
+}
@@ -3,6 +3,7 @@ import { BrowserRouter as Router, Routes, Route, Navigate, useLocation } from 'r
 import Navbar from './Components/Navbar';
 import ErrorBoundary from './Components/ErrorBoundary';
 import LoadingSpinner from './Components/LoadingSpinner';
+import apiService from './services/api';
 
 // Lazy load pages
 const Dashboard = lazy(() => import('./Components/Dashboard/Dashboard'));
@@ -54,6 +55,7 @@ const AppContent = () => {
 
   // Logout function
   const logout = () => {
+    apiService.logout();
     localStorage.removeItem('authToken');
     localStorage.removeItem('userData');
     setUser(null);
@@ -243,8 +243,8 @@ const Books = () => {
                   </span>
                 </div>
 
-                {book.description && (
-                  <p className={styles.bookDescription}>{book.description}</p>
+                {(book.excerpt || book.description) && (
+                  <p className={styles.bookDescription}>{book.excerpt || book.description}</p>
                 )}
 
                 <div className={styles.bookActions}>
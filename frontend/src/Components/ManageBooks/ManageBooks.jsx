@@ -115,7 +115,15 @@ const ManageBooks = () => {
     }
   };
 
-  const handleEditBook = (book) => {
+  const handleEditBook = async (book) => {
+    // List entries carry only an excerpt; load the full record so saving keeps the whole description
+    try {
+      book = await apiService.getBookById(book.id);
+    } catch (error) {
+      console.error('Error loading book:', error);
+      showMessage('error', 'Failed to load book details. Please try again.');
+      return;
+    }
     setEditingBook(book);
     setFormData({
       title: book.title,
@@ -406,8 +414,8 @@ const ManageBooks = () => {
                       {book.availableCopies} of {book.totalCopies} available
                     </span>
                   </div>
-                  {book.description && (
-                    <p className={styles.bookDescription}>{book.description}</p>
+                  {(book.excerpt || book.description) && (
+                    <p className={styles.bookDescription}>{book.excerpt || book.description}</p>
                   )}
                 </div>
 
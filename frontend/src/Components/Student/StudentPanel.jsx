@@ -60,10 +60,10 @@ const StudentPanel = () => {
 
       // Separate active borrowings and history from all borrowings
       const activeBorrowings = (historyBorrowingsData || []).filter(b =>
-        b.status === 'BORROWED' || b.status === 'ACTIVE' || b.status === 'PENDING'
+        b.status === 'BORROWED' || b.status === 'OVERDUE' || b.status === 'ACTIVE' || b.status === 'PENDING'
       );
       const history = (historyBorrowingsData || []).filter(b =>
-        b.status === 'RETURNED' || b.status === 'COMPLETED' || b.status === 'OVERDUE'
+        b.status === 'RETURNED' || b.status === 'COMPLETED'
       );
 
       // Use active borrowings from dedicated endpoint if available, otherwise use filtered data
@@ -142,10 +142,10 @@ const StudentPanel = () => {
 
         // Separate active borrowings and history
         const activeBorrowings = (borrowingsData || []).filter(b =>
-          b.status === 'BORROWED' || b.status === 'ACTIVE' || b.status === 'PENDING'
+          b.status === 'BORROWED' || b.status === 'OVERDUE' || b.status === 'ACTIVE' || b.status === 'PENDING'
         );
         const history = (borrowingsData || []).filter(b =>
-          b.status === 'RETURNED' || b.status === 'COMPLETED' || b.status === 'OVERDUE'
+          b.status === 'RETURNED' || b.status === 'COMPLETED'
         );
 
         setBorrowedBooks(activeBorrowings);
@@ -267,6 +267,47 @@ const StudentPanel = () => {
     }
   };
 
+  const handlePlaceHold = async (bookId) => {
+    setActionLoading(`hold-${bookId}`);
+    setError(null);
+
+    try {
+      const hold = await apiService.placeHold(bookId);
+      setError({ type: 'success', text: `Hold placed. You are number ${hold.position} in the queue.` });
+    } catch (error) {
+      setError(error.message || 'Failed to place hold. Please try again.');
+    } finally {
+      setActionLoading(null);
+    }
+  };
+
+  // Copies borrowed or returned by other readers show up without a reload
+  useEffect(() => {
+    const applyDeltas = (list, changes) => list.map(book => {
+      const change = changes.get(book.id);
+      return change ? { ...book, availableCopies: change.availableCopies } : book;
+    });
+    return apiService.subscribeToAvailability((deltas) => {
+      const changes = new Map(deltas.map(delta => [delta.bookId, delta]));
+      setBooks(current => applyDeltas(current, changes));
+      setFilteredBooks(current => applyDeltas(current, changes));
+    }, () => loadStudentData());
+  }, []);
+
+  // Hold events arrive over server-sent events while the panel is open
+  useEffect(() => {
+    if (!user?.id) {
+      return undefined;
+    }
+    return apiService.subscribeToHoldEvents((type, hold) => {
+      if (type === 'hold-ready') {
+        setError({ type: 'success', text: `"${hold.bookTitle}" is waiting for you. Borrow it before ${new Date(hold.expiresAt).toLocaleString()}.` });
+      } else if (type === 'hold-expired') {
+        setError(`Your hold on "${hold.bookTitle}" expired before it was picked up.`);
+      }
+    });
+  }, [user?.id]);
+
   const handleReturnBook = async (borrowingId) => {
     setActionLoading(`return-${borrowingId}`);
     setError(null);
@@ -578,8 +619,8 @@ const StudentPanel = () => {
                         </span>
                       </div>
 
-                      {book.description && (
-                        <p className={styles.bookDescription}>{book.description}</p>
+                      {(book.excerpt || book.description) && (
+                        <p className={styles.bookDescription}>{book.excerpt || book.description}</p>
                       )}
 
                       <div className={styles.bookActions}>
@@ -607,8 +648,13 @@ const StudentPanel = () => {
                             {isBorrowing ? 'Borrowing...' : 'Borrow Book'}
                           </button>
                         ) : (
-                          <button className={styles.unavailableButton} disabled>
-                            Not Available
+                          <button
+                            className={styles.unavailableButton}
+                            onClick={() => handlePlaceHold(book.id)}
+                            disabled={actionLoading === `hold-${book.id}`}
+                          >
+                            <Clock size={16} />
+                            Place Hold
                           </button>
                         )}
                       </div>
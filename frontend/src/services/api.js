@@ -72,6 +72,16 @@ class ApiService {
     return response.json();
   }
 
+  // Revoke the token server-side; local state is cleared even if the call fails
+  async logout() {
+    const headers = this.getHeaders();
+    localStorage.removeItem('token');
+    localStorage.removeItem('userData');
+    if (headers.Authorization) {
+      await fetch(`${this.baseURL}/auth/logout`, { method: 'POST', headers }).catch(() => {});
+    }
+  }
+
   // Book endpoints
   async getBooks() {
     const response = await fetch(`${this.baseURL}/books`, {
@@ -94,6 +104,36 @@ class ApiService {
     return this.handleResponse(response);
   }
 
+  // Books most often borrowed by readers of this one
+  async getRelatedBooks(id, limit = 10) {
+    const response = await fetch(`${this.baseURL}/books/${id}/related?limit=${limit}`, {
+      headers: this.getHeaders()
+    });
+    return this.handleResponse(response);
+  }
+
+  // Title and author completions for a partly typed query, typo tolerant
+  async suggestBooks(query, limit = 8) {
+    const response = await fetch(`${this.baseURL}/books/suggest?q=${encodeURIComponent(query)}&limit=${limit}`, {
+      headers: this.getHeaders()
+    });
+    return this.handleResponse(response);
+  }
+
+  // Counts by category, author, decade and availability; filters are arrays of facet values
+  async getBookFacets({ q, categories = [], authors = [], decades = [], available } = {}) {
+    const params = new URLSearchParams();
+    if (q) params.append('q', q);
+    categories.forEach(c => params.append('category', c));
+    authors.forEach(a => params.append('author', a));
+    decades.forEach(d => params.append('decade', d));
+    if (available !== undefined) params.append('available', available);
+    const response = await fetch(`${this.baseURL}/books/facets?${params}`, {
+      headers: this.getHeaders()
+    });
+    return this.handleResponse(response);
+  }
+
   async getBookById(id) {
     const response = await fetch(`${this.baseURL}/books/${id}`, {
       headers: this.getHeaders()
@@ -146,6 +186,13 @@ class ApiService {
     return this.handleResponse(response);
   }
 
+  async getRecommendations(userId, limit = 10) {
+    const response = await fetch(`${this.baseURL}/users/${userId}/recommendations?limit=${limit}`, {
+      headers: this.getHeaders()
+    });
+    return this.handleResponse(response);
+  }
+
   async updateUser(id, userData) {
     const response = await fetch(`${this.baseURL}/users/${id}`, {
       method: 'PUT',
@@ -315,6 +362,69 @@ class ApiService {
     });
     return this.handleResponse(response);
   }
+
+  // Streams availability deltas; EventSource resumes from the last event id by itself after a drop
+  subscribeToAvailability(onDeltas, onReset) {
+    if (typeof EventSource === 'undefined') {
+      return () => {};
+    }
+    const source = new EventSource(`${this.baseURL}/books/available/events`);
+    source.addEventListener('availability', (event) => onDeltas(JSON.parse(event.data)));
+    source.addEventListener('reset', () => onReset && onReset());
+    return () => source.close();
+  }
+
+  // Hold endpoints
+  async placeHold(bookId) {
+    const currentUser = this.getCurrentUser();
+    if (!currentUser) {
+      throw new Error('User not authenticated');
+    }
+
+    const response = await fetch(`${this.baseURL}/holds?userId=${currentUser.id}&bookId=${bookId}`, {
+      method: 'POST',
+      headers: this.getHeaders()
+    });
+
+    if (!response.ok) {
+      const errorText = await response.text();
+      throw new Error(errorText || 'Failed to place hold');
+    }
+
+    return response.json();
+  }
+
+  async getUserHolds(userId) {
+    const response = await fetch(`${this.baseURL}/holds/user/${userId}`, {
+      headers: this.getHeaders()
+    });
+    return this.handleResponse(response);
+  }
+
+  async cancelHold(holdId) {
+    const response = await fetch(`${this.baseURL}/holds/${holdId}`, {
+      method: 'DELETE',
+      headers: this.getHeaders()
+    });
+
+    if (!response.ok) {
+      const errorText = await response.text();
+      throw new Error(errorText || 'Failed to cancel hold');
+    }
+  }
+
+  // Pushes hold-ready / hold-expired events instead of polling; call the returned function to close
+  subscribeToHoldEvents(onEvent) {
+    const token = localStorage.getItem('token');
+    if (!token || typeof EventSource === 'undefined') {
+      return () => {};
+    }
+    const source = new EventSource(`${this.baseURL}/holds/notifications?access_token=${encodeURIComponent(token)}`);
+    const handler = (event) => onEvent(event.type, JSON.parse(event.data));
+    source.addEventListener('hold-ready', handler);
+    source.addEventListener('hold-expired', handler);
+    return () => source.close();
+  }
 }
 
 export default new ApiService();
\ No newline at end of file